@@ -0,0 +1,197 @@
+package org.example.benchmark;
+
+import org.example.board.Board;
+import org.example.board.BoardRenderer;
+import org.example.board.Cell;
+import org.example.board.SparseBoard;
+import org.example.exception.CoordinateIsInvalidException;
+import org.example.exception.InvalidCoordinatesCountException;
+import org.example.exception.ShipPlacementInvalidException;
+import org.example.ship.Cruiser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Бенчмарки горячих путей доски: атака, постановка корабля, отрисовка и разбор
+ * координат.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    /***
+     * Размер разреженной доски в attackFreshSparseBoard.
+     */
+    private static final int SPARSE_SIZE = 1000;
+
+    /***
+     * Доска с расставленным флотом, по которой уже сделана часть выстрелов.
+     */
+    private Board board;
+    /***
+     * Доска с одним крейсером на c0 c1 c2, рядом с которым ставятся корабли.
+     */
+    private Board occupied;
+    /***
+     * Индекс следующей клетки для повторной атаки.
+     */
+    private int cursor;
+    /***
+     * Доска, по которой стреляют перед отрисовкой, ее открытый вид и следующая клетка.
+     */
+    private Board renderTarget;
+    private BoardRenderer view;
+    private int nextShot;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        this.board = Fixtures.fullBoard();
+        for (int i = 0; i < 100; i += 3) {
+            this.board.attack(Fixtures.CELLS[i]);
+        }
+        this.occupied = new Board();
+        this.occupied.addShip(new Cruiser(), "c0", "c1", "c2");
+        this.cursor = 0;
+        this.renderTarget = Fixtures.fullBoard();
+        this.view = new BoardRenderer(this.renderTarget, true);
+        this.nextShot = 0;
+    }
+
+    /***
+     * Полная зачистка свежей доски: расстановка флота и 100 выстрелов.
+     * Время расстановки отдельно измеряется в placeFleet.
+     */
+    @Benchmark
+    public int attackFreshBoard() throws CoordinateIsInvalidException {
+        Board fresh = Fixtures.fullBoard();
+        for (String cell : Fixtures.CELLS) {
+            fresh.attack(cell);
+        }
+        return fresh.getLives();
+    }
+
+    /***
+     * Повторный удар по уже атакованным клеткам: разбор координаты и чтение статуса.
+     */
+    @Benchmark
+    public Cell.Status attackAttackedCell() throws CoordinateIsInvalidException {
+        this.cursor = (this.cursor + 3) % 99;
+        return this.board.attack(Fixtures.CELLS[this.cursor]);
+    }
+
+    /***
+     * Полная зачистка свежей доски по номерам клеток, без разбора строк.
+     */
+    @Benchmark
+    public int attackFreshBoardPacked() {
+        Board fresh = Fixtures.fullBoard();
+        for (int cell = 0; cell < Board.SIZE * Board.SIZE; cell++) {
+            fresh.attack(cell);
+        }
+        return fresh.getLives();
+    }
+
+    /***
+     * То же, что attackFreshBoardPacked, на разреженной доске 1000x1000: флот стоит
+     * в углу доски, выстрелы - по клеткам первых десяти строк и столбцов.
+     */
+    @Benchmark
+    public int attackFreshSparseBoard() {
+        SparseBoard fresh = new SparseBoard(SPARSE_SIZE);
+        Fixtures.placeFleet(fresh);
+        for (int row = 0; row < Board.SIZE; row++) {
+            for (int column = 0; column < Board.SIZE; column++) {
+                fresh.attack(row * SPARSE_SIZE + column);
+            }
+        }
+        return fresh.getLives();
+    }
+
+    @Benchmark
+    public Board placeFleet() {
+        return Fixtures.fullBoard();
+    }
+
+    @Benchmark
+    public Board addShipValid() throws Exception {
+        Board fresh = new Board();
+        fresh.addShip(new Cruiser(), "e3", "e4", "e5");
+        return fresh;
+    }
+
+    /***
+     * Постановка вплотную к существующему кораблю, которая отклоняется исключением.
+     */
+    @Benchmark
+    public void addShipRejected(Blackhole blackhole)
+            throws InvalidCoordinatesCountException, CoordinateIsInvalidException {
+        try {
+            this.occupied.addShip(new Cruiser(), "d1", "d2", "d3");
+        } catch (ShipPlacementInvalidException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public String displayPublic() {
+        return this.board.displayBoard(true);
+    }
+
+    @Benchmark
+    public String displayPrivate() {
+        return this.board.displayBoard(false);
+    }
+
+    /***
+     * Отрисовка через BoardRenderer после одного нового выстрела: полный кадр
+     * и ANSI-разница. Доска пересоздается при исчерпании клеток.
+     */
+    @Benchmark
+    public String renderAfterShot() {
+        shootNextCell();
+        return this.view.render();
+    }
+
+    @Benchmark
+    public String renderDiffAfterShot() {
+        shootNextCell();
+        return this.view.renderDiff();
+    }
+
+    private void shootNextCell() {
+        if (this.nextShot == Board.SIZE * Board.SIZE) {
+            this.renderTarget.clear();
+            Fixtures.placeFleet(this.renderTarget);
+            this.nextShot = 0;
+        }
+        this.renderTarget.attack(this.nextShot++);
+    }
+
+    /***
+     * Разбор корректной и некорректной координаты без исключений.
+     */
+    @Benchmark
+    public int parseCell() {
+        this.cursor = (this.cursor + 3) % 99;
+        return this.board.parseCell(Fixtures.CELLS[this.cursor]) + this.board.parseCell("z9");
+    }
+
+    /***
+     * Удар по некорректной координате, который заканчивается исключением.
+     */
+    @Benchmark
+    public void parseInvalidCoordinate(Blackhole blackhole) {
+        try {
+            this.board.attack("z9");
+        } catch (CoordinateIsInvalidException e) {
+            blackhole.consume(e);
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.example.benchmark;
+
+import org.example.board.Board;
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+import org.example.exception.CoordinateIsInvalidException;
+import org.example.exception.InvalidCoordinatesCountException;
+import org.example.exception.ShipPlacementInvalidException;
+import org.example.ship.Ship;
+
+/***
+ * Общие данные для бенчмарков: фиксированная расстановка флота и сценарий игры.
+ */
+final class Fixtures {
+
+    /***
+     * Расстановка стандартного флота: линкор, два крейсера, три эсминца и четыре
+     * торпедных катера, в том порядке, в котором их запрашивает Game.
+     */
+    static final String[][] FLEET = {
+            {"a0", "a1", "a2", "a3"},
+            {"c0", "c1", "c2"}, {"c4", "c5", "c6"},
+            {"e0", "e1"}, {"e3", "e4"}, {"e6", "e7"},
+            {"g0"}, {"g2"}, {"g4"}, {"g6"}
+    };
+    /***
+     * Все клетки доски в порядке обхода по строкам.
+     */
+    static final String[] CELLS = new String[100];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            CELLS[i] = "" + (char) ('a' + i / 10) + (i % 10);
+        }
+    }
+
+    private Fixtures() {
+    }
+
+    /***
+     * Создает доску с расставленным флотом FLEET.
+     * @return доска с кораблями.
+     */
+    static Board fullBoard() {
+        Board board = new Board();
+        placeFleet(board);
+        return board;
+    }
+
+    /***
+     * Ставит флот FLEET на пустую доску.
+     * @param board доска без кораблей.
+     */
+    static void placeFleet(GameBoard board) {
+        try {
+            for (String[] coordinates : FLEET) {
+                board.addShip(Ship.ofLength(coordinates.length), coordinates);
+            }
+        } catch (InvalidCoordinatesCountException | CoordinateIsInvalidException
+                 | ShipPlacementInvalidException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /***
+     * Формирует ввод для Game: имена игроков, расстановку обоих флотов и выстрелы,
+     * которые игроки делают по очереди, обходя доску противника по строкам.
+     * @return содержимое входного потока для полной партии.
+     */
+    static String scriptedGame() {
+        StringBuilder script = new StringBuilder("first\nsecond\n");
+        for (int player = 0; player < 2; player++) {
+            for (String[] coordinates : FLEET) {
+                script.append(String.join(" ", coordinates)).append('\n');
+            }
+        }
+
+        Board[] boards = {fullBoard(), fullBoard()};
+        int[] nextCell = new int[2];
+        int turn = 0;
+        try {
+            while (boards[0].getLives() > 0 && boards[1].getLives() > 0) {
+                String cell = CELLS[nextCell[turn]++];
+                script.append(cell).append('\n');
+                if (boards[1 - turn].attack(cell) == Cell.Status.MISS) {
+                    turn = 1 - turn;
+                }
+            }
+        } catch (CoordinateIsInvalidException e) {
+            throw new IllegalStateException(e);
+        }
+        return script.toString();
+    }
+
+}
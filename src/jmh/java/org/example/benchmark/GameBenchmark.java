@@ -0,0 +1,51 @@
+package org.example.benchmark;
+
+import org.example.component.Game;
+import org.example.component.TokenReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Бенчмарк полной партии через консольный Game: от представления игроков и
+ * расстановки флотов до объявления победителя. Вывод игры отбрасывается.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+
+    /***
+     * Сценарий партии для входного потока.
+     */
+    private String script;
+    /***
+     * Исходный System.out, восстанавливается после измерений.
+     */
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.script = Fixtures.scriptedGame();
+        this.console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(this.console);
+    }
+
+    @Benchmark
+    public Game scriptedGame() {
+        Game game = new Game(new TokenReader(this.script));
+        game.play();
+        return game;
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.example.benchmark;
+
+import org.example.board.Board;
+import org.example.journal.MoveJournal;
+import org.example.placement.FleetGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Стоимость записи ходов в журнал: расстановка флота и 100 ударов по доске с
+ * журналом и без него.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JournalBenchmark {
+
+    /***
+     * Размер журнала на одну итерацию.
+     */
+    private static final int CAPACITY = 1 << 30;
+    /***
+     * Записей на вызов с запасом: очистка доски, постановки кораблей и удары.
+     * Неизрасходованный резерв только занимает место в журнале.
+     */
+    private static final int RECORDS = 1 + FleetGenerator.STANDARD_FLEET.length + Board.SIZE * Board.SIZE;
+
+    @Param({"false", "true"})
+    public boolean journaled;
+
+    private final FleetGenerator generator = new FleetGenerator();
+    private final SplittableRandom random = new SplittableRandom(42);
+    private Board board;
+    private Path file;
+    private MoveJournal journal;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        this.board = new Board();
+        if (this.journaled) {
+            this.file = Files.createTempFile("journal", ".bin");
+            this.journal = new MoveJournal(this.file, CAPACITY);
+            this.board.addListener(this.journal.listener(this.journal.newGame(), 0));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        if (this.journal != null) {
+            this.journal.close();
+            Files.delete(this.file);
+            this.journal = null;
+        }
+    }
+
+    @Benchmark
+    public int clearBoard() {
+        if (this.journal != null && !this.journal.reserve(RECORDS)) {
+            throw new IllegalStateException("Журнал ходов заполнен");
+        }
+        this.generator.place(this.board, this.random);
+        for (int cell = 0; cell < Board.SIZE * Board.SIZE; cell++) {
+            this.board.attack(cell);
+        }
+        return this.board.getLives();
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.example.benchmark;
+
+import org.example.component.Player;
+import org.example.matchmaking.Matchmaker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/***
+ * Пропускная способность подбора соперников при одновременной постановке в
+ * очередь из нескольких потоков, как в начале тура турнира. Каждая операция -
+ * постановка игрока со случайным рейтингом; примерно половина постановок сразу
+ * составляет пару.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MatchmakingBenchmark {
+
+    /***
+     * Заранее созданные игроки, чтобы измерять подбор, а не создание объектов.
+     */
+    private static final int PLAYERS = 1 << 16;
+
+    private Player[] players;
+    private Matchmaker matchmaker;
+    private final LongAdder games = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        this.players = new Player[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            this.players[i] = new Player("player" + i, random.nextInt(800, 3200));
+        }
+        this.matchmaker = new Matchmaker(100, 200, 1000, Runnable::run, (first, second) -> this.games.increment());
+        this.matchmaker.start(10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.matchmaker.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next = (int) Thread.currentThread().getId() * 7919;
+    }
+
+    @Benchmark
+    public Object enqueue(Cursor cursor) {
+        cursor.next = (cursor.next + 1) & (PLAYERS - 1);
+        return this.matchmaker.enqueue(this.players[cursor.next]);
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.example.benchmark;
+
+import org.example.board.Board;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Стоимость включенных метрик: та же зачистка доски, что и в
+ * BoardBenchmark.attackFreshBoardPacked, но в JVM с battleship.metrics=true.
+ * Разница результатов двух бенчмарков - цена учета ударов и замеров времени.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dbattleship.metrics=true", "-Dbattleship.metrics.logPeriod=0"})
+@State(Scope.Thread)
+public class MetricsBenchmark {
+
+    @Benchmark
+    public int attackFreshBoardPackedWithMetrics() {
+        Board fresh = Fixtures.fullBoard();
+        for (int cell = 0; cell < Board.SIZE * Board.SIZE; cell++) {
+            fresh.attack(cell);
+        }
+        return fresh.getLives();
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.example.benchmark;
+
+import org.example.board.Board;
+import org.example.placement.FleetGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Бенчмарки случайной расстановки флота в режимах FAST и UNIFORM.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlacementBenchmark {
+
+    @Param({"FAST", "UNIFORM"})
+    public FleetGenerator.Mode mode;
+
+    private FleetGenerator generator;
+    private Board board;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.generator = new FleetGenerator(FleetGenerator.STANDARD_FLEET, this.mode);
+        this.board = new Board();
+        this.random = new SplittableRandom(42);
+    }
+
+    /***
+     * Выбор позиций кораблей без постановки на доску.
+     */
+    @Benchmark
+    public int generate() {
+        this.generator.generate(this.random);
+        return this.generator.getPlacement(0);
+    }
+
+    /***
+     * Выбор позиций и постановка флота на переиспользуемую доску.
+     */
+    @Benchmark
+    public int place() {
+        this.generator.place(this.board, this.random);
+        return this.board.getLives();
+    }
+
+}
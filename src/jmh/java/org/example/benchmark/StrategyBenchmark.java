@@ -0,0 +1,71 @@
+package org.example.benchmark;
+
+import org.example.ai.HuntTargetStrategy;
+import org.example.ai.ProbabilityStrategy;
+import org.example.ai.RandomStrategy;
+import org.example.ai.Strategy;
+import org.example.board.Board;
+import org.example.placement.FleetGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Бенчмарки стратегий компьютерного игрока: выбор одного выстрела и зачистка
+ * целой доски.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StrategyBenchmark {
+
+    @Param({"random", "hunt-target", "probability"})
+    public String strategyName;
+
+    private Strategy strategy;
+    private Board board;
+    private FleetGenerator generator;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.strategy = switch (this.strategyName) {
+            case "random" -> new RandomStrategy();
+            case "hunt-target" -> new HuntTargetStrategy();
+            default -> new ProbabilityStrategy();
+        };
+        this.board = new Board();
+        this.generator = new FleetGenerator();
+        this.random = new SplittableRandom(42);
+    }
+
+    /***
+     * Выбор первого выстрела партии.
+     */
+    @Benchmark
+    public int firstShot() {
+        this.strategy.reset(this.random);
+        return this.strategy.nextShot(this.board);
+    }
+
+    /***
+     * Случайная расстановка флота и стрельба стратегии до потопления всех кораблей.
+     */
+    @Benchmark
+    public int sinkFleet() {
+        this.generator.place(this.board, this.random);
+        this.strategy.reset(this.random);
+        int shots = 0;
+        while (this.board.getLives() > 0) {
+            int cell = this.strategy.nextShot(this.board);
+            this.strategy.onResult(cell, this.board.attack(cell));
+            shots++;
+        }
+        return shots;
+    }
+
+}
@@ -1,18 +1,109 @@
 package org.example;
 
+import org.example.ai.HuntTargetStrategy;
+import org.example.ai.ProbabilityStrategy;
+import org.example.archive.ArchiveScanner;
+import org.example.archive.ArchiveWriter;
+import org.example.component.BatchRunner;
 import org.example.component.Game;
+import org.example.component.GameConfig;
+import org.example.component.TokenReader;
+import org.example.journal.MoveJournal;
+import org.example.opening.OpeningBook;
+import org.example.server.GameServer;
+import org.example.simulation.SimulationRunner;
+import org.example.solver.LayoutSolver;
 
-import java.util.Scanner;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 
 /***
- * Пример запуска игры
+ * Пример запуска игры.
+ * Без аргументов запускает игру двух людей в консоли.
+ * play размер [флот] - игра двух людей на доске заданного размера, флот задается
+ * длинами кораблей через запятую, например "play 1000 4,3,2,1".
+ * salvo [размер] [флот] - игра двух людей залпами: за ход по выстрелу за каждый
+ * непотопленный корабль.
+ * simulate [партий] [зерно] [архив] - прогон партий компьютер против компьютера;
+ * если указан файл архива, партии дописываются в него.
+ * analyze архив - статистика по партиям архива.
+ * server [порт] [журнал] [порт зрителей] - сетевой сервер, на котором играют пары
+ * подключившихся клиентов; если указан файл журнала (не "-"), ходы партий
+ * записываются в него, если указан порт зрителей, на нем транслируются партии.
+ * batch путь [размер] [флот] - проигрывает сценарий партии или все сценарии
+ * каталога без вывода досок и печатает победителей.
+ * book файл [глубина] - строит книгу дебютов для стандартного флота.
  */
 public class Main {
-    public static void main(String[] args) {
-        try (Scanner in = new Scanner(System.in)) {
-            Game game = new Game(in);
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 7777;
+            MoveJournal journal = args.length > 2 && !args[2].equals("-")
+                    ? new MoveJournal(Path.of(args[2])) : null;
+            InetSocketAddress spectators = args.length > 3
+                    ? new InetSocketAddress(Integer.parseInt(args[3])) : null;
+            if (journal != null) {
+                // сервер отмечает их оконченными: вернуться в партию после перезапуска нельзя.
+                System.out.println("Незавершенных партий в журнале: " + journal.getRecovered().size());
+            }
+            try (GameServer server = new GameServer(new InetSocketAddress(port), journal, spectators)) {
+                server.start();
+                System.out.println("Сервер запущен на порту " + server.getPort()
+                        + (spectators != null ? ", трансляции на порту " + server.getSpectatorPort() : "")
+                        + ". Для остановки нажмите Enter.");
+                //noinspection ResultOfMethodCallIgnored
+                System.in.read();
+            } finally {
+                if (journal != null) {
+                    journal.close();
+                }
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals("simulate")) {
+            long games = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+            SimulationRunner runner = new SimulationRunner(ProbabilityStrategy::new, HuntTargetStrategy::new);
+            if (args.length > 3) {
+                try (ArchiveWriter archive = new ArchiveWriter(Path.of(args[3]))) {
+                    System.out.println(runner.run(games, seed, archive));
+                }
+            } else {
+                System.out.println(runner.run(games, seed));
+            }
+            return;
+        }
+        if (args.length > 1 && args[0].equals("analyze")) {
+            System.out.println(new ArchiveScanner().scan(Path.of(args[1])));
+            return;
+        }
+        if (args.length > 1 && args[0].equals("batch")) {
+            GameConfig config = args.length > 2
+                    ? GameConfig.parse(args[2], args.length > 3 ? args[3] : null)
+                    : GameConfig.STANDARD;
+            new BatchRunner(config).run(Path.of(args[1]), System.out);
+            return;
+        }
+        if (args.length > 1 && args[0].equals("book")) {
+            int depth = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+            int entries = OpeningBook.build(Path.of(args[1]), new LayoutSolver(), depth);
+            System.out.println("Записей в книге дебютов: " + entries);
+            return;
+        }
+        GameConfig config = GameConfig.STANDARD;
+        if (args.length > 1 && args[0].equals("play")) {
+            config = GameConfig.parse(args[1], args.length > 2 ? args[2] : null);
+        }
+        if (args.length > 0 && args[0].equals("salvo")) {
+            config = args.length > 1
+                    ? GameConfig.parse(args[1], args.length > 2 ? args[2] : null).withSalvo()
+                    : GameConfig.STANDARD.withSalvo();
+        }
+        try (TokenReader in = new TokenReader(System.in)) {
+            Game game = new Game(in, config, null);
             game.showInstructions();
             game.play();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package org.example.ai;
+
+import org.example.board.Board;
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+
+import java.util.SplittableRandom;
+
+/***
+ * Стратегия "охота и добивание".
+ * В режиме охоты стреляет в случайные клетки шахматного порядка: любой корабль из
+ * двух и более клеток займет хотя бы одну из них. Когда такие клетки закончатся,
+ * ищет оставшиеся однопалубные корабли среди остальных клеток.
+ * После попадания переходит в режим добивания и стреляет по соседям подбитых
+ * клеток, пока корабль не будет потоплен.
+ */
+public class HuntTargetStrategy implements Strategy {
+
+    /***
+     * Клетки доски в порядке обхода в режиме охоты.
+     */
+    private final int[] order = new int[Board.SIZE * Board.SIZE];
+    /***
+     * Позиция следующей клетки в order.
+     */
+    private int position;
+    /***
+     * Стек клеток-кандидатов для добивания.
+     */
+    private final int[] targets = new int[4 * Board.SIZE * Board.SIZE];
+    /***
+     * Количество клеток в стеке targets.
+     */
+    private int targetCount;
+
+    public HuntTargetStrategy() {
+        for (int i = 0; i < this.order.length; i++) {
+            this.order[i] = i;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "hunt-target";
+    }
+
+    @Override
+    public void reset(SplittableRandom random) {
+        RandomStrategy.shuffle(this.order, random);
+        this.position = 0;
+        this.targetCount = 0;
+    }
+
+    @Override
+    public int nextShot(GameBoard target) {
+        while (this.targetCount > 0) {
+            int cell = this.targets[--this.targetCount];
+            if (isUnknown(target, cell)) {
+                return cell;
+            }
+        }
+        // сначала клетки шахматного порядка, затем остальные.
+        while (this.position < this.order.length) {
+            int cell = this.order[this.position];
+            if (((cell / Board.SIZE + cell % Board.SIZE) & 1) == 0 && isUnknown(target, cell)) {
+                return cell;
+            }
+            this.position++;
+        }
+        for (int cell : this.order) {
+            if (isUnknown(target, cell)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void onResult(int cell, Cell.Status status) {
+        if (status == Cell.Status.HIT) {
+            int row = cell / Board.SIZE;
+            int column = cell % Board.SIZE;
+            if (row > 0) {
+                this.targets[this.targetCount++] = cell - Board.SIZE;
+            }
+            if (row < Board.SIZE - 1) {
+                this.targets[this.targetCount++] = cell + Board.SIZE;
+            }
+            if (column > 0) {
+                this.targets[this.targetCount++] = cell - 1;
+            }
+            if (column < Board.SIZE - 1) {
+                this.targets[this.targetCount++] = cell + 1;
+            }
+        } else if (status == Cell.Status.SUNKEN) {
+            this.targetCount = 0;
+        }
+    }
+
+    private static boolean isUnknown(GameBoard target, int cell) {
+        return target.getPublicStatus(cell) == Cell.Status.EMPTY;
+    }
+
+}
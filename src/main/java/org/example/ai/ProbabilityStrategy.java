@@ -0,0 +1,283 @@
+package org.example.ai;
+
+import org.example.board.Board;
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+import org.example.placement.FleetGenerator;
+import org.example.placement.PlacementTable;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/***
+ * Стратегия по карте плотности вероятности.
+ * Для каждой клетки хранится, сколько допустимых позиций оставшихся кораблей ее
+ * накрывают; в режиме охоты выстрел делается в клетку с наибольшей плотностью.
+ * Позиция перестает быть допустимой, когда накрывает клетку, где корабля точно нет:
+ * промах, потопленный корабль или его окружение.
+ * Карта обновляется инкрементально: при закрытии клетки пересчитываются только
+ * позиции, проходящие через нее, а при потоплении корабля - только вклад его длины.
+ * После попадания стратегия переходит в режим добивания и выбирает клетку, которую
+ * накрывает больше всего позиций, проходящих через все подбитые клетки корабля.
+ */
+public class ProbabilityStrategy implements Strategy {
+
+    private static final int CELLS = PlacementTable.CELLS;
+    private static final int MAX_LENGTH = PlacementTable.MAX_LENGTH;
+    /***
+     * Начальное количество кораблей каждой длины.
+     */
+    private static final int[] FLEET = new int[MAX_LENGTH + 1];
+    /***
+     * Начальные значения cover и density для пустой доски.
+     */
+    private static final int[][] INITIAL_COVER = new int[MAX_LENGTH + 1][CELLS];
+    private static final int[] INITIAL_DENSITY = new int[CELLS];
+
+    static {
+        for (int length : FleetGenerator.STANDARD_FLEET) {
+            FLEET[length]++;
+        }
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            PlacementTable table = PlacementTable.forLength(length);
+            for (int cell = 0; cell < CELLS; cell++) {
+                INITIAL_COVER[length][cell] = table.coveringCell(cell).length;
+                INITIAL_DENSITY[cell] += FLEET[length] * INITIAL_COVER[length][cell];
+            }
+        }
+    }
+
+    /***
+     * Признак допустимой позиции: alive[length][placement].
+     */
+    private final boolean[][] alive = new boolean[MAX_LENGTH + 1][];
+    /***
+     * Количество допустимых позиций длины length, накрывающих клетку: cover[length][cell].
+     */
+    private final int[][] cover = new int[MAX_LENGTH + 1][CELLS];
+    /***
+     * Плотность клетки: сумма cover[length][cell] * remaining[length] по всем длинам.
+     */
+    private final int[] density = new int[CELLS];
+    /***
+     * Количество непотопленных кораблей каждой длины.
+     */
+    private final int[] remaining = new int[MAX_LENGTH + 1];
+    /***
+     * Клетки, в которых корабля точно нет.
+     */
+    private final boolean[] blocked = new boolean[CELLS];
+    /***
+     * Клетки, по которым уже стреляли.
+     */
+    private final boolean[] shot = new boolean[CELLS];
+    /***
+     * Подбитые клетки еще не потопленного корабля.
+     */
+    private final int[] hits = new int[MAX_LENGTH];
+    private int hitCount;
+    /***
+     * Очки клеток в режиме добивания.
+     */
+    private final int[] scores = new int[CELLS];
+    private SplittableRandom random;
+
+    public ProbabilityStrategy() {
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            this.alive[length] = new boolean[PlacementTable.forLength(length).size()];
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "probability";
+    }
+
+    @Override
+    public void reset(SplittableRandom random) {
+        this.random = random;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            Arrays.fill(this.alive[length], true);
+            System.arraycopy(INITIAL_COVER[length], 0, this.cover[length], 0, CELLS);
+        }
+        System.arraycopy(INITIAL_DENSITY, 0, this.density, 0, CELLS);
+        System.arraycopy(FLEET, 0, this.remaining, 0, FLEET.length);
+        Arrays.fill(this.blocked, false);
+        Arrays.fill(this.shot, false);
+        this.hitCount = 0;
+    }
+
+    @Override
+    public int nextShot(GameBoard target) {
+        if (this.hitCount > 0) {
+            int cell = targetShot();
+            if (cell >= 0) {
+                return cell;
+            }
+        }
+        return argmax(this.density);
+    }
+
+    @Override
+    public void onResult(int cell, Cell.Status status) {
+        this.shot[cell] = true;
+        switch (status) {
+            case MISS -> block(cell);
+            case HIT -> {
+                this.hits[this.hitCount++] = cell;
+                // по диагонали от подбитой клетки корабля быть не может.
+                int row = cell / Board.SIZE;
+                int column = cell % Board.SIZE;
+                for (int dr = -1; dr <= 1; dr += 2) {
+                    for (int dc = -1; dc <= 1; dc += 2) {
+                        blockIfInside(row + dr, column + dc);
+                    }
+                }
+            }
+            case SUNKEN -> {
+                this.hits[this.hitCount++] = cell;
+                sink();
+            }
+            default -> {
+            }
+        }
+    }
+
+    /***
+     * Учитывает потопление корабля из клеток hits: уменьшает число оставшихся
+     * кораблей его длины и закрывает клетки корабля и его окружения.
+     */
+    private void sink() {
+        int length = this.hitCount;
+        if (length <= MAX_LENGTH && this.remaining[length] > 0) {
+            this.remaining[length]--;
+            int[] lengthCover = this.cover[length];
+            for (int cell = 0; cell < CELLS; cell++) {
+                this.density[cell] -= lengthCover[cell];
+            }
+        }
+        for (int i = 0; i < this.hitCount; i++) {
+            int row = this.hits[i] / Board.SIZE;
+            int column = this.hits[i] % Board.SIZE;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    blockIfInside(row + dr, column + dc);
+                }
+            }
+        }
+        this.hitCount = 0;
+    }
+
+    private void blockIfInside(int row, int column) {
+        if (row >= 0 && row < Board.SIZE && column >= 0 && column < Board.SIZE) {
+            block(row * Board.SIZE + column);
+        }
+    }
+
+    /***
+     * Отмечает, что в клетке корабля нет, и исключает все позиции, которые через
+     * нее проходят.
+     * @param cell номер клетки.
+     */
+    private void block(int cell) {
+        if (this.blocked[cell]) {
+            return;
+        }
+        this.blocked[cell] = true;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            PlacementTable table = PlacementTable.forLength(length);
+            boolean[] lengthAlive = this.alive[length];
+            int[] lengthCover = this.cover[length];
+            int weight = this.remaining[length];
+            for (int placement : table.coveringCell(cell)) {
+                if (lengthAlive[placement]) {
+                    lengthAlive[placement] = false;
+                    for (int i = 0; i < length; i++) {
+                        int covered = table.cell(placement, i);
+                        lengthCover[covered]--;
+                        this.density[covered] -= weight;
+                    }
+                }
+            }
+        }
+    }
+
+    /***
+     * Выбор клетки в режиме добивания: учитываются допустимые позиции оставшихся
+     * кораблей, проходящие через все подбитые клетки, а выбирается одна из клеток
+     * рядом с подбитыми.
+     * @return номер клетки или -1, если подходящих позиций нет.
+     */
+    private int targetShot() {
+        Arrays.fill(this.scores, 0);
+        int first = this.hits[0];
+        boolean found = false;
+        for (int length = Math.max(this.hitCount, 2); length <= MAX_LENGTH; length++) {
+            int weight = this.remaining[length];
+            if (weight == 0) {
+                continue;
+            }
+            PlacementTable table = PlacementTable.forLength(length);
+            for (int placement : table.coveringCell(first)) {
+                if (this.alive[length][placement] && coversAllHits(table, placement)) {
+                    for (int i = 0; i < length; i++) {
+                        int cell = table.cell(placement, i);
+                        // стреляем только вплотную к подбитым клеткам: тогда новое
+                        // попадание гарантированно принадлежит тому же кораблю.
+                        if (isNextToHit(cell)) {
+                            this.scores[cell] += weight;
+                            found = true;
+                        }
+                    }
+                }
+            }
+        }
+        return found ? argmax(this.scores) : -1;
+    }
+
+    private boolean isNextToHit(int cell) {
+        for (int i = 0; i < this.hitCount; i++) {
+            int distance = Math.abs(cell - this.hits[i]);
+            if (distance == Board.SIZE
+                    || distance == 1 && cell / Board.SIZE == this.hits[i] / Board.SIZE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean coversAllHits(PlacementTable table, int placement) {
+        long lo = table.maskLo(placement);
+        long hi = table.maskHi(placement);
+        for (int i = 1; i < this.hitCount; i++) {
+            int cell = this.hits[i];
+            long bit = cell < 64 ? lo >>> cell : hi >>> (cell - 64);
+            if ((bit & 1) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /***
+     * Клетка с наибольшим значением среди неатакованных и не закрытых клеток.
+     * Обход начинается со случайной клетки, чтобы равные значения выбирались
+     * случайно.
+     * @param values значения клеток.
+     * @return номер клетки.
+     */
+    private int argmax(int[] values) {
+        int start = this.random.nextInt(CELLS);
+        int best = -1;
+        int bestValue = -1;
+        for (int i = 0; i < CELLS; i++) {
+            int cell = start + i < CELLS ? start + i : start + i - CELLS;
+            if (!this.shot[cell] && !this.blocked[cell] && values[cell] > bestValue) {
+                best = cell;
+                bestValue = values[cell];
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.example.ai;
+
+import org.example.board.Board;
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+
+import java.util.SplittableRandom;
+
+/***
+ * Стратегия случайных выстрелов: обходит клетки доски в случайном порядке,
+ * пропуская уже атакованные.
+ */
+public class RandomStrategy implements Strategy {
+
+    /***
+     * Клетки доски в порядке обхода.
+     */
+    private final int[] order = new int[Board.SIZE * Board.SIZE];
+    /***
+     * Позиция следующей клетки в order.
+     */
+    private int position;
+
+    public RandomStrategy() {
+        for (int i = 0; i < this.order.length; i++) {
+            this.order[i] = i;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "random";
+    }
+
+    @Override
+    public void reset(SplittableRandom random) {
+        shuffle(this.order, random);
+        this.position = 0;
+    }
+
+    @Override
+    public int nextShot(GameBoard target) {
+        while (true) {
+            int cell = this.order[this.position++];
+            if (target.getPublicStatus(cell) == Cell.Status.EMPTY) {
+                return cell;
+            }
+        }
+    }
+
+    @Override
+    public void onResult(int cell, Cell.Status status) {
+    }
+
+    /***
+     * Перемешивает массив алгоритмом Фишера-Йетса.
+     * @param cells массив для перемешивания.
+     * @param random генератор случайных чисел.
+     */
+    static void shuffle(int[] cells, SplittableRandom random) {
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = cells[i];
+            cells[i] = cells[j];
+            cells[j] = swap;
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.example.ai;
+
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+
+import java.util.SplittableRandom;
+
+/***
+ * Стратегия выбора выстрелов компьютерного игрока.
+ * Клетка задается номером row * Board.SIZE + column: стратегии рассчитаны на
+ * стандартную доску и стандартный флот. Стратегия может читать только открытое
+ * состояние доски противника (GameBoard.getPublicStatus), расположение целых
+ * кораблей ей неизвестно.
+ * Экземпляр стратегии не потокобезопасен и переиспользуется между партиями:
+ * перед каждой партией вызывается reset.
+ */
+public interface Strategy {
+
+    /***
+     * Название стратегии для отчетов.
+     * @return название стратегии.
+     */
+    String getName();
+
+    /***
+     * Подготавливает стратегию к новой партии.
+     * @param random генератор случайных чисел партии.
+     */
+    void reset(SplittableRandom random);
+
+    /***
+     * Выбирает клетку для следующего выстрела.
+     * @param target доска противника.
+     * @return номер еще не атакованной клетки.
+     */
+    int nextShot(GameBoard target);
+
+    /***
+     * Сообщает стратегии результат ее выстрела.
+     * @param cell номер атакованной клетки.
+     * @param status результат: MISS, HIT или SUNKEN.
+     */
+    void onResult(int cell, Cell.Status status);
+
+}
@@ -0,0 +1,164 @@
+package org.example.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/***
+ * Параллельный подсчет статистики по архиву партий.
+ * Сначала читаются только заголовки блоков, чтобы найти их границы, затем блоки
+ * делятся между задачами ForkJoinPool. Каждая задача отображает свои блоки в
+ * память и проходит по нужным столбцам напрямую, не восстанавливая доски и
+ * объекты партий. Итоги задач объединяются в конце.
+ */
+public class ArchiveScanner {
+
+    private final int parallelism;
+
+    /***
+     * Создает сканер, использующий все доступные ядра.
+     */
+    public ArchiveScanner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /***
+     * @param parallelism количество потоков.
+     */
+    public ArchiveScanner(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /***
+     * Считает статистику по всем партиям архива.
+     * @param file файл архива.
+     * @return статистика.
+     * @throws IOException если архив не удалось прочитать или он поврежден.
+     */
+    public ArchiveStats scan(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> blocks = findBlocks(channel);
+            ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+            try {
+                return pool.invoke(new Scan(channel, blocks, 0, blocks.size()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /***
+     * Читает заголовки блоков.
+     * @return пары {смещение, длина} блоков.
+     */
+    private static List<long[]> findBlocks(FileChannel channel) throws IOException {
+        List<long[]> blocks = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(ArchiveWriter.HEADER);
+        long size = channel.size();
+        long offset = 0;
+        while (offset < size) {
+            header.clear();
+            while (header.hasRemaining()) {
+                if (channel.read(header, offset + header.position()) < 0) {
+                    throw new IOException("Архив обрывается внутри заголовка блока");
+                }
+            }
+            if (header.getInt(0) != ArchiveWriter.MAGIC) {
+                throw new IOException("Неверный заголовок блока по смещению " + offset);
+            }
+            int length = header.getInt(4);
+            if (length < ArchiveWriter.HEADER || offset + length > size) {
+                throw new IOException("Неверная длина блока по смещению " + offset);
+            }
+            blocks.add(new long[]{offset, length});
+            offset += length;
+        }
+        return blocks;
+    }
+
+    /***
+     * Подсчет статистики по одному блоку.
+     */
+    static void scanBlock(ByteBuffer block, ArchiveStats stats) {
+        int games = block.getInt(8);
+        int shots = block.getInt(12);
+        int fleets = ArchiveWriter.HEADER;
+        int counts = fleets + games * 4 * Long.BYTES;
+        int winners = counts + games;
+        int cells = winners + games;
+        int results = cells + shots;
+
+        for (int i = 0; i < games * 4; i += 2) {
+            stats.addShips(block.getLong(fleets + i * Long.BYTES), block.getLong(fleets + (i + 1) * Long.BYTES));
+        }
+        int shot = 0;
+        for (int game = 0; game < games; game++) {
+            int count = block.get(counts + game) & 0xFF;
+            boolean firstShotHit = count > 0 && result(block, results, shot) != GameRecord.MISS;
+            stats.addGame(count, block.get(winners + game), firstShotHit);
+            for (int end = shot + count; shot < end; shot++) {
+                if (result(block, results, shot) != GameRecord.MISS) {
+                    stats.addHit(block.get(cells + shot));
+                }
+            }
+        }
+    }
+
+    private static int result(ByteBuffer block, int results, int shot) {
+        return block.get(results + (shot >>> 2)) >>> ((shot & 3) << 1) & 3;
+    }
+
+    /***
+     * Задача, обрабатывающая блоки с номерами [from, to).
+     */
+    private static final class Scan extends RecursiveTask<ArchiveStats> {
+
+        private final FileChannel channel;
+        private final List<long[]> blocks;
+        private final int from;
+        private final int to;
+
+        private Scan(FileChannel channel, List<long[]> blocks, int from, int to) {
+            this.channel = channel;
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ArchiveStats compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                Scan left = new Scan(this.channel, this.blocks, this.from, middle);
+                left.fork();
+                ArchiveStats right = new Scan(this.channel, this.blocks, middle, this.to).compute();
+                return right.merge(left.join());
+            }
+            ArchiveStats stats = new ArchiveStats();
+            for (int i = this.from; i < this.to; i++) {
+                long[] block = this.blocks.get(i);
+                try {
+                    MappedByteBuffer buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, block[0], block[1]);
+                    scanBlock(buffer, stats);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return stats;
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.example.archive;
+
+import org.example.board.Board;
+
+/***
+ * Статистика по партиям архива.
+ * Тепловые карты считаются по обеим доскам каждой партии: сколько раз клетка
+ * была занята кораблем и сколько раз по ней попали.
+ */
+public class ArchiveStats {
+
+    private static final int CELLS = Board.SIZE * Board.SIZE;
+
+    private long games;
+    private long shots;
+    private long firstShotHits;
+    private final long[] wins = new long[2];
+    private final long[] shipHeatmap = new long[CELLS];
+    private final long[] hitHeatmap = new long[CELLS];
+
+    void addGame(int shots, int winner, boolean firstShotHit) {
+        this.games++;
+        this.shots += shots;
+        this.wins[winner]++;
+        if (firstShotHit) {
+            this.firstShotHits++;
+        }
+    }
+
+    void addShips(long lo, long hi) {
+        for (long bits = lo; bits != 0; bits &= bits - 1) {
+            this.shipHeatmap[Long.numberOfTrailingZeros(bits)]++;
+        }
+        for (long bits = hi; bits != 0; bits &= bits - 1) {
+            this.shipHeatmap[64 + Long.numberOfTrailingZeros(bits)]++;
+        }
+    }
+
+    void addHit(int cell) {
+        this.hitHeatmap[cell]++;
+    }
+
+    ArchiveStats merge(ArchiveStats other) {
+        this.games += other.games;
+        this.shots += other.shots;
+        this.firstShotHits += other.firstShotHits;
+        this.wins[0] += other.wins[0];
+        this.wins[1] += other.wins[1];
+        for (int cell = 0; cell < CELLS; cell++) {
+            this.shipHeatmap[cell] += other.shipHeatmap[cell];
+            this.hitHeatmap[cell] += other.hitHeatmap[cell];
+        }
+        return this;
+    }
+
+    public long getGames() {
+        return this.games;
+    }
+
+    /***
+     * @return среднее количество выстрелов обоих игроков за партию.
+     */
+    public double getAverageGameLength() {
+        return this.games == 0 ? 0 : (double) this.shots / this.games;
+    }
+
+    /***
+     * @return доля партий, в которых первый выстрел попал в корабль.
+     */
+    public double getFirstShotSuccessRate() {
+        return this.games == 0 ? 0 : (double) this.firstShotHits / this.games;
+    }
+
+    /***
+     * @param player номер игрока: GameEngine.FIRST или GameEngine.SECOND.
+     * @return количество побед игрока, который ходил первым или вторым.
+     */
+    public long getWins(int player) {
+        return this.wins[player];
+    }
+
+    /***
+     * @param cell номер клетки.
+     * @return сколько раз клетка была занята кораблем.
+     */
+    public long getShipCount(int cell) {
+        return this.shipHeatmap[cell];
+    }
+
+    /***
+     * @param cell номер клетки.
+     * @return сколько раз по клетке попали.
+     */
+    public long getHitCount(int cell) {
+        return this.hitHeatmap[cell];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(
+                "Партий: %d%nСредняя длина партии: %.2f выстрела%n"
+                        + "Первый выстрел попал: %.2f%%%nПобед первого игрока: %.2f%%%n"
+                        + "Попадания по клеткам, на 1000 партий:%n",
+                this.games, getAverageGameLength(), getFirstShotSuccessRate() * 100,
+                this.games == 0 ? 0 : this.wins[0] * 100.0 / this.games));
+        builder.append("  ");
+        for (int column = 0; column < Board.SIZE; column++) {
+            builder.append(String.format("%5d", column));
+        }
+        builder.append('\n');
+        for (int row = 0; row < Board.SIZE; row++) {
+            builder.append((char) ('a' + row)).append(' ');
+            for (int column = 0; column < Board.SIZE; column++) {
+                long hits = this.hitHeatmap[row * Board.SIZE + column];
+                builder.append(String.format("%5d", this.games == 0 ? 0 : hits * 1000 / this.games));
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,124 @@
+package org.example.archive;
+
+import org.example.engine.GameEngine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/***
+ * Запись завершенных партий в архив.
+ * Архив - последовательность блоков, в каждом до BLOCK_GAMES партий. Внутри блока
+ * данные хранятся по столбцам, чтобы сканер читал только нужные ему столбцы:
+ * <pre>
+ * int    MAGIC
+ * int    длина блока в байтах, включая заголовок
+ * int    количество партий
+ * int    количество выстрелов во всех партиях
+ * long[] маски кораблей, по 4 слова на партию (см. GameRecord.fleets)
+ * byte[] количество выстрелов каждой партии
+ * byte[] номер победителя каждой партии
+ * byte[] клетки всех выстрелов подряд
+ * byte[] результаты всех выстрелов, по 2 бита: младшие биты - более ранний выстрел
+ * </pre>
+ * Партия занимает 34 байта плюс чуть больше байта на выстрел.
+ * Метод write потокобезопасен: параллельные симуляции могут писать в один архив.
+ */
+public class ArchiveWriter implements Closeable {
+
+    /***
+     * Признак начала блока: "SBA1".
+     */
+    public static final int MAGIC = 0x53424131;
+    /***
+     * Наибольшее количество партий в блоке.
+     */
+    public static final int BLOCK_GAMES = 4096;
+    static final int HEADER = 4 * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final long[] fleets = new long[BLOCK_GAMES * 4];
+    private final byte[] shotCounts = new byte[BLOCK_GAMES];
+    private final byte[] winners = new byte[BLOCK_GAMES];
+    private final byte[] cells = new byte[BLOCK_GAMES * GameRecord.MAX_SHOTS];
+    private final byte[] results = new byte[BLOCK_GAMES * GameRecord.MAX_SHOTS / 4];
+    private final ByteBuffer block;
+    private int games;
+    private int shots;
+
+    /***
+     * Открывает архив для дописывания; файл создается, если его нет.
+     * @param file файл архива.
+     * @throws IOException если файл не удалось открыть.
+     */
+    public ArchiveWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.block = ByteBuffer.allocateDirect(HEADER + this.fleets.length * Long.BYTES
+                + 2 * BLOCK_GAMES + this.cells.length + this.results.length);
+    }
+
+    /***
+     * Добавляет завершенную партию. Блок записывается в файл, когда заполнится.
+     * @param record запись партии, для которой вызван finish.
+     * @throws IOException если блок не удалось записать.
+     */
+    public synchronized void write(GameRecord record) throws IOException {
+        if (record.winner == GameEngine.NONE) {
+            throw new IllegalArgumentException("Партия не завершена");
+        }
+        System.arraycopy(record.fleets, 0, this.fleets, this.games * 4, 4);
+        this.shotCounts[this.games] = (byte) record.shots;
+        this.winners[this.games] = (byte) record.winner;
+        System.arraycopy(record.cells, 0, this.cells, this.shots, record.shots);
+        for (int i = 0; i < record.shots; i++) {
+            int shot = this.shots + i;
+            this.results[shot >>> 2] |= (byte) (record.results[i] << ((shot & 3) << 1));
+        }
+        this.shots += record.shots;
+        if (++this.games == BLOCK_GAMES) {
+            flush();
+        }
+    }
+
+    /***
+     * Записывает в файл неполный блок.
+     * @throws IOException если блок не удалось записать.
+     */
+    public synchronized void flush() throws IOException {
+        if (this.games == 0) {
+            return;
+        }
+        int resultBytes = (this.shots + 3) >>> 2;
+        int length = HEADER + this.games * 4 * Long.BYTES + 2 * this.games + this.shots + resultBytes;
+        this.block.clear();
+        this.block.putInt(MAGIC).putInt(length).putInt(this.games).putInt(this.shots);
+        this.block.asLongBuffer().put(this.fleets, 0, this.games * 4);
+        this.block.position(this.block.position() + this.games * 4 * Long.BYTES);
+        this.block.put(this.shotCounts, 0, this.games);
+        this.block.put(this.winners, 0, this.games);
+        this.block.put(this.cells, 0, this.shots);
+        this.block.put(this.results, 0, resultBytes);
+        this.block.flip();
+        while (this.block.hasRemaining()) {
+            this.channel.write(this.block);
+        }
+        Arrays.fill(this.results, 0, resultBytes, (byte) 0);
+        this.games = 0;
+        this.shots = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+}
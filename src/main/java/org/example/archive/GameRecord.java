@@ -0,0 +1,91 @@
+package org.example.archive;
+
+import org.example.board.Board;
+import org.example.board.Cell;
+import org.example.engine.GameEngine;
+
+/***
+ * Запись одной партии для архива: расстановка флотов в виде масок, клетки
+ * выстрелов по порядку и их результаты.
+ * Объект переиспользуется: start() начинает новую партию, поэтому при записи
+ * множества партий новые объекты не создаются.
+ * Первым ходит GameEngine.FIRST, очередь меняется после промаха, поэтому кто
+ * стрелял, в записи не хранится.
+ */
+public class GameRecord {
+
+    /***
+     * Наибольшее количество выстрелов в партии: каждый игрок стреляет не более
+     * чем по всем клеткам доски противника.
+     */
+    public static final int MAX_SHOTS = 2 * Board.SIZE * Board.SIZE;
+    /***
+     * Двухбитовые коды результатов выстрела.
+     */
+    public static final int MISS = 0;
+    public static final int HIT = 1;
+    public static final int SUNKEN = 2;
+
+    /***
+     * Маски кораблей: [доска первого игрока: 2 слова, доска второго: 2 слова].
+     */
+    final long[] fleets = new long[4];
+    final byte[] cells = new byte[MAX_SHOTS];
+    final byte[] results = new byte[MAX_SHOTS];
+    int shots;
+    int winner = GameEngine.NONE;
+
+    /***
+     * Начинает запись партии с расставленными флотами.
+     * @param first доска первого игрока.
+     * @param second доска второго игрока.
+     */
+    public void start(Board first, Board second) {
+        this.fleets[0] = first.getShipMask(0);
+        this.fleets[1] = first.getShipMask(1);
+        this.fleets[2] = second.getShipMask(0);
+        this.fleets[3] = second.getShipMask(1);
+        this.shots = 0;
+        this.winner = GameEngine.NONE;
+    }
+
+    /***
+     * Добавляет выстрел.
+     * @param cell номер клетки.
+     * @param status результат выстрела: MISS, HIT или SUNKEN.
+     */
+    public void shot(int cell, Cell.Status status) {
+        if (this.shots == MAX_SHOTS) {
+            throw new IllegalStateException("Слишком много выстрелов для одной партии");
+        }
+        this.cells[this.shots] = (byte) cell;
+        this.results[this.shots] = (byte) code(status);
+        this.shots++;
+    }
+
+    /***
+     * Завершает запись партии.
+     * @param winner номер победителя: GameEngine.FIRST или GameEngine.SECOND.
+     */
+    public void finish(int winner) {
+        this.winner = winner;
+    }
+
+    public int getShots() {
+        return this.shots;
+    }
+
+    public int getWinner() {
+        return this.winner;
+    }
+
+    static int code(Cell.Status status) {
+        return switch (status) {
+            case MISS -> MISS;
+            case HIT -> HIT;
+            case SUNKEN -> SUNKEN;
+            default -> throw new IllegalArgumentException("Статус не является результатом выстрела: " + status);
+        };
+    }
+
+}
@@ -1,187 +1,483 @@
 package org.example.board;
 
-import org.example.exception.CoordinateIsInvalidException;
-import org.example.exception.InvalidCoordinatesCountException;
-import org.example.exception.ShipPlacementInvalidException;
 import org.example.ship.Ship;
 
+import java.util.Arrays;
+
 import static org.example.board.Cell.Status.*;
 
 /***
  * Доска, на которой размещаются корабли игрока.
- * Доска состоит из двумерного массива ячеек.
+ * Клетка задается номером row * getSize() + column (строка "a" - 0, столбец "0" - 0),
+ * координаты вида "a7" - лишь обертка над номером.
+ * Состояние доски хранится в виде битовых плоскостей: каждой клетке соответствует
+ * один бит с номером клетки, плоскость стандартной доски из 100 клеток занимает
+ * два long. Отдельные плоскости хранят занятые кораблями клетки, попадания, промахи
+ * и клетки потопленных кораблей. Положения кораблей хранятся в реестре, а для
+ * каждой клетки - номер корабля в реестре, поэтому атака, подсчет жизней, проверка
+ * соседства и определение потопления сводятся к операциям над словами плоскостей
+ * и клетками одного корабля.
+ * Плоскости занимают size * size / 8 байт каждая, номера кораблей - 4 байта на
+ * клетку, поэтому для очень больших досок с небольшим количеством кораблей следует
+ * использовать SparseBoard.
  * Также доска содержит количество жизней - число неподбитых частей кораблей,
- * расположенных на доске.
+ * расположенных на доске, и хеши Zobrist открытого состояния для всех симметрий
+ * доски, которые обновляются при каждом ударе: getHash и getCanonicalHash
+ * позволяют кэшировать и сравнивать позиции без обхода клеток.
  */
-public class Board {
+public class Board extends GameBoard {
 
     /***
-     * Размер доски.
+     * Размер стандартной доски.
+     */
+    public static final int SIZE = 10;
+    /***
+     * Наибольший размер доски Board. Четыре плоскости такой доски занимают 8 КБ,
+     * номера кораблей - 64 КБ; большие доски создаются как SparseBoard.
+     */
+    public static final int MAX_DENSE_SIZE = 128;
+    /***
+     * Количество битовых плоскостей и номер плоскости кораблей в copyPlanes.
+     */
+    static final int PLANES = 4;
+    static final int SHIPS_PLANE = 0;
+    /***
+     * Начальная вместимость массивов кораблей.
+     */
+    private static final int INITIAL_SHIPS = 16;
+    /***
+     * Количество слов long в одной битовой плоскости.
+     */
+    private final int words;
+    /***
+     * Клетки, занятые кораблями.
+     */
+    private final long[] ships;
+    /***
+     * Клетки кораблей, по которым был нанесен удар.
+     */
+    private final long[] hits;
+    /***
+     * Атакованные клетки, в которых не было корабля.
+     */
+    private final long[] misses;
+    /***
+     * Клетки потопленных кораблей.
+     */
+    private final long[] sunk;
+    /***
+     * Номер корабля в реестре плюс один для каждой клетки; 0 - в клетке нет корабля.
+     */
+    private final int[] owners;
+    /***
+     * Реестр кораблей, размещенных на доске, в порядке добавления.
      */
-    private static final int SIZE = 10;
+    private ShipExtent[] registry = new ShipExtent[INITIAL_SHIPS];
     /***
-     * Двумерный массив квадратов доски, на которых будут располагаться корабли.
+     * Количество кораблей на доске.
      */
-    private Cell[][] grid;
+    private int shipCount;
+    /***
+     * Количество потопленных кораблей.
+     */
+    private int sunkShips;
     /***
      * Суммарное количество оставшихся жизней кораблей на доске.
      */
     private int lives;
+    /***
+     * Хеши Zobrist открытого состояния доски для каждой из Zobrist.SYMMETRIES
+     * симметрий и таблица ключей для размера доски или null.
+     */
+    private final long[] hashes = new long[Zobrist.SYMMETRIES];
+    private final long[] zobrist;
 
     /***
-     * Создает доску без кораблей и количеством жизней равным 0.
+     * Создает стандартную доску без кораблей и количеством жизней равным 0.
      */
     public Board() {
-        initializeGrid();
-        this.lives = 0;
+        this(SIZE);
     }
 
     /***
-     * Метод атаки квадрата на доске по координатам.
-     * @param coordinates координаты для нанесения удара.
-     * @return результат ударsа по квадрату: MISS, HIT или SUNKEN.
-     * @throws CoordinateIsInvalidException
+     * Создает доску заданного размера без кораблей.
+     * @param size количество строк и столбцов: от 1 до MAX_DENSE_SIZE.
+     * @throws IllegalArgumentException если размер вне допустимых пределов.
      */
-    public Cell.Status attack(String coordinates) throws CoordinateIsInvalidException {
-        int[][] numbers = convertCoordinatesToNumbers(coordinates);
+    public Board(int size) {
+        super(size);
+        if (size > MAX_DENSE_SIZE) {
+            throw new IllegalArgumentException("Размер доски Board больше " + MAX_DENSE_SIZE + ": " + size);
+        }
+        this.words = (size * size + 63) >>> 6;
+        this.ships = new long[this.words];
+        this.hits = new long[this.words];
+        this.misses = new long[this.words];
+        this.sunk = new long[this.words];
+        this.owners = new int[size * size];
+        this.zobrist = Zobrist.table(size);
+        this.shipCount = 0;
+        this.lives = 0;
+    }
+
+    @Override
+    protected Cell.Status applyAttack(int cell) {
+        checkCell(cell);
+        int word = cell >>> 6;
+        long bit = 1L << cell;
 
-        Cell.Status before = this.grid[numbers[0][0]][numbers[0][1]].getStatus();
-        Cell.Status after = this.grid[numbers[0][0]][numbers[0][1]].attack();
-        if (before == SHIP && (after == HIT || after == SUNKEN)) {
+        if ((this.misses[word] & bit) != 0 || (this.hits[word] & bit) != 0) {
+            return statusOf(word, bit);
+        }
+        Cell.Status status;
+        if ((this.ships[word] & bit) == 0) {
+            this.misses[word] |= bit;
+            Zobrist.toggle(this.hashes, this.zobrist, getSize(), cell, Zobrist.MISS_CODE);
+            status = MISS;
+        } else {
+            this.hits[word] |= bit;
+            Zobrist.toggle(this.hashes, this.zobrist, getSize(), cell, Zobrist.HIT_CODE);
             this.lives--;
+            ShipExtent extent = this.registry[this.owners[cell] - 1];
+            extent.getShip().hit();
+            if (isSunk(extent)) {
+                markSunk(extent);
+                status = SUNKEN;
+            } else {
+                status = HIT;
+            }
         }
-        return after;
+        notifyAttacked(cell, status);
+        return status;
     }
 
     /***
-     * Метод добавления корабля на доску по заданным координатам.
-     * Увеличивает суммарное количество жизней на доске на длину корабля.
-     * @param ship корабль для добавления.
-     * @param coordinates массив координат для постановки. Пример: ["a7", "a8", "a9"].
-     * @throws InvalidCoordinatesCountException
-     * @throws CoordinateIsInvalidException
-     * @throws ShipPlacementInvalidException
+     * Применяет залп в три прохода: сначала все клетки залпа отмечаются в
+     * плоскостях попаданий и промахов, затем жизни уменьшаются на число новых
+     * попаданий и каждый задетый корабль один раз проверяется на потопление,
+     * в конце определяются результаты и рассылаются уведомления.
      */
-    public void addShip(Ship ship, String... coordinates)
-            throws InvalidCoordinatesCountException, CoordinateIsInvalidException,
-            ShipPlacementInvalidException {
-        if (ship.getLength() != coordinates.length) {
-            throw new InvalidCoordinatesCountException();
+    @Override
+    protected void applySalvo(int[] cells, Cell.Status[] results) {
+        int hit = 0;
+        for (int i = 0; i < cells.length; i++) {
+            int cell = cells[i];
+            int word = cell >>> 6;
+            long bit = 1L << cell;
+            if ((this.misses[word] & bit) != 0 || (this.hits[word] & bit) != 0) {
+                // повторная клетка: null отличает ее от новых ударов до последнего прохода.
+                results[i] = null;
+            } else if ((this.ships[word] & bit) == 0) {
+                this.misses[word] |= bit;
+                Zobrist.toggle(this.hashes, this.zobrist, getSize(), cell, Zobrist.MISS_CODE);
+                results[i] = MISS;
+            } else {
+                this.hits[word] |= bit;
+                Zobrist.toggle(this.hashes, this.zobrist, getSize(), cell, Zobrist.HIT_CODE);
+                results[i] = HIT;
+                hit++;
+            }
+        }
+        this.lives -= hit;
+        for (int i = 0; hit > 0 && i < cells.length; i++) {
+            int cell = cells[i];
+            if (results[i] == HIT) {
+                ShipExtent extent = this.registry[this.owners[cell] - 1];
+                extent.getShip().hit();
+                if ((this.sunk[cell >>> 6] & 1L << cell) == 0 && isSunk(extent)) {
+                    markSunk(extent);
+                }
+            }
         }
-        int[][] numbers = convertCoordinatesToNumbers(coordinates);
-        if (isShipPlacementValid(numbers) && isShipPlacementPossible(numbers)) {
-            for (int[] number : numbers) {
-                this.grid[number[0]][number[1]] = new Cell(ship);
+        for (int i = 0; i < cells.length; i++) {
+            int cell = cells[i];
+            if (results[i] == null) {
+                results[i] = statusOf(cell >>> 6, 1L << cell);
+                continue;
             }
-            this.lives += ship.getLength();
-        } else {
-            throw new ShipPlacementInvalidException();
+            if (results[i] == HIT && (this.sunk[cell >>> 6] & 1L << cell) != 0) {
+                results[i] = SUNKEN;
+            }
+            notifyAttacked(cell, results[i]);
+        }
+    }
+
+    @Override
+    public Cell.Status getStatus(int cell) {
+        checkCell(cell);
+        return statusOf(cell >>> 6, 1L << cell);
+    }
+
+    @Override
+    protected void reset() {
+        Arrays.fill(this.ships, 0);
+        Arrays.fill(this.hits, 0);
+        Arrays.fill(this.misses, 0);
+        Arrays.fill(this.sunk, 0);
+        Arrays.fill(this.hashes, 0);
+        for (int i = 0; i < this.shipCount; i++) {
+            ShipExtent extent = this.registry[i];
+            for (int k = 0; k < extent.getLength(); k++) {
+                this.owners[extent.getCell(k)] = 0;
+            }
+            this.registry[i] = null;
         }
+        this.shipCount = 0;
+        this.sunkShips = 0;
+        this.lives = 0;
     }
 
     /***
-     * Преобразует массив координат вида ["a7", "a8", "a9"] в массив вида
-     * [[0, 7], [0, 8], [0, 9]].
-     * @param coordinates массив координат точек на доске. Пример: ["a7", "a8", "a9"].
-     * @return массив чисел. Пример: [[0, 7], [0, 8], [0, 9]].
-     * @throws CoordinateIsInvalidException
+     * Ставит корабль на доску без проверок: клетки корабля добавляются в плоскость
+     * кораблей, корабль - в реестр.
      */
-    private int[][] convertCoordinatesToNumbers(String... coordinates)
-            throws CoordinateIsInvalidException {
-        int[][] numbers = new int[coordinates.length][2];
-        for (int i = 0; i < coordinates.length; i++) {
-            try {
-                numbers[i][0] = coordinates[i].charAt(0) - 97;
-                numbers[i][1] = coordinates[i].charAt(1) - 48;
-            } catch (StringIndexOutOfBoundsException e) {
-                throw new CoordinateIsInvalidException();
-            }
+    @Override
+    protected void placeShip(Ship ship, int first, boolean vertical) {
+        if (this.shipCount == this.registry.length) {
+            this.registry = Arrays.copyOf(this.registry, 2 * this.shipCount);
+        }
+        ShipExtent extent = new ShipExtent(ship, first, vertical, getSize());
+        this.registry[this.shipCount++] = extent;
+        for (int i = 0; i < extent.getLength(); i++) {
+            int cell = extent.getCell(i);
+            this.ships[cell >>> 6] |= 1L << cell;
+            this.owners[cell] = this.shipCount;
+        }
+        this.lives += ship.getLength();
+    }
 
-            if (numbers[i][0] < 0 || numbers[i][0] > 9
-                    || numbers[i][1] < 0 || numbers[i][1] > 9) {
-                throw new CoordinateIsInvalidException();
+    /***
+     * Отмечает все клетки потопленного корабля как потопленные, а клетки вокруг
+     * него - как промахи: кораблей там быть не может. Окружение обрабатывается
+     * масками строк, как в isShipPlacementPossible, за O(длины корабля).
+     */
+    private void markSunk(ShipExtent extent) {
+        this.sunkShips++;
+        int size = getSize();
+        for (int i = 0; i < extent.getLength(); i++) {
+            int cell = extent.getCell(i);
+            this.sunk[cell >>> 6] |= 1L << cell;
+            Zobrist.toggle(this.hashes, this.zobrist, size, cell, Zobrist.SINK_CODE);
+        }
+        int first = extent.getFirst();
+        int last = extent.getLast();
+        int startI = Math.max(first / size - 1, 0);
+        int startJ = Math.max(first % size - 1, 0);
+        int finishI = Math.min(last / size + 1, size - 1);
+        int finishJ = Math.min(last % size + 1, size - 1);
+
+        long rowMask = (1L << (finishJ - startJ + 1)) - 1;
+        for (int i = startI; i <= finishI; i++) {
+            int cell = i * size + startJ;
+            int word = cell >>> 6;
+            int shift = cell & 63;
+            markMisses(word, rowMask << shift & ~this.ships[word]);
+            if (shift != 0 && rowMask >>> (64 - shift) != 0) {
+                markMisses(word + 1, rowMask >>> (64 - shift) & ~this.ships[word + 1]);
             }
         }
-        return numbers;
     }
 
     /***
-     * Метод проверяет, что координаты представляют собой прямую линию.
-     * @param coordinates координаты точек.
-     * @return true - координаты представляют собой прямую линию, иначе - false.
+     * Отмечает клетки маски как промахи и добавляет в хеши те из них, которые
+     * еще не были промахами.
+     * @param word номер слова плоскости.
+     * @param mask клетки слова без кораблей.
      */
-    private boolean isShipPlacementValid(int[][] coordinates) {
-        int[] firstCoordinates = coordinates[0];
-        for (int i = 1; i < coordinates.length; i++) {
-            if (!(coordinates[i][0] == firstCoordinates[0] &&
-                    (coordinates[i][1] == firstCoordinates[1] + i || coordinates[i][1] == firstCoordinates[1] - i)
-                    || coordinates[i][1] == firstCoordinates[1] &&
-                    (coordinates[i][0] == firstCoordinates[0] + i || coordinates[i][0] == firstCoordinates[0] - i))
-            ) {
-                return false;
-            }
+    private void markMisses(int word, long mask) {
+        long fresh = mask & ~this.misses[word];
+        this.misses[word] |= fresh;
+        while (fresh != 0) {
+            int cell = (word << 6) + Long.numberOfTrailingZeros(fresh);
+            Zobrist.toggle(this.hashes, this.zobrist, getSize(), cell, Zobrist.MISS_CODE);
+            fresh &= fresh - 1;
         }
-        return true;
     }
 
     /***
      * Проверяет, что на рядом стоящих и переданных клетках нет кораблей.
-     * @param coordinates координаты точек для постановки корабля.
-     * @return true - клетки свободны и рядом нет кораблей, иначе - false/
-     */
-    private boolean isShipPlacementPossible(int[][] coordinates) {
-        int startI = Math.max(coordinates[0][0] - 1, 0);
-        int startJ = Math.max(coordinates[0][1] - 1, 0);
-        int finishI = Math.min(coordinates[coordinates.length - 1][0] + 1, SIZE - 1);
-        int finishJ = Math.min(coordinates[coordinates.length - 1][1] + 1, SIZE - 1);
+     * Каждая строка прямоугольника из клеток корабля и его окружения строится как
+     * маска и пересекается с плоскостью кораблей.
+     */
+    @Override
+    protected boolean isShipPlacementPossible(int row, int column, int lastRow, int lastColumn) {
+        int size = getSize();
+        int startI = Math.max(row - 1, 0);
+        int startJ = Math.max(column - 1, 0);
+        int finishI = Math.min(lastRow + 1, size - 1);
+        int finishJ = Math.min(lastColumn + 1, size - 1);
+
+        long rowMask = (1L << (finishJ - startJ + 1)) - 1;
         for (int i = startI; i <= finishI; i++) {
-            for (int j = startJ; j <= finishJ; j++) {
-                if (this.grid[i][j].getStatus() != EMPTY) {
-                    return false;
-                }
+            int cell = i * size + startJ;
+            int word = cell >>> 6;
+            int shift = cell & 63;
+            long low = rowMask << shift;
+            // строка прямоугольника может пересекать границу двух слов.
+            long high = shift == 0 ? 0 : rowMask >>> (64 - shift);
+            if ((this.ships[word] & low) != 0
+                    || high != 0 && (this.ships[word + 1] & high) != 0) {
+                return false;
             }
         }
         return true;
     }
 
     /***
-     * Заполняет доску пустыми ячейками.
+     * Проверяет, что все клетки корабля подбиты.
+     * @param extent положение корабля.
+     * @return true - если корабль потоплен, иначе - false.
      */
-    private void initializeGrid() {
-        this.grid = new Cell[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                grid[i][j] = new Cell();
+    private boolean isSunk(ShipExtent extent) {
+        for (int i = 0; i < extent.getLength(); i++) {
+            int cell = extent.getCell(i);
+            if ((this.hits[cell >>> 6] & 1L << cell) == 0) {
+                return false;
             }
         }
+        return true;
+    }
+
+    @Override
+    public ShipExtent getSunkShip(int cell) {
+        checkCell(cell);
+        return (this.sunk[cell >>> 6] & 1L << cell) != 0 ? this.registry[this.owners[cell] - 1] : null;
     }
 
     /***
-     * Метод для отображения доски.
-     * @param hideShips параметр для скрытия кораблей. true - скрыть корабли в точках,
-     * где они не подбиты, false - отобразить все корабли, даже целые.
-     * @return отформатированная для отображения сетка доски.
+     * Определяет статус клетки по битовым плоскостям.
+     * @param word номер слова клетки.
+     * @param bit бит клетки в слове.
+     * @return статус клетки.
      */
-    public String displayBoard(boolean hideShips) {
-        StringBuilder builder = new StringBuilder();
-        builder.append("  0 1 2 3 4 5 6 7 8 9\n");
-        for (int i = 0; i < SIZE; i++) {
-            builder.append(((char) (i + 97))).append(" ");
-            for (int j = 0; j < SIZE; j++) {
-                if (hideShips) {
-                    builder.append(this.grid[i][j].getStatus().getPublicValue());
-                } else {
-                    builder.append(this.grid[i][j].getStatus().getPrivateValue());
-                }
-                builder.append(" ");
+    private Cell.Status statusOf(int word, long bit) {
+        if ((this.misses[word] & bit) != 0) {
+            return MISS;
+        }
+        if ((this.sunk[word] & bit) != 0) {
+            return SUNKEN;
+        }
+        if ((this.hits[word] & bit) != 0) {
+            return HIT;
+        }
+        if ((this.ships[word] & bit) != 0) {
+            return SHIP;
+        }
+        return EMPTY;
+    }
+
+    /***
+     * Количество слов long в одной битовой плоскости.
+     */
+    int getWords() {
+        return this.words;
+    }
+
+    /***
+     * Копирует битовые плоскости доски в порядке: корабли, попадания, промахи,
+     * потопленные клетки, по getWords() слов на плоскость.
+     * @param target массив не короче PLANES * getWords().
+     */
+    void copyPlanes(long[] target) {
+        System.arraycopy(this.ships, 0, target, 0, this.words);
+        System.arraycopy(this.hits, 0, target, this.words, this.words);
+        System.arraycopy(this.misses, 0, target, 2 * this.words, this.words);
+        System.arraycopy(this.sunk, 0, target, 3 * this.words, this.words);
+    }
+
+    /***
+     * Положение корабля из реестра.
+     * @param index номер корабля в порядке добавления: от 0 до getShipCount() - 1.
+     */
+    ShipExtent getExtent(int index) {
+        return this.registry[index];
+    }
+
+    /***
+     * Маска клеток, занятых кораблями: бит cell & 63 слова cell >>> 6.
+     * @param word номер слова: на стандартной доске 0 - клетки 0..63, 1 - остальные.
+     * @return слово маски.
+     */
+    public long getShipMask(int word) {
+        return this.ships[word];
+    }
+
+    /***
+     * Хеш Zobrist открытого состояния доски: статусов MISS, HIT и SUNKEN всех
+     * клеток. Обновляется при каждом ударе за время, пропорциональное количеству
+     * изменившихся клеток, и не зависит от расстановки кораблей и порядка
+     * выстрелов. Одинаковые открытые состояния досок одного размера имеют
+     * одинаковый хеш.
+     * @return 64-битный хеш.
+     */
+    public long getHash() {
+        return this.hashes[0];
+    }
+
+    /***
+     * Канонический хеш: наименьший из хешей состояния, повернутого или отраженного
+     * каждой из 8 симметрий квадратной доски. Состояния, которые отличаются только
+     * поворотом или отражением, имеют одинаковый канонический хеш, поэтому могут
+     * использовать одну запись кэша.
+     * @return 64-битный хеш, не зависящий от симметрии.
+     * @see #getCanonicalSymmetry()
+     */
+    public long getCanonicalHash() {
+        return this.hashes[getCanonicalSymmetry()];
+    }
+
+    /***
+     * Симметрия, которая переводит состояние доски в каноническое: хеш состояния,
+     * преобразованного ею, равен getCanonicalHash(). Клетку этой доски переводит
+     * в каноническое состояние transform(symmetry, cell), клетку канонического
+     * состояния обратно - transform(inverseSymmetry(symmetry), cell).
+     * @return номер симметрии: от 0 до 7.
+     */
+    public int getCanonicalSymmetry() {
+        int best = 0;
+        for (int symmetry = 1; symmetry < Zobrist.SYMMETRIES; symmetry++) {
+            if (this.hashes[symmetry] < this.hashes[best]) {
+                best = symmetry;
             }
-            builder.append("\n");
         }
-        return builder.toString();
+        return best;
     }
 
+    /***
+     * Образ клетки при симметрии доски: 0 - тождественная, 1..3 - повороты на
+     * 90, 180 и 270 градусов по часовой стрелке, 4 и 5 - отражения слева направо
+     * и сверху вниз, 6 и 7 - отражения относительно главной и побочной диагонали.
+     * @param symmetry номер симметрии: от 0 до 7.
+     * @param cell номер клетки.
+     * @return номер клетки-образа.
+     * @throws IllegalArgumentException если номер симметрии или клетки неверен.
+     */
+    public int transform(int symmetry, int cell) {
+        checkCell(cell);
+        return Zobrist.transform(symmetry, cell, getSize());
+    }
+
+    /***
+     * @param symmetry номер симметрии: от 0 до 7.
+     * @return номер обратной симметрии.
+     */
+    public static int inverseSymmetry(int symmetry) {
+        return Zobrist.inverse(symmetry);
+    }
+
+    @Override
+    public int getShipCount() {
+        return this.shipCount;
+    }
+
+    @Override
     public int getLives() {
-        return lives;
+        return this.lives;
+    }
+
+    @Override
+    public int getShipsAfloat() {
+        return this.shipCount - this.sunkShips;
     }
 
 }
@@ -0,0 +1,32 @@
+package org.example.board;
+
+/***
+ * Слушатель изменений доски.
+ * Вызывается доской синхронно в том потоке, который ее меняет, поэтому реализация
+ * должна быть быстрой и не бросать исключений. Повторные удары по уже атакованным
+ * клеткам состояние доски не меняют и слушателю не сообщаются.
+ * @see GameBoard#addListener(BoardListener)
+ */
+public interface BoardListener {
+
+    /***
+     * На доску поставлен корабль.
+     * @param length длина корабля.
+     * @param cell номер верхней или левой клетки корабля.
+     * @param vertical true - корабль идет вниз, false - вправо.
+     */
+    void shipPlaced(int length, int cell, boolean vertical);
+
+    /***
+     * По клетке нанесен удар, изменивший доску.
+     * @param cell номер клетки.
+     * @param status результат удара: MISS, HIT или SUNKEN.
+     */
+    void attacked(int cell, Cell.Status status);
+
+    /***
+     * Доска очищена методом GameBoard.clear().
+     */
+    void cleared();
+
+}
@@ -0,0 +1,243 @@
+package org.example.board;
+
+/***
+ * Отрисовка доски с кэшированием кадра.
+ * Рендерер хранит отрисованный кадр. Для доски Board хранится также копия битовых
+ * плоскостей на момент последней отрисовки: при следующей отрисовке плоскости
+ * сравниваются словами long, и в кадре заменяются только символы изменившихся
+ * клеток. Для остальных досок символы клеток сравниваются с кадром поштучно.
+ * Если доска не изменилась, возвращается та же строка без новых выделений памяти.
+ * Кадр можно получить целиком (render) или в виде ANSI-последовательностей,
+ * которые перерисовывают в терминале только изменившиеся клетки (renderDiff).
+ * Оба метода переводят рендерер в текущее состояние доски.
+ * Рендерер не потокобезопасен и должен использоваться в потоке, который меняет доску.
+ */
+public class BoardRenderer {
+
+    private static final char ESCAPE = '\u001B';
+
+    private final GameBoard board;
+    private final boolean hideShips;
+    /***
+     * Размер доски, ширина обозначения строки и ширина столбца в символах.
+     * На стандартной доске обозначения занимают по одному символу.
+     */
+    private final int size;
+    private final int labelWidth;
+    private final int columnWidth;
+    /***
+     * Длина строки заголовка, например "  0 1 2 3 4 5 6 7 8 9\n", и строки доски:
+     * обозначение, пробел, клетки с пробелами и перевод строки.
+     */
+    private final int headerLength;
+    private final int rowLength;
+    /***
+     * Символы кадра в формате GameBoard.displayBoard.
+     */
+    private final char[] frame;
+    /***
+     * Плоскости доски Board на момент последней отрисовки и рабочий буфер для
+     * текущих; null для остальных досок.
+     */
+    private final long[] seen;
+    private final long[] current;
+    /***
+     * Маска клеток, изменившихся с последней отрисовки.
+     */
+    private final long[] changed;
+    private final StringBuilder diff = new StringBuilder();
+    /***
+     * Строка кадра; null, если кадр изменился после ее создания.
+     */
+    private String cached;
+
+    /***
+     * @param board доска для отрисовки.
+     * @param hideShips true - скрыть целые части кораблей, как их видит противник,
+     * false - отобразить все корабли.
+     * @throws IllegalArgumentException если кадр доски не помещается в массив.
+     */
+    public BoardRenderer(GameBoard board, boolean hideShips) {
+        this.board = board;
+        this.hideShips = hideShips;
+        this.size = board.getSize();
+        this.labelWidth = GameBoard.rowLabel(this.size - 1).length();
+        this.columnWidth = String.valueOf(this.size - 1).length();
+        this.headerLength = this.labelWidth + 1 + this.size * (this.columnWidth + 1);
+        this.rowLength = this.headerLength + 1;
+        long frameLength = this.headerLength + (long) this.size * this.rowLength;
+        if (frameLength > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Доска слишком велика для отрисовки: " + this.size);
+        }
+        this.frame = new char[(int) frameLength];
+        int words = (this.size * this.size + 63) >>> 6;
+        this.changed = new long[words];
+        if (board instanceof Board) {
+            this.seen = new long[Board.PLANES * words];
+            this.current = new long[Board.PLANES * words];
+        } else {
+            this.seen = null;
+            this.current = null;
+        }
+        fillFrame();
+    }
+
+    /***
+     * Отрисовывает доску целиком.
+     * @return кадр в формате GameBoard.displayBoard.
+     */
+    public String render() {
+        update();
+        if (this.cached == null) {
+            this.cached = new String(this.frame);
+        }
+        return this.cached;
+    }
+
+    /***
+     * Отрисовывает только клетки, изменившиеся с прошлой отрисовки.
+     * Предполагается, что в терминале выведен предыдущий кадр, а курсор стоит в
+     * начале строки сразу под ним, как после System.out.print(render()).
+     * Курсор сохраняется, для каждой клетки переводится на ее место и в конце
+     * возвращается обратно.
+     * @return ANSI-последовательности для перерисовки или пустая строка, если
+     * доска не изменилась.
+     */
+    public String renderDiff() {
+        if (!update()) {
+            return "";
+        }
+        this.diff.setLength(0);
+        this.diff.append(ESCAPE).append('7');
+        for (int w = 0; w < this.changed.length; w++) {
+            for (long bits = this.changed[w]; bits != 0; bits &= bits - 1) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int row = cell / this.size;
+                int column = cell % this.size;
+                this.diff.append(ESCAPE).append('8')
+                        .append(ESCAPE).append('[').append(this.size - row).append('A')
+                        .append(ESCAPE).append('[').append(this.labelWidth + 2 + (this.columnWidth + 1) * column)
+                        .append('G')
+                        .append(this.frame[offset(cell)]);
+            }
+        }
+        this.diff.append(ESCAPE).append('8');
+        return this.diff.toString();
+    }
+
+    /***
+     * Находит клетки, изменившиеся с прошлой отрисовки, и обновляет их символы.
+     * @return true - если кадр изменился.
+     */
+    private boolean update() {
+        boolean any = this.seen != null ? comparePlanes() : compareCells();
+        if (any) {
+            this.cached = null;
+        }
+        return any;
+    }
+
+    /***
+     * Сравнивает плоскости доски Board с отрисованными.
+     */
+    private boolean comparePlanes() {
+        ((Board) this.board).copyPlanes(this.current);
+        int words = this.changed.length;
+        boolean any = false;
+        for (int w = 0; w < words; w++) {
+            long mask = 0;
+            for (int plane = 0; plane < Board.PLANES; plane++) {
+                // в открытом виде целые части кораблей не отличаются от пустых клеток.
+                if (!this.hideShips || plane != Board.SHIPS_PLANE) {
+                    int i = plane * words + w;
+                    mask |= this.current[i] ^ this.seen[i];
+                }
+            }
+            this.changed[w] = mask;
+            any |= mask != 0;
+        }
+        if (!any) {
+            return false;
+        }
+        System.arraycopy(this.current, 0, this.seen, 0, this.current.length);
+        for (int w = 0; w < words; w++) {
+            for (long bits = this.changed[w]; bits != 0; bits &= bits - 1) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                this.frame[offset(cell)] = symbol(cell);
+            }
+        }
+        return true;
+    }
+
+    /***
+     * Сравнивает символ каждой клетки с символом в кадре.
+     */
+    private boolean compareCells() {
+        boolean any = false;
+        for (int w = 0; w < this.changed.length; w++) {
+            this.changed[w] = 0;
+        }
+        for (int cell = 0; cell < this.size * this.size; cell++) {
+            char symbol = symbol(cell);
+            int offset = offset(cell);
+            if (this.frame[offset] != symbol) {
+                this.frame[offset] = symbol;
+                this.changed[cell >>> 6] |= 1L << cell;
+                any = true;
+            }
+        }
+        return any;
+    }
+
+    /***
+     * Заполняет заголовок, обозначения строк и клетки пустой доски, затем рисует
+     * текущее состояние.
+     */
+    private void fillFrame() {
+        int position = 0;
+        for (int i = 0; i <= this.labelWidth; i++) {
+            this.frame[position++] = ' ';
+        }
+        for (int column = 0; column < this.size; column++) {
+            position = write(String.valueOf(column), this.columnWidth, position);
+            this.frame[position++] = column == this.size - 1 ? '\n' : ' ';
+        }
+        String empty = Cell.Status.EMPTY.getPublicValue();
+        for (int row = 0; row < this.size; row++) {
+            position = write(GameBoard.rowLabel(row), this.labelWidth, position);
+            this.frame[position++] = ' ';
+            for (int column = 0; column < this.size; column++) {
+                position = write(empty, this.columnWidth, position);
+                this.frame[position++] = ' ';
+            }
+            this.frame[position++] = '\n';
+        }
+        update();
+    }
+
+    /***
+     * Записывает текст в кадр, дополняя его пробелами справа до ширины width.
+     * @return позиция после записанного текста.
+     */
+    private int write(String text, int width, int position) {
+        for (int i = 0; i < width; i++) {
+            this.frame[position++] = i < text.length() ? text.charAt(i) : ' ';
+        }
+        return position;
+    }
+
+    private char symbol(int cell) {
+        Cell.Status status = this.board.getStatus(cell);
+        String value = this.hideShips ? status.getPublicValue() : status.getPrivateValue();
+        return value.charAt(0);
+    }
+
+    /***
+     * Позиция символа клетки в кадре.
+     */
+    private int offset(int cell) {
+        return this.headerLength + cell / this.size * this.rowLength
+                + this.labelWidth + 1 + (this.columnWidth + 1) * (cell % this.size);
+    }
+
+}
@@ -0,0 +1,292 @@
+package org.example.board;
+
+import java.util.Arrays;
+
+import static org.example.board.Cell.Status.*;
+
+/***
+ * Неизменяемый снимок доски для перебора вариантов и отмены ходов.
+ * Расположение кораблей не меняется после расстановки, поэтому оно вынесено в
+ * общий для всех снимков партии объект Fleet: маски клеток и окружения каждого
+ * корабля и номер корабля для каждой клетки. Сам снимок хранит только три
+ * 128-битные плоскости ударов (попадания, промахи, потопленные клетки), ссылку
+ * на предыдущий снимок и последний ход.
+ * Снимок неизменяем, поэтому ветвление позиции - это передача той же ссылки.
+ * attack не меняет снимок, а возвращает новый объект из десятка полей: его
+ * плоскости - плоскости предыдущего снимка с измененными битами. Счетчиков
+ * попаданий в кораблях нет: корабль потоплен, когда его маска целиком накрыта
+ * попаданиями, поэтому ветви не влияют друг на друга.
+ * Отмена хода - переход к предыдущему снимку, перемотка к ходу с номером
+ * moves - проход по цепочке предыдущих снимков.
+ * Снимки поддерживают доски до 128 клеток, в том числе стандартную.
+ */
+public final class BoardSnapshot {
+
+    /***
+     * Наибольшее количество клеток доски, для которой можно сделать снимок.
+     */
+    public static final int MAX_CELLS = 2 * Long.SIZE;
+
+    private final Fleet fleet;
+    /***
+     * Предыдущий снимок или null для исходного.
+     */
+    private final BoardSnapshot previous;
+    private final long hitsLo;
+    private final long hitsHi;
+    private final long missesLo;
+    private final long missesHi;
+    private final long sunkLo;
+    private final long sunkHi;
+    /***
+     * Количество ходов от исходного снимка, клетка и результат последнего хода.
+     */
+    private final int moves;
+    private final int lastCell;
+    private final Cell.Status lastStatus;
+
+    private BoardSnapshot(Fleet fleet, BoardSnapshot previous, long hitsLo, long hitsHi, long missesLo,
+                          long missesHi, long sunkLo, long sunkHi, int moves, int lastCell,
+                          Cell.Status lastStatus) {
+        this.fleet = fleet;
+        this.previous = previous;
+        this.hitsLo = hitsLo;
+        this.hitsHi = hitsHi;
+        this.missesLo = missesLo;
+        this.missesHi = missesHi;
+        this.sunkLo = sunkLo;
+        this.sunkHi = sunkHi;
+        this.moves = moves;
+        this.lastCell = lastCell;
+        this.lastStatus = lastStatus;
+    }
+
+    /***
+     * Делает снимок текущего состояния доски: корабли и все удары по ней.
+     * Снимок не связан с доской: дальнейшие изменения доски его не меняют.
+     * @param board доска не больше MAX_CELLS клеток.
+     * @return исходный снимок с нулем ходов.
+     * @throws IllegalArgumentException если доска слишком велика.
+     */
+    public static BoardSnapshot of(Board board) {
+        int size = board.getSize();
+        if (size * size > MAX_CELLS) {
+            throw new IllegalArgumentException("Доска слишком велика для снимка: " + size);
+        }
+        long[] planes = new long[Board.PLANES * board.getWords()];
+        board.copyPlanes(planes);
+        int words = board.getWords();
+        Fleet fleet = new Fleet(board);
+        return new BoardSnapshot(fleet, null,
+                planes[words], words > 1 ? planes[words + 1] : 0,
+                planes[2 * words], words > 1 ? planes[2 * words + 1] : 0,
+                planes[3 * words], words > 1 ? planes[3 * words + 1] : 0,
+                0, GameBoard.INVALID_CELL, null);
+    }
+
+    /***
+     * Удар по клетке с теми же правилами, что GameBoard.attack: при потоплении
+     * клетки корабля становятся SUNKEN, а его окружение - MISS.
+     * @param cell номер клетки.
+     * @return новый снимок с одним ходом больше или этот же снимок, если по клетке
+     * уже стреляли.
+     * @throws IllegalArgumentException если клетка за пределами доски.
+     */
+    public BoardSnapshot attack(int cell) {
+        this.fleet.checkCell(cell);
+        long bitLo = cell < Long.SIZE ? 1L << cell : 0;
+        long bitHi = cell < Long.SIZE ? 0 : 1L << cell;
+        if (((this.hitsLo | this.missesLo) & bitLo) != 0 || ((this.hitsHi | this.missesHi) & bitHi) != 0) {
+            return this;
+        }
+        int ship = this.fleet.owners[cell];
+        if (ship == Fleet.NONE) {
+            return new BoardSnapshot(this.fleet, this, this.hitsLo, this.hitsHi,
+                    this.missesLo | bitLo, this.missesHi | bitHi, this.sunkLo, this.sunkHi,
+                    this.moves + 1, cell, MISS);
+        }
+        long hitsLo = this.hitsLo | bitLo;
+        long hitsHi = this.hitsHi | bitHi;
+        long shipLo = this.fleet.shipLo[ship];
+        long shipHi = this.fleet.shipHi[ship];
+        if ((hitsLo & shipLo) != shipLo || (hitsHi & shipHi) != shipHi) {
+            return new BoardSnapshot(this.fleet, this, hitsLo, hitsHi, this.missesLo, this.missesHi,
+                    this.sunkLo, this.sunkHi, this.moves + 1, cell, HIT);
+        }
+        return new BoardSnapshot(this.fleet, this, hitsLo, hitsHi,
+                this.missesLo | this.fleet.haloLo[ship], this.missesHi | this.fleet.haloHi[ship],
+                this.sunkLo | shipLo, this.sunkHi | shipHi, this.moves + 1, cell, SUNKEN);
+    }
+
+    /***
+     * Отменяет последний ход.
+     * @return предыдущий снимок.
+     * @throws IllegalStateException если это исходный снимок.
+     */
+    public BoardSnapshot undo() {
+        if (this.previous == null) {
+            throw new IllegalStateException("Нет ходов для отмены");
+        }
+        return this.previous;
+    }
+
+    /***
+     * Возвращается к снимку после хода с номером moves.
+     * @param moves количество ходов от исходного снимка: от 0 до getMoves().
+     * @return снимок из цепочки предыдущих.
+     * @throws IllegalArgumentException если номер хода вне пределов.
+     */
+    public BoardSnapshot rewind(int moves) {
+        if (moves < 0 || moves > this.moves) {
+            throw new IllegalArgumentException("Нет хода с номером " + moves);
+        }
+        BoardSnapshot snapshot = this;
+        while (snapshot.moves > moves) {
+            snapshot = snapshot.previous;
+        }
+        return snapshot;
+    }
+
+    /***
+     * Статус клетки, включая целые части кораблей (SHIP).
+     * @param cell номер клетки.
+     * @return статус клетки.
+     * @throws IllegalArgumentException если клетка за пределами доски.
+     */
+    public Cell.Status getStatus(int cell) {
+        this.fleet.checkCell(cell);
+        if (test(this.missesLo, this.missesHi, cell)) {
+            return MISS;
+        }
+        if (test(this.sunkLo, this.sunkHi, cell)) {
+            return SUNKEN;
+        }
+        if (test(this.hitsLo, this.hitsHi, cell)) {
+            return HIT;
+        }
+        return this.fleet.owners[cell] == Fleet.NONE ? EMPTY : SHIP;
+    }
+
+    /***
+     * Открытый статус клетки: целые части кораблей отображаются как EMPTY.
+     * @param cell номер клетки.
+     * @return EMPTY, MISS, HIT или SUNKEN.
+     */
+    public Cell.Status getPublicStatus(int cell) {
+        Cell.Status status = getStatus(cell);
+        return status == SHIP ? EMPTY : status;
+    }
+
+    private static boolean test(long lo, long hi, int cell) {
+        return ((cell < Long.SIZE ? lo : hi) & 1L << cell) != 0;
+    }
+
+    /***
+     * @return количество неподбитых частей кораблей.
+     */
+    public int getLives() {
+        return this.fleet.cells - Long.bitCount(this.hitsLo) - Long.bitCount(this.hitsHi);
+    }
+
+    public int getSize() {
+        return this.fleet.size;
+    }
+
+    /***
+     * @return количество ходов от исходного снимка.
+     */
+    public int getMoves() {
+        return this.moves;
+    }
+
+    /***
+     * @return клетка последнего хода или GameBoard.INVALID_CELL для исходного снимка.
+     */
+    public int getLastCell() {
+        return this.lastCell;
+    }
+
+    /***
+     * @return результат последнего хода: MISS, HIT или SUNKEN; null для исходного снимка.
+     */
+    public Cell.Status getLastStatus() {
+        return this.lastStatus;
+    }
+
+    /***
+     * Расположение кораблей, общее для всех снимков партии.
+     */
+    private static final class Fleet {
+
+        private static final byte NONE = -1;
+
+        private final int size;
+        /***
+         * Количество клеток, занятых кораблями.
+         */
+        private final int cells;
+        /***
+         * Номер корабля для каждой клетки или NONE.
+         */
+        private final byte[] owners;
+        /***
+         * Маски клеток и окружения (без клеток самого корабля) каждого корабля.
+         */
+        private final long[] shipLo;
+        private final long[] shipHi;
+        private final long[] haloLo;
+        private final long[] haloHi;
+
+        private Fleet(Board board) {
+            this.size = board.getSize();
+            int ships = board.getShipCount();
+            this.owners = new byte[this.size * this.size];
+            Arrays.fill(this.owners, NONE);
+            this.shipLo = new long[ships];
+            this.shipHi = new long[ships];
+            this.haloLo = new long[ships];
+            this.haloHi = new long[ships];
+            int cells = 0;
+            for (int ship = 0; ship < ships; ship++) {
+                ShipExtent extent = board.getExtent(ship);
+                for (int k = 0; k < extent.getLength(); k++) {
+                    int cell = extent.getCell(k);
+                    this.owners[cell] = (byte) ship;
+                    if (cell < Long.SIZE) {
+                        this.shipLo[ship] |= 1L << cell;
+                    } else {
+                        this.shipHi[ship] |= 1L << cell;
+                    }
+                    cells++;
+                }
+            }
+            this.cells = cells;
+            for (int ship = 0; ship < ships; ship++) {
+                ShipExtent extent = board.getExtent(ship);
+                for (int k = 0; k < extent.getLength(); k++) {
+                    int row = extent.getCell(k) / this.size;
+                    int column = extent.getCell(k) % this.size;
+                    for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, this.size - 1); r++) {
+                        for (int c = Math.max(column - 1, 0); c <= Math.min(column + 1, this.size - 1); c++) {
+                            int cell = r * this.size + c;
+                            if (cell < Long.SIZE) {
+                                this.haloLo[ship] |= 1L << cell;
+                            } else {
+                                this.haloHi[ship] |= 1L << cell;
+                            }
+                        }
+                    }
+                }
+                this.haloLo[ship] &= ~this.shipLo[ship];
+                this.haloHi[ship] &= ~this.shipHi[ship];
+            }
+        }
+
+        private void checkCell(int cell) {
+            if (cell < 0 || cell >= this.owners.length) {
+                throw new IllegalArgumentException("Клетка за пределами доски: " + cell);
+            }
+        }
+    }
+
+}
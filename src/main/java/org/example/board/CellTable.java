@@ -0,0 +1,114 @@
+package org.example.board;
+
+import java.util.Arrays;
+
+/***
+ * Хеш-таблица с открытой адресацией из номера клетки в неотрицательное значение.
+ * Ключи и значения хранятся в массивах int без упаковки в объекты, поэтому запись
+ * занимает 8 байт, а при заполнении таблицы не более чем наполовину - не более
+ * 32 байт памяти. Коллизии разрешаются линейным пробированием.
+ */
+final class CellTable {
+
+    /***
+     * Значение, которое возвращается для отсутствующей клетки.
+     */
+    static final int ABSENT = -1;
+    private static final int EMPTY_KEY = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int count;
+
+    CellTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /***
+     * @param cell номер клетки.
+     * @return значение клетки или ABSENT.
+     */
+    int get(int cell) {
+        for (int slot = slot(cell); ; slot = (slot + 1) & this.mask) {
+            int key = this.keys[slot];
+            if (key == cell) {
+                return this.values[slot];
+            }
+            if (key == EMPTY_KEY) {
+                return ABSENT;
+            }
+        }
+    }
+
+    /***
+     * Записывает значение клетки.
+     * @param cell номер клетки.
+     * @param value неотрицательное значение.
+     */
+    void put(int cell, int value) {
+        int slot = slot(cell);
+        while (this.keys[slot] != EMPTY_KEY && this.keys[slot] != cell) {
+            slot = (slot + 1) & this.mask;
+        }
+        if (this.keys[slot] == EMPTY_KEY) {
+            if (2 * (this.count + 1) > this.keys.length) {
+                grow();
+                put(cell, value);
+                return;
+            }
+            this.keys[slot] = cell;
+            this.count++;
+        }
+        this.values[slot] = value;
+    }
+
+    /***
+     * Удаляет все клетки. Таблица, выросшая в прошлой партии, возвращается к
+     * начальному размеру, чтобы очистка небольшой следующей партии не стоила
+     * прохода по большим массивам.
+     */
+    void clear() {
+        if (this.keys.length > INITIAL_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+        } else {
+            Arrays.fill(this.keys, EMPTY_KEY);
+        }
+        this.count = 0;
+    }
+
+    int size() {
+        return this.count;
+    }
+
+    private int slot(int cell) {
+        // перемешивание Фибоначчи: соседние клетки попадают в далекие ячейки.
+        int hash = cell * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & this.mask;
+    }
+
+    private void grow() {
+        int[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        allocate(2 * oldKeys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = slot(oldKeys[i]);
+                while (this.keys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(this.keys, EMPTY_KEY);
+    }
+
+}
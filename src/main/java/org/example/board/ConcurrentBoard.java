@@ -0,0 +1,239 @@
+package org.example.board;
+
+import org.example.metrics.EngineMetrics;
+import org.example.ship.Ship;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.example.board.Cell.Status.*;
+
+/***
+ * Доска для командной игры, по которой одновременно стреляют несколько потоков.
+ * Каждая клетка - одно значение int в AtomicIntegerArray: номер корабля плюс
+ * один в старших битах и статус клетки (ordinal Cell.Status) в младших. Удар
+ * переводит клетку из EMPTY в MISS или из SHIP в HIT одной операцией
+ * compareAndSet, поэтому из всех потоков, одновременно стреляющих по клетке,
+ * изменение засчитывается ровно одному, остальные получают ее текущий статус.
+ * Оставшиеся клетки каждого корабля считаются атомарными счетчиками, жизни доски -
+ * LongAdder, который не становится общей точкой конкуренции. Корабль потопляет
+ * тот поток, чей удар обнулил счетчик корабля: он один отмечает клетки корабля
+ * как SUNKEN и окружение как MISS. Общей блокировки доски нет.
+ * Жизни уменьшаются раньше счетчика корабля, а потопление уменьшает счетчик
+ * непотопленных кораблей, поэтому поток, потопивший последний корабль, видит
+ * getLives() == 0.
+ * Расстановка кораблей и clear() потокобезопасными не являются: доску заполняют
+ * в одном потоке и передают стреляющим потокам, например через ExecutorService.
+ * Слушатели доски вызываются из стреляющих потоков и должны быть потокобезопасными.
+ * Счетчик попаданий Ship доска не меняет: он не атомарный, а состояние кораблей
+ * полностью определяется счетчиками доски.
+ */
+public class ConcurrentBoard extends GameBoard {
+
+    /***
+     * Количество младших бит значения клетки, занятых статусом.
+     */
+    private static final int STATUS_BITS = 3;
+    private static final int STATUS_MASK = (1 << STATUS_BITS) - 1;
+    private static final Cell.Status[] STATUSES = Cell.Status.values();
+    private static final int INITIAL_SHIPS = 16;
+
+    /***
+     * Значения клеток: (номер корабля + 1) << STATUS_BITS | статус.
+     */
+    private final AtomicIntegerArray cells;
+    /***
+     * Реестр кораблей в порядке добавления.
+     */
+    private ShipExtent[] registry = new ShipExtent[INITIAL_SHIPS];
+    /***
+     * Неподбитые клетки каждого корабля реестра.
+     */
+    private AtomicIntegerArray remaining = new AtomicIntegerArray(INITIAL_SHIPS);
+    private int shipCount;
+    private final AtomicInteger afloat = new AtomicInteger();
+    private final LongAdder lives = new LongAdder();
+
+    /***
+     * Создает стандартную доску без кораблей.
+     */
+    public ConcurrentBoard() {
+        this(Board.SIZE);
+    }
+
+    /***
+     * Создает доску заданного размера без кораблей. Доска занимает 4 байта на клетку.
+     * @param size количество строк и столбцов.
+     */
+    public ConcurrentBoard(int size) {
+        super(size);
+        this.cells = new AtomicIntegerArray(size * size);
+    }
+
+    /***
+     * Удар, который засчитывается только одному стрелявшему: в отличие от attack,
+     * повторный удар по уже атакованной клетке возвращает null.
+     * @param cell номер клетки.
+     * @return MISS, HIT или SUNKEN, если этот удар изменил клетку, иначе null.
+     * @throws IllegalArgumentException если номер клетки за пределами доски.
+     */
+    public Cell.Status claim(int cell) {
+        if (EngineMetrics.ENABLED) {
+            long start = System.nanoTime();
+            Cell.Status status = applyClaim(cell);
+            if (status != null) {
+                EngineMetrics.recordAttack(status, System.nanoTime() - start);
+            }
+            return status;
+        }
+        return applyClaim(cell);
+    }
+
+    @Override
+    protected Cell.Status applyAttack(int cell) {
+        Cell.Status status = applyClaim(cell);
+        return status != null ? status : getStatus(cell);
+    }
+
+    private Cell.Status applyClaim(int cell) {
+        checkCell(cell);
+        while (true) {
+            int value = this.cells.get(cell);
+            int status = value & STATUS_MASK;
+            if (status == EMPTY.ordinal()) {
+                if (this.cells.compareAndSet(cell, value, value & ~STATUS_MASK | MISS.ordinal())) {
+                    notifyAttacked(cell, MISS);
+                    return MISS;
+                }
+            } else if (status == SHIP.ordinal()) {
+                if (this.cells.compareAndSet(cell, value, value & ~STATUS_MASK | HIT.ordinal())) {
+                    Cell.Status result = hit((value >>> STATUS_BITS) - 1);
+                    notifyAttacked(cell, result);
+                    return result;
+                }
+            } else {
+                return null;
+            }
+            // клетку изменил другой поток между чтением и compareAndSet: читаем снова.
+        }
+    }
+
+    /***
+     * Засчитывает попадание по кораблю; вызывается только потоком, который
+     * перевел клетку в HIT.
+     */
+    private Cell.Status hit(int ship) {
+        this.lives.decrement();
+        if (this.remaining.decrementAndGet(ship) != 0) {
+            return HIT;
+        }
+        markSunk(this.registry[ship]);
+        this.afloat.decrementAndGet();
+        return SUNKEN;
+    }
+
+    /***
+     * Отмечает клетки потопленного корабля как SUNKEN, а пустые клетки вокруг
+     * него - как MISS. Клетки окружения, по которым одновременно стреляет другой
+     * поток, достаются тому, чей compareAndSet выполнился первым.
+     */
+    private void markSunk(ShipExtent extent) {
+        for (int i = 0; i < extent.getLength(); i++) {
+            int cell = extent.getCell(i);
+            this.cells.set(cell, this.cells.get(cell) & ~STATUS_MASK | SUNKEN.ordinal());
+        }
+        int size = getSize();
+        int first = extent.getFirst();
+        int last = extent.getLast();
+        int finishI = Math.min(last / size + 1, size - 1);
+        int finishJ = Math.min(last % size + 1, size - 1);
+        for (int i = Math.max(first / size - 1, 0); i <= finishI; i++) {
+            for (int j = Math.max(first % size - 1, 0); j <= finishJ; j++) {
+                // вокруг корабля других кораблей нет, поэтому клетка пуста или уже MISS.
+                this.cells.compareAndSet(i * size + j, EMPTY.ordinal(), MISS.ordinal());
+            }
+        }
+    }
+
+    @Override
+    public Cell.Status getStatus(int cell) {
+        checkCell(cell);
+        return STATUSES[this.cells.get(cell) & STATUS_MASK];
+    }
+
+    @Override
+    protected void reset() {
+        for (int i = 0; i < this.cells.length(); i++) {
+            this.cells.set(i, EMPTY.ordinal());
+        }
+        Arrays.fill(this.registry, 0, this.shipCount, null);
+        this.shipCount = 0;
+        this.afloat.set(0);
+        this.lives.reset();
+    }
+
+    @Override
+    protected void placeShip(Ship ship, int first, boolean vertical) {
+        if (this.shipCount == this.registry.length) {
+            this.registry = Arrays.copyOf(this.registry, 2 * this.shipCount);
+            AtomicIntegerArray remaining = new AtomicIntegerArray(2 * this.shipCount);
+            for (int i = 0; i < this.shipCount; i++) {
+                remaining.set(i, this.remaining.get(i));
+            }
+            this.remaining = remaining;
+        }
+        ShipExtent extent = new ShipExtent(ship, first, vertical, getSize());
+        this.registry[this.shipCount++] = extent;
+        int value = this.shipCount << STATUS_BITS | SHIP.ordinal();
+        for (int i = 0; i < extent.getLength(); i++) {
+            this.cells.set(extent.getCell(i), value);
+        }
+        this.remaining.set(this.shipCount - 1, ship.getLength());
+        this.afloat.incrementAndGet();
+        this.lives.add(ship.getLength());
+    }
+
+    @Override
+    protected boolean isShipPlacementPossible(int row, int column, int lastRow, int lastColumn) {
+        int size = getSize();
+        int finishI = Math.min(lastRow + 1, size - 1);
+        int finishJ = Math.min(lastColumn + 1, size - 1);
+        for (int i = Math.max(row - 1, 0); i <= finishI; i++) {
+            for (int j = Math.max(column - 1, 0); j <= finishJ; j++) {
+                if ((this.cells.get(i * size + j) >>> STATUS_BITS) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ShipExtent getSunkShip(int cell) {
+        checkCell(cell);
+        int value = this.cells.get(cell);
+        return (value & STATUS_MASK) == SUNKEN.ordinal() ? this.registry[(value >>> STATUS_BITS) - 1] : null;
+    }
+
+    @Override
+    public int getShipCount() {
+        return this.shipCount;
+    }
+
+    /***
+     * Сумма LongAdder: пока по доске стреляют, значение может не учитывать
+     * удары, которые выполняются в этот момент.
+     */
+    @Override
+    public int getLives() {
+        return (int) this.lives.sum();
+    }
+
+    @Override
+    public int getShipsAfloat() {
+        return this.afloat.get();
+    }
+
+}
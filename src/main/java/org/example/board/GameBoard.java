@@ -0,0 +1,592 @@
+package org.example.board;
+
+import org.example.exception.CoordinateIsInvalidException;
+import org.example.exception.InvalidCoordinatesCountException;
+import org.example.exception.ShipPlacementInvalidException;
+import org.example.metrics.EngineMetrics;
+import org.example.ship.Ship;
+
+import java.util.Arrays;
+
+import static org.example.board.Cell.Status.*;
+
+/***
+ * Доска произвольного размера, на которой размещаются корабли игрока.
+ * Клетка задается номером row * getSize() + column. Строки обозначаются буквами:
+ * "a".."z", затем "aa", "ab" и так далее, столбцы - числами с 0, поэтому
+ * координаты имеют вид "a7" или "ab12".
+ * Класс содержит общую для всех досок логику: разбор координат, проверку линии
+ * корабля, метрики и слушателей. Хранение состояния определяют наследники:
+ * Board - плотные битовые плоскости для небольших досок, SparseBoard - только
+ * занятые и атакованные клетки для очень больших.
+ */
+public abstract class GameBoard {
+
+    /***
+     * Номер клетки, обозначающий некорректную координату.
+     */
+    public static final int INVALID_CELL = -1;
+    /***
+     * Наибольший размер доски: номер любой клетки помещается в int.
+     */
+    public static final int MAX_SIZE = 1 << 15;
+    private static final BoardListener[] NO_LISTENERS = {};
+    /***
+     * Буква первой строки, количество букв и цифра первого столбца в координатах.
+     */
+    private static final char FIRST_ROW = 'a';
+    private static final int LETTERS = 26;
+    private static final char FIRST_COLUMN = '0';
+    /***
+     * Количество строк и столбцов доски.
+     */
+    private final int size;
+    /***
+     * Максимальное количество кораблей на доске. Корабли не могут соприкасаться,
+     * поэтому больше кораблей, чем клеток в квадратах 2x2, разместить нельзя.
+     */
+    private final int maxShips;
+    /***
+     * Слушатели изменений доски в порядке добавления. Массив заменяется целиком
+     * при добавлении и удалении, поэтому уведомление - проход по массиву без
+     * выделения памяти.
+     */
+    private BoardListener[] listeners = NO_LISTENERS;
+    /***
+     * Рендереры displayBoard: [0] - все корабли, [1] - открытый вид. Создаются при
+     * первой отрисовке; обращения к ним синхронизируются на массиве.
+     */
+    private final BoardRenderer[] views = new BoardRenderer[2];
+
+    /***
+     * @param size количество строк и столбцов доски: от 1 до MAX_SIZE.
+     * @throws IllegalArgumentException если размер вне допустимых пределов.
+     */
+    protected GameBoard(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Неверный размер доски: " + size);
+        }
+        this.size = size;
+        this.maxShips = ((size + 1) / 2) * ((size + 1) / 2);
+    }
+
+    /***
+     * Метод атаки квадрата на доске по координатам.
+     * @param coordinates координаты для нанесения удара.
+     * @return результат удара по квадрату: MISS, HIT или SUNKEN.
+     * @throws CoordinateIsInvalidException
+     * @see #attack(int)
+     */
+    public Cell.Status attack(String coordinates) throws CoordinateIsInvalidException {
+        int cell = parseCell(coordinates);
+        if (cell == INVALID_CELL) {
+            throw new CoordinateIsInvalidException();
+        }
+        return attack(cell);
+    }
+
+    /***
+     * Метод атаки квадрата на доске по номерам строки и столбца.
+     * @param row номер строки, начиная с 0 (буква "a").
+     * @param column номер столбца, начиная с 0.
+     * @return результат удара по квадрату: MISS, HIT или SUNKEN.
+     * @throws CoordinateIsInvalidException если клетка находится за пределами доски.
+     * @see #attack(int)
+     */
+    public Cell.Status attack(int row, int column) throws CoordinateIsInvalidException {
+        int cell = cell(row, column);
+        if (cell == INVALID_CELL) {
+            throw new CoordinateIsInvalidException();
+        }
+        return attack(cell);
+    }
+
+    /***
+     * Метод атаки квадрата на доске по номеру клетки.
+     * Если в клетке находился корабль, то после атаки будет возвращено одно из
+     * двух значений: HIT - если корабль поврежден в результате атаки, SUNKEN -
+     * если корабль потоплен. Если корабля не было, клетка станет MISS.
+     * При потоплении все клетки корабля становятся SUNKEN, а клетки вокруг него -
+     * MISS, потому что по правилам кораблей там быть не может.
+     * Повторный удар по клетке не меняет ее статус.
+     * @param cell номер клетки: row * getSize() + column.
+     * @return результат удара по квадрату: MISS, HIT или SUNKEN.
+     * @throws IllegalArgumentException если номер клетки за пределами доски.
+     */
+    public Cell.Status attack(int cell) {
+        if (EngineMetrics.ENABLED) {
+            long start = System.nanoTime();
+            Cell.Status status = applyAttack(cell);
+            EngineMetrics.recordAttack(status, System.nanoTime() - start);
+            return status;
+        }
+        return applyAttack(cell);
+    }
+
+    /***
+     * Залп: удар сразу по нескольким клеткам.
+     * @param cells номера клеток.
+     * @return результаты ударов в порядке клеток.
+     * @throws IllegalArgumentException если какая-либо клетка за пределами доски.
+     * @see #attackAll(int[], Cell.Status[])
+     */
+    public Cell.Status[] attackAll(int[] cells) {
+        Cell.Status[] results = new Cell.Status[cells.length];
+        attackAll(cells, results);
+        return results;
+    }
+
+    /***
+     * Залп: удар сразу по нескольким клеткам за один вызов. Все клетки
+     * проверяются до первого удара, поэтому при неверной клетке доска не
+     * меняется. Жизни и потопленные корабли пересчитываются один раз на залп.
+     * Результат каждой клетки - ее статус после всего залпа: если корабль
+     * потоплен залпом, все попадания по нему в залпе дают SUNKEN. Повторные
+     * клетки, в том числе повторенные в самом залпе, доску не меняют.
+     * @param cells номера клеток.
+     * @param results массив не короче cells для результатов: MISS, HIT или SUNKEN.
+     * @throws IllegalArgumentException если какая-либо клетка за пределами доски.
+     */
+    public void attackAll(int[] cells, Cell.Status[] results) {
+        if (results.length < cells.length) {
+            throw new IllegalArgumentException("Массив результатов короче залпа");
+        }
+        for (int cell : cells) {
+            checkCell(cell);
+        }
+        if (EngineMetrics.ENABLED && cells.length > 0) {
+            long start = System.nanoTime();
+            applySalvo(cells, results);
+            long nanos = (System.nanoTime() - start) / cells.length;
+            for (int i = 0; i < cells.length; i++) {
+                EngineMetrics.recordAttack(results[i], nanos);
+            }
+            return;
+        }
+        applySalvo(cells, results);
+    }
+
+    /***
+     * Наносит залп по проверенным клеткам. По умолчанию удары наносятся по одному
+     * через applyAttack, после чего результаты приводятся к статусам клеток после
+     * залпа; наследник может применить залп целиком.
+     * @param cells номера клеток в пределах доски.
+     * @param results массив для результатов.
+     */
+    protected void applySalvo(int[] cells, Cell.Status[] results) {
+        for (int cell : cells) {
+            applyAttack(cell);
+        }
+        for (int i = 0; i < cells.length; i++) {
+            results[i] = getStatus(cells[i]);
+        }
+    }
+
+    /***
+     * Наносит удар по клетке. Если удар изменил доску, наследник сообщает о нем
+     * через notifyAttacked.
+     * @param cell номер клетки.
+     * @return результат удара.
+     * @throws IllegalArgumentException если номер клетки за пределами доски.
+     */
+    protected abstract Cell.Status applyAttack(int cell);
+
+    /***
+     * Открытый статус клетки, который видит противник: целые части кораблей
+     * отображаются как EMPTY.
+     * @param row номер строки, начиная с 0.
+     * @param column номер столбца, начиная с 0.
+     * @return EMPTY, MISS, HIT или SUNKEN.
+     * @throws CoordinateIsInvalidException если клетка находится за пределами доски.
+     */
+    public Cell.Status getPublicStatus(int row, int column) throws CoordinateIsInvalidException {
+        int cell = cell(row, column);
+        if (cell == INVALID_CELL) {
+            throw new CoordinateIsInvalidException();
+        }
+        return getPublicStatus(cell);
+    }
+
+    /***
+     * Открытый статус клетки по ее номеру.
+     * @param cell номер клетки: row * getSize() + column.
+     * @return EMPTY, MISS, HIT или SUNKEN.
+     */
+    public Cell.Status getPublicStatus(int cell) {
+        Cell.Status status = getStatus(cell);
+        return status == SHIP ? EMPTY : status;
+    }
+
+    /***
+     * Статус клетки, включая целые части кораблей (SHIP).
+     * @param cell номер клетки: row * getSize() + column.
+     * @return статус клетки.
+     * @throws IllegalArgumentException если номер клетки за пределами доски.
+     */
+    public abstract Cell.Status getStatus(int cell);
+
+    /***
+     * Положение потопленного корабля. Положение целых и подбитых кораблей
+     * противнику неизвестно, поэтому для них возвращается null.
+     * @param cell номер клетки.
+     * @return положение корабля, которому принадлежит клетка со статусом SUNKEN,
+     * или null.
+     * @throws IllegalArgumentException если номер клетки за пределами доски.
+     */
+    public abstract ShipExtent getSunkShip(int cell);
+
+    /***
+     * Убирает с доски все корабли и следы ударов, чтобы использовать доску
+     * в новой партии без создания нового объекта.
+     */
+    public void clear() {
+        reset();
+        for (BoardListener listener : this.listeners) {
+            listener.cleared();
+        }
+    }
+
+    /***
+     * Сбрасывает состояние доски без уведомления слушателей.
+     */
+    protected abstract void reset();
+
+    /***
+     * Добавляет слушателя, которому доска сообщает о постановке кораблей, ударах
+     * и очистке. Слушатели вызываются в порядке добавления, например журнал ходов
+     * раньше трансляции зрителям.
+     * @param listener слушатель.
+     */
+    public void addListener(BoardListener listener) {
+        BoardListener[] listeners = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+        listeners[this.listeners.length] = listener;
+        this.listeners = listeners;
+    }
+
+    /***
+     * Убирает слушателя, добавленного addListener.
+     * @param listener слушатель.
+     * @return false, если такого слушателя у доски нет.
+     */
+    public boolean removeListener(BoardListener listener) {
+        for (int i = 0; i < this.listeners.length; i++) {
+            if (this.listeners[i] == listener) {
+                BoardListener[] listeners = new BoardListener[this.listeners.length - 1];
+                System.arraycopy(this.listeners, 0, listeners, 0, i);
+                System.arraycopy(this.listeners, i + 1, listeners, i, listeners.length - i);
+                this.listeners = listeners;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /***
+     * Сообщает слушателям об ударе, изменившем доску.
+     */
+    protected final void notifyAttacked(int cell, Cell.Status status) {
+        for (BoardListener listener : this.listeners) {
+            listener.attacked(cell, status);
+        }
+    }
+
+    /***
+     * Метод добавления корабля на доску по заданным координатам.
+     * Увеличивает суммарное количество жизней на доске на длину корабля.
+     * Координаты должны идти подряд в одном направлении: "a7 a8 a9" или "a9 a8 a7".
+     * @param ship корабль для добавления.
+     * @param coordinates массив координат для постановки. Пример: ["a7", "a8", "a9"].
+     * @throws InvalidCoordinatesCountException
+     * @throws CoordinateIsInvalidException
+     * @throws ShipPlacementInvalidException
+     */
+    public void addShip(Ship ship, String... coordinates)
+            throws InvalidCoordinatesCountException, CoordinateIsInvalidException,
+            ShipPlacementInvalidException {
+        if (ship.getLength() != coordinates.length) {
+            throw new InvalidCoordinatesCountException();
+        }
+        for (String coordinate : coordinates) {
+            if (parseCell(coordinate) == INVALID_CELL) {
+                throw new CoordinateIsInvalidException();
+            }
+        }
+
+        int first = parseCell(coordinates[0]);
+        int step = coordinates.length > 1 ? parseCell(coordinates[1]) - first : 1;
+        if (step != 1 && step != -1 && step != this.size && step != -this.size) {
+            throw rejected(classifyLine(coordinates));
+        }
+        for (int i = 1; i < coordinates.length; i++) {
+            int cell = parseCell(coordinates[i]);
+            // при шаге по горизонтали клетки не должны переходить на другую строку.
+            if (cell != first + i * step
+                    || (step == 1 || step == -1) && cell / this.size != first / this.size) {
+                throw rejected(classifyLine(coordinates));
+            }
+        }
+        int last = first + (coordinates.length - 1) * step;
+        addShip(ship, Math.min(first, last), step == this.size || step == -this.size);
+    }
+
+    /***
+     * Метод добавления корабля на доску по первой клетке и направлению.
+     * @param ship корабль для добавления.
+     * @param row номер строки верхней (для вертикального корабля) или левой клетки.
+     * @param column номер столбца этой клетки.
+     * @param vertical true - корабль идет вниз, false - вправо.
+     * @throws CoordinateIsInvalidException если корабль выходит за пределы доски.
+     * @throws ShipPlacementInvalidException если клетки заняты или рядом есть корабль.
+     * @see #addShip(Ship, int, boolean)
+     */
+    public void addShip(Ship ship, int row, int column, boolean vertical)
+            throws CoordinateIsInvalidException, ShipPlacementInvalidException {
+        int cell = cell(row, column);
+        if (cell == INVALID_CELL) {
+            throw new CoordinateIsInvalidException();
+        }
+        addShip(ship, cell, vertical);
+    }
+
+    /***
+     * Метод добавления корабля на доску по номеру первой клетки и направлению.
+     * Увеличивает суммарное количество жизней на доске на длину корабля.
+     * @param ship корабль для добавления.
+     * @param cell номер верхней (для вертикального корабля) или левой клетки.
+     * @param vertical true - корабль идет вниз, false - вправо.
+     * @throws CoordinateIsInvalidException если корабль выходит за пределы доски.
+     * @throws ShipPlacementInvalidException если клетки заняты или рядом есть корабль.
+     */
+    public void addShip(Ship ship, int cell, boolean vertical)
+            throws CoordinateIsInvalidException, ShipPlacementInvalidException {
+        long start = EngineMetrics.ENABLED ? System.nanoTime() : 0;
+        if (!canPlace(ship.getLength(), cell, vertical)) {
+            if (!isInside(cell) || !fits(ship.getLength(), cell, vertical)) {
+                throw new CoordinateIsInvalidException();
+            }
+            throw rejected(ShipPlacementInvalidException.Reason.OCCUPIED);
+        }
+        placeShip(ship, cell, vertical);
+        for (BoardListener listener : this.listeners) {
+            listener.shipPlaced(ship.getLength(), cell, vertical);
+        }
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.recordAddShip(System.nanoTime() - start);
+        }
+    }
+
+    /***
+     * Ставит корабль на доску без проверок.
+     * @param ship корабль.
+     * @param first номер верхней или левой клетки.
+     * @param vertical true - корабль идет вниз, false - вправо.
+     */
+    protected abstract void placeShip(Ship ship, int first, boolean vertical);
+
+    /***
+     * Создает исключение отказа в постановке и учитывает отказ в метриках.
+     */
+    private static ShipPlacementInvalidException rejected(ShipPlacementInvalidException.Reason reason) {
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.recordRejection(reason);
+        }
+        return new ShipPlacementInvalidException(reason);
+    }
+
+    /***
+     * Определяет причину, по которой корректные координаты не образуют корабль:
+     * клетки лежат на одной линии подряд, но перечислены не по порядку, или
+     * линии не образуют вовсе.
+     * @param coordinates координаты клеток корабля.
+     * @return WRONG_ORDER или NOT_A_LINE.
+     */
+    private ShipPlacementInvalidException.Reason classifyLine(String... coordinates) {
+        int[] cells = new int[coordinates.length];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = parseCell(coordinates[i]);
+        }
+        Arrays.sort(cells);
+        boolean row = true;
+        boolean column = true;
+        for (int i = 1; i < cells.length; i++) {
+            row &= cells[i] == cells[i - 1] + 1 && cells[i] / this.size == cells[0] / this.size;
+            column &= cells[i] == cells[i - 1] + this.size;
+        }
+        return row || column
+                ? ShipPlacementInvalidException.Reason.WRONG_ORDER
+                : ShipPlacementInvalidException.Reason.NOT_A_LINE;
+    }
+
+    /***
+     * Проверяет, можно ли поставить корабль: он помещается на доске, его клетки
+     * свободны и рядом нет других кораблей.
+     * @param length длина корабля.
+     * @param cell номер верхней или левой клетки.
+     * @param vertical true - корабль идет вниз, false - вправо.
+     * @return true - если корабль можно поставить.
+     */
+    public boolean canPlace(int length, int cell, boolean vertical) {
+        if (!isInside(cell) || !fits(length, cell, vertical) || getShipCount() == this.maxShips) {
+            return false;
+        }
+        int row = cell / this.size;
+        int column = cell % this.size;
+        return vertical
+                ? isShipPlacementPossible(row, column, row + length - 1, column)
+                : isShipPlacementPossible(row, column, row, column + length - 1);
+    }
+
+    /***
+     * Проверяет, что на рядом стоящих и переданных клетках нет кораблей.
+     * @param row строка первой клетки корабля.
+     * @param column столбец первой клетки корабля.
+     * @param lastRow строка последней клетки корабля.
+     * @param lastColumn столбец последней клетки корабля.
+     * @return true - клетки свободны и рядом нет кораблей, иначе - false.
+     */
+    protected abstract boolean isShipPlacementPossible(int row, int column, int lastRow, int lastColumn);
+
+    private boolean fits(int length, int cell, boolean vertical) {
+        return vertical
+                ? cell / this.size + length <= this.size
+                : cell % this.size + length <= this.size;
+    }
+
+    /***
+     * Номер клетки по строке и столбцу.
+     * @param row номер строки, начиная с 0.
+     * @param column номер столбца, начиная с 0.
+     * @return row * getSize() + column или INVALID_CELL, если клетка за пределами доски.
+     */
+    public int cell(int row, int column) {
+        if (row < 0 || row >= this.size || column < 0 || column >= this.size) {
+            return INVALID_CELL;
+        }
+        return row * this.size + column;
+    }
+
+    /***
+     * Преобразует координату вида "a7" или "ab12" в номер клетки: буквы строки,
+     * затем номер столбца. Не создает объектов и не бросает исключений.
+     * @param coordinate координата точки на доске.
+     * @return номер клетки или INVALID_CELL, если координата некорректна.
+     */
+    public int parseCell(String coordinate) {
+        if (coordinate == null) {
+            return INVALID_CELL;
+        }
+        int length = coordinate.length();
+        int position = 0;
+        // строки нумеруются без нуля: "a" - 1, "z" - 26, "aa" - 27.
+        int row = 0;
+        while (position < length) {
+            int letter = coordinate.charAt(position) - FIRST_ROW;
+            if (letter < 0 || letter >= LETTERS) {
+                break;
+            }
+            row = row * LETTERS + letter + 1;
+            if (row > this.size) {
+                return INVALID_CELL;
+            }
+            position++;
+        }
+        if (position == 0 || position == length) {
+            return INVALID_CELL;
+        }
+        int column = 0;
+        while (position < length) {
+            int digit = coordinate.charAt(position++) - FIRST_COLUMN;
+            if (digit < 0 || digit > 9) {
+                return INVALID_CELL;
+            }
+            column = column * 10 + digit;
+            if (column >= this.size) {
+                return INVALID_CELL;
+            }
+        }
+        return cell(row - 1, column);
+    }
+
+    /***
+     * Преобразует номер клетки в координату вида "a7".
+     * @param cell номер клетки.
+     * @return координата клетки.
+     */
+    public String toCoordinate(int cell) {
+        checkCell(cell);
+        return rowLabel(cell / this.size) + cell % this.size;
+    }
+
+    /***
+     * Буквенное обозначение строки: "a".."z", "aa".."zz", "aaa" и так далее.
+     * @param row номер строки, начиная с 0.
+     * @return обозначение строки.
+     */
+    static String rowLabel(int row) {
+        char[] label = new char[8];
+        int position = label.length;
+        for (int number = row + 1; number > 0; number = (number - 1) / LETTERS) {
+            label[--position] = (char) (FIRST_ROW + (number - 1) % LETTERS);
+        }
+        return new String(label, position, label.length - position);
+    }
+
+    private boolean isInside(int cell) {
+        return cell >= 0 && cell < this.size * this.size;
+    }
+
+    /***
+     * @throws IllegalArgumentException если номер клетки за пределами доски.
+     */
+    protected final void checkCell(int cell) {
+        if (!isInside(cell)) {
+            throw new IllegalArgumentException("Клетка за пределами доски: " + cell);
+        }
+    }
+
+    /***
+     * Метод для отображения доски.
+     * Доска хранит по одному BoardRenderer на каждый вид, поэтому повторная
+     * отрисовка обновляет только изменившиеся клетки, а неизменившаяся доска
+     * возвращает ту же строку.
+     * @param hideShips параметр для скрытия кораблей. true - скрыть корабли в точках,
+     * где они не подбиты, false - отобразить все корабли, даже целые.
+     * @return отформатированная для отображения сетка доски.
+     */
+    public String displayBoard(boolean hideShips) {
+        int index = hideShips ? 1 : 0;
+        synchronized (this.views) {
+            if (this.views[index] == null) {
+                this.views[index] = new BoardRenderer(this, hideShips);
+            }
+            return this.views[index].render();
+        }
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    /***
+     * @return наибольшее количество кораблей, которое помещается на доске.
+     */
+    public int getMaxShips() {
+        return this.maxShips;
+    }
+
+    /***
+     * @return количество кораблей на доске.
+     */
+    public abstract int getShipCount();
+
+    /***
+     * @return количество неподбитых частей кораблей на доске.
+     */
+    public abstract int getLives();
+
+    /***
+     * @return количество непотопленных кораблей на доске.
+     */
+    public abstract int getShipsAfloat();
+
+}
@@ -0,0 +1,111 @@
+package org.example.board;
+
+import org.example.ship.Ship;
+
+import static org.example.board.Cell.Status.*;
+
+/***
+ * Неизменяемая копия открытого состояния доски: то, что видит противник.
+ * Хранит открытый статус каждой клетки и положения потопленных кораблей;
+ * целые части кораблей в копию не попадают, поэтому getStatus никогда не
+ * возвращает SHIP. Копию можно передать другому потоку, пока исходная доска
+ * продолжает меняться, - например боту, чей ход ограничен по времени.
+ * Копирование проходит по всем клеткам доски.
+ * Удары, расстановка и очистка бросают UnsupportedOperationException.
+ */
+public final class PublicView extends GameBoard {
+
+    private static final Cell.Status[] STATUSES = Cell.Status.values();
+
+    /***
+     * Открытые статусы клеток (ordinal Cell.Status).
+     */
+    private final byte[] statuses;
+    /***
+     * Положение потопленного корабля для каждой клетки SUNKEN, иначе null.
+     */
+    private final ShipExtent[] sunk;
+    private final int shipCount;
+    private final int lives;
+    private final int shipsAfloat;
+
+    private PublicView(GameBoard board) {
+        super(board.getSize());
+        int cells = board.getSize() * board.getSize();
+        this.statuses = new byte[cells];
+        this.sunk = new ShipExtent[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            Cell.Status status = board.getPublicStatus(cell);
+            this.statuses[cell] = (byte) status.ordinal();
+            if (status == SUNKEN) {
+                this.sunk[cell] = board.getSunkShip(cell);
+            }
+        }
+        this.shipCount = board.getShipCount();
+        this.lives = board.getLives();
+        this.shipsAfloat = board.getShipsAfloat();
+    }
+
+    /***
+     * Копирует открытое состояние доски.
+     * @param board доска.
+     * @return копия, не связанная с доской.
+     */
+    public static PublicView of(GameBoard board) {
+        return new PublicView(board);
+    }
+
+    @Override
+    protected Cell.Status applyAttack(int cell) {
+        throw new UnsupportedOperationException("Копия открытого состояния доски неизменяема");
+    }
+
+    /***
+     * @return открытый статус: EMPTY, MISS, HIT или SUNKEN.
+     */
+    @Override
+    public Cell.Status getStatus(int cell) {
+        checkCell(cell);
+        return STATUSES[this.statuses[cell]];
+    }
+
+    @Override
+    public ShipExtent getSunkShip(int cell) {
+        checkCell(cell);
+        return this.sunk[cell];
+    }
+
+    @Override
+    protected void reset() {
+        throw new UnsupportedOperationException("Копия открытого состояния доски неизменяема");
+    }
+
+    @Override
+    protected void placeShip(Ship ship, int first, boolean vertical) {
+        throw new UnsupportedOperationException("Копия открытого состояния доски неизменяема");
+    }
+
+    /***
+     * Положения целых кораблей неизвестны, поэтому проверка всегда отрицательна.
+     */
+    @Override
+    protected boolean isShipPlacementPossible(int row, int column, int lastRow, int lastColumn) {
+        return false;
+    }
+
+    @Override
+    public int getShipCount() {
+        return this.shipCount;
+    }
+
+    @Override
+    public int getLives() {
+        return this.lives;
+    }
+
+    @Override
+    public int getShipsAfloat() {
+        return this.shipsAfloat;
+    }
+
+}
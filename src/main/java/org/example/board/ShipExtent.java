@@ -0,0 +1,58 @@
+package org.example.board;
+
+import org.example.ship.Ship;
+
+/***
+ * Положение корабля на доске: первая клетка, длина и направление.
+ * Доска хранит положение каждого поставленного корабля и по номеру клетки
+ * за постоянное время находит корабль, которому она принадлежит.
+ */
+public final class ShipExtent {
+
+    private final Ship ship;
+    /***
+     * Номер верхней или левой клетки.
+     */
+    private final int first;
+    /***
+     * Разность номеров соседних клеток корабля: 1 или размер доски.
+     */
+    private final int step;
+    private final boolean vertical;
+
+    ShipExtent(Ship ship, int first, boolean vertical, int size) {
+        this.ship = ship;
+        this.first = first;
+        this.vertical = vertical;
+        this.step = vertical ? size : 1;
+    }
+
+    Ship getShip() {
+        return this.ship;
+    }
+
+    public int getFirst() {
+        return this.first;
+    }
+
+    public int getLast() {
+        return getCell(getLength() - 1);
+    }
+
+    public int getLength() {
+        return this.ship.getLength();
+    }
+
+    public boolean isVertical() {
+        return this.vertical;
+    }
+
+    /***
+     * @param index номер клетки корабля: от 0 до getLength() - 1.
+     * @return номер клетки доски.
+     */
+    public int getCell(int index) {
+        return this.first + index * this.step;
+    }
+
+}
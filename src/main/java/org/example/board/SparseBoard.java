@@ -0,0 +1,208 @@
+package org.example.board;
+
+import org.example.ship.Ship;
+
+import java.util.Arrays;
+
+import static org.example.board.Cell.Status.*;
+
+/***
+ * Доска для очень больших полей с небольшим количеством кораблей, например
+ * 1000x1000. Хранит только клетки кораблей и атакованные клетки в хеш-таблице,
+ * поэтому занимаемая память зависит от количества кораблей и ударов, а не от
+ * площади доски: пустая доска 1000x1000 занимает около килобайта, тогда как
+ * битовые плоскости Board - полмегабайта.
+ * Значение клетки в таблице - индекс корабля, сдвинутый на два бита, и состояние
+ * клетки в младших битах. Клетки, которых нет в таблице, пусты и не атакованы.
+ */
+public class SparseBoard extends GameBoard {
+
+    /***
+     * Состояния клетки в младших двух битах значения.
+     */
+    private static final int INTACT = 0;
+    private static final int HIT_STATE = 1;
+    private static final int SUNK_STATE = 2;
+    private static final int MISS_STATE = 3;
+    private static final int STATE_MASK = 3;
+    private static final int INITIAL_SHIPS = 16;
+
+    /***
+     * Клетки кораблей и атакованные клетки.
+     */
+    private final CellTable cells = new CellTable();
+    /***
+     * Реестр кораблей, размещенных на доске, в порядке добавления. Индекс корабля
+     * в реестре хранится в значениях клеток.
+     */
+    private ShipExtent[] registry = new ShipExtent[INITIAL_SHIPS];
+    private int shipCount;
+    private int sunkShips;
+    private int lives;
+
+    /***
+     * Создает пустую доску.
+     * @param size количество строк и столбцов.
+     */
+    public SparseBoard(int size) {
+        super(size);
+    }
+
+    @Override
+    protected Cell.Status applyAttack(int cell) {
+        checkCell(cell);
+        int value = this.cells.get(cell);
+        if (value == CellTable.ABSENT) {
+            this.cells.put(cell, MISS_STATE);
+            notifyAttacked(cell, MISS);
+            return MISS;
+        }
+        if ((value & STATE_MASK) != INTACT) {
+            return statusOf(value);
+        }
+        ShipExtent extent = this.registry[value >>> 2];
+        this.cells.put(cell, value | HIT_STATE);
+        this.lives--;
+        extent.getShip().hit();
+        Cell.Status status;
+        if (isSunk(extent)) {
+            markSunk(extent, value);
+            status = SUNKEN;
+        } else {
+            status = HIT;
+        }
+        notifyAttacked(cell, status);
+        return status;
+    }
+
+    @Override
+    public Cell.Status getStatus(int cell) {
+        checkCell(cell);
+        int value = this.cells.get(cell);
+        return value == CellTable.ABSENT ? EMPTY : statusOf(value);
+    }
+
+    @Override
+    protected void reset() {
+        this.cells.clear();
+        Arrays.fill(this.registry, 0, this.shipCount, null);
+        this.shipCount = 0;
+        this.sunkShips = 0;
+        this.lives = 0;
+    }
+
+    @Override
+    protected void placeShip(Ship ship, int first, boolean vertical) {
+        if (this.shipCount == this.registry.length) {
+            this.registry = Arrays.copyOf(this.registry, 2 * this.shipCount);
+        }
+        ShipExtent extent = new ShipExtent(ship, first, vertical, getSize());
+        int value = this.shipCount << 2 | INTACT;
+        for (int i = 0; i < extent.getLength(); i++) {
+            this.cells.put(extent.getCell(i), value);
+        }
+        this.registry[this.shipCount++] = extent;
+        this.lives += ship.getLength();
+    }
+
+    /***
+     * Отмечает все клетки потопленного корабля как потопленные, а клетки вокруг
+     * него - как промахи: кораблей там быть не может.
+     * @param extent положение корабля.
+     * @param value значение клеток корабля в таблице.
+     */
+    private void markSunk(ShipExtent extent, int value) {
+        this.sunkShips++;
+        for (int i = 0; i < extent.getLength(); i++) {
+            this.cells.put(extent.getCell(i), value & ~STATE_MASK | SUNK_STATE);
+        }
+        int size = getSize();
+        int first = extent.getFirst();
+        int last = extent.getLast();
+        int finishI = Math.min(last / size + 1, size - 1);
+        int finishJ = Math.min(last % size + 1, size - 1);
+        for (int i = Math.max(first / size - 1, 0); i <= finishI; i++) {
+            for (int j = Math.max(first % size - 1, 0); j <= finishJ; j++) {
+                int cell = i * size + j;
+                if (this.cells.get(cell) == CellTable.ABSENT) {
+                    this.cells.put(cell, MISS_STATE);
+                }
+            }
+        }
+    }
+
+    /***
+     * Проверяет клетки корабля и его окружения поштучно: их не больше
+     * 3 * (длина корабля + 2).
+     */
+    @Override
+    protected boolean isShipPlacementPossible(int row, int column, int lastRow, int lastColumn) {
+        int size = getSize();
+        int startI = Math.max(row - 1, 0);
+        int startJ = Math.max(column - 1, 0);
+        int finishI = Math.min(lastRow + 1, size - 1);
+        int finishJ = Math.min(lastColumn + 1, size - 1);
+        for (int i = startI; i <= finishI; i++) {
+            for (int j = startJ; j <= finishJ; j++) {
+                int value = this.cells.get(i * size + j);
+                if (value != CellTable.ABSENT && (value & STATE_MASK) != MISS_STATE) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /***
+     * Проверяет, что все клетки корабля подбиты.
+     * @param extent положение корабля.
+     * @return true - если корабль потоплен, иначе - false.
+     */
+    private boolean isSunk(ShipExtent extent) {
+        for (int i = 0; i < extent.getLength(); i++) {
+            if ((this.cells.get(extent.getCell(i)) & STATE_MASK) == INTACT) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ShipExtent getSunkShip(int cell) {
+        checkCell(cell);
+        int value = this.cells.get(cell);
+        return value != CellTable.ABSENT && (value & STATE_MASK) == SUNK_STATE ? this.registry[value >>> 2] : null;
+    }
+
+    private static Cell.Status statusOf(int value) {
+        return switch (value & STATE_MASK) {
+            case HIT_STATE -> HIT;
+            case SUNK_STATE -> SUNKEN;
+            case MISS_STATE -> MISS;
+            default -> SHIP;
+        };
+    }
+
+    /***
+     * @return количество клеток, хранящихся в таблице: клетки кораблей и промахи.
+     */
+    public int getStoredCells() {
+        return this.cells.size();
+    }
+
+    @Override
+    public int getShipCount() {
+        return this.shipCount;
+    }
+
+    @Override
+    public int getLives() {
+        return this.lives;
+    }
+
+    @Override
+    public int getShipsAfloat() {
+        return this.shipCount - this.sunkShips;
+    }
+
+}
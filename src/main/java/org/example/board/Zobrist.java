@@ -0,0 +1,144 @@
+package org.example.board;
+
+/***
+ * Ключи Zobrist для хеширования открытого состояния доски.
+ * Каждой паре (клетка, открытый статус MISS, HIT или SUNKEN) соответствует
+ * 64-битный ключ; хеш состояния - xor ключей всех атакованных клеток, поэтому
+ * изменение статуса клетки обновляет хеш за O(1) двумя xor.
+ * Квадратная доска имеет 8 симметрий: 4 поворота и 4 отражения. Доска хранит
+ * хеш для каждой симметрии - хеш состояния, преобразованного этой симметрией, -
+ * и обновляет все восемь при каждом изменении клетки. Наименьший из них не
+ * меняется при повороте или отражении доски и служит каноническим ключом.
+ * Ключ клетки вычисляется перемешиванием ее номера и статуса, поэтому не зависит
+ * от размера доски. Для досок до TABLE_LIMIT ключи всех симметрий заранее
+ * сведены в общую для размера таблицу: обновление - восемь xor подряд идущих
+ * слов без деления на размер доски.
+ */
+final class Zobrist {
+
+    /***
+     * Количество симметрий квадратной доски.
+     */
+    static final int SYMMETRIES = 8;
+    /***
+     * Коды открытых статусов в ключах.
+     */
+    static final int MISS_CODE = 0;
+    static final int HIT_CODE = 1;
+    static final int SUNK_CODE = 2;
+    /***
+     * Переход HIT -> SUNKEN при потоплении: xor ключей HIT и SUNKEN, чтобы клетка
+     * потопленного корабля обновляла хеши за один проход.
+     */
+    static final int SINK_CODE = 3;
+    private static final int CODES = 4;
+    /***
+     * Наибольший размер доски, для которой строится таблица ключей. Таблица
+     * занимает size * size * 256 байт: для стандартной доски 25 КБ.
+     */
+    static final int TABLE_LIMIT = 32;
+    /***
+     * Обратные симметрии: повороты на 90 и 270 градусов обратны друг другу,
+     * остальные симметрии обратны сами себе.
+     */
+    private static final int[] INVERSE = {0, 3, 2, 1, 4, 5, 6, 7};
+    private static final long[][] TABLES = new long[TABLE_LIMIT + 1][];
+
+    private Zobrist() {
+    }
+
+    /***
+     * Таблица ключей для размера доски.
+     * @param size размер доски.
+     * @return таблица, общая для всех досок этого размера, или null для досок
+     * больше TABLE_LIMIT.
+     */
+    static synchronized long[] table(int size) {
+        if (size > TABLE_LIMIT) {
+            return null;
+        }
+        long[] table = TABLES[size];
+        if (table == null) {
+            table = new long[size * size * CODES * SYMMETRIES];
+            for (int cell = 0; cell < size * size; cell++) {
+                for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                    int image = transform(symmetry, cell, size);
+                    for (int code = 0; code < CODES; code++) {
+                        table[(cell * CODES + code) * SYMMETRIES + symmetry] = key(image, code);
+                    }
+                }
+            }
+            TABLES[size] = table;
+        }
+        return table;
+    }
+
+    /***
+     * Добавляет статус клетки во все хеши симметрий или убирает его оттуда.
+     * @param hashes хеши симметрий доски.
+     * @param table таблица ключей размера доски или null.
+     * @param size размер доски.
+     * @param cell номер клетки.
+     * @param code код статуса.
+     */
+    static void toggle(long[] hashes, long[] table, int size, int cell, int code) {
+        if (table != null) {
+            int base = (cell * CODES + code) * SYMMETRIES;
+            for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                hashes[symmetry] ^= table[base + symmetry];
+            }
+            return;
+        }
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            hashes[symmetry] ^= key(transform(symmetry, cell, size), code);
+        }
+    }
+
+    /***
+     * Образ клетки при симметрии: 0 - тождественная, 1..3 - повороты на 90, 180 и
+     * 270 градусов по часовой стрелке, 4 - отражение слева направо, 5 - сверху
+     * вниз, 6 - относительно главной диагонали, 7 - относительно побочной.
+     * @param symmetry номер симметрии: от 0 до SYMMETRIES - 1.
+     * @param cell номер клетки.
+     * @param size размер доски.
+     * @return номер клетки-образа.
+     */
+    static int transform(int symmetry, int cell, int size) {
+        int row = cell / size;
+        int column = cell % size;
+        int last = size - 1;
+        return switch (symmetry) {
+            case 0 -> cell;
+            case 1 -> column * size + last - row;
+            case 2 -> (last - row) * size + last - column;
+            case 3 -> (last - column) * size + row;
+            case 4 -> row * size + last - column;
+            case 5 -> (last - row) * size + column;
+            case 6 -> column * size + row;
+            case 7 -> (last - column) * size + last - row;
+            default -> throw new IllegalArgumentException("Неверный номер симметрии: " + symmetry);
+        };
+    }
+
+    /***
+     * @param symmetry номер симметрии.
+     * @return номер обратной симметрии.
+     */
+    static int inverse(int symmetry) {
+        return INVERSE[symmetry];
+    }
+
+    /***
+     * Ключ пары (клетка, статус): финализатор SplitMix64 от номера пары.
+     */
+    private static long key(int cell, int code) {
+        if (code == SINK_CODE) {
+            return key(cell, HIT_CODE) ^ key(cell, SUNK_CODE);
+        }
+        long z = (cell * (long) CODES + code + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.example.bot;
+
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+import org.example.component.GameConfig;
+
+import java.util.SplittableRandom;
+
+/***
+ * Компьютерный игрок, которым управляет BotMatch.
+ * Методы бота вызываются в отдельном потоке с ограничением времени на ход. Если
+ * бот не уложился в бюджет, бросил исключение или вернул недопустимый ход, за
+ * него делается запасной ход, а сам бот больше не вызывается, пока не завершится
+ * его предыдущий вызов. Поэтому экземпляр бота не обязан быть потокобезопасным:
+ * одновременно выполняется не больше одного его метода.
+ * Бот получает неизменяемую копию открытого состояния доски противника
+ * (PublicView): статусы клеток без целых частей кораблей и положения потопленных
+ * кораблей. Если ход бота просрочен, он дочитывает свою копию, а его результат
+ * отбрасывается.
+ */
+public interface Bot {
+
+    /***
+     * Название бота для отчетов.
+     * @return название бота.
+     */
+    String getName();
+
+    /***
+     * Расставляет флот на пустой доске через GameBoard.addShip.
+     * @param board пустая доска размера config.getSize().
+     * @param config размер доски и состав флота.
+     * @param random генератор случайных чисел партии.
+     * @throws Exception если расставить флот не удалось; тогда флот расставляется
+     * случайно.
+     */
+    void placeShips(GameBoard board, GameConfig config, SplittableRandom random) throws Exception;
+
+    /***
+     * Выбирает клетку для следующего выстрела.
+     * @param target неизменяемая копия открытого состояния доски противника.
+     * @return номер еще не атакованной клетки.
+     * @throws Exception если выбрать клетку не удалось; тогда делается запасной ход.
+     */
+    int nextShot(GameBoard target) throws Exception;
+
+    /***
+     * Сообщает боту результат его выстрела, в том числе запасного, сделанного за
+     * него. Результаты доставляются по порядку в потоке бота перед следующим
+     * вызовом nextShot и входят в его бюджет времени.
+     * @param cell номер атакованной клетки.
+     * @param status результат: MISS, HIT или SUNKEN.
+     */
+    default void onResult(int cell, Cell.Status status) {
+    }
+
+}
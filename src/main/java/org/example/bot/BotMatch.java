@@ -0,0 +1,304 @@
+package org.example.bot;
+
+import org.example.board.BoardListener;
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+import org.example.board.PublicView;
+import org.example.component.GameConfig;
+import org.example.engine.GameEngine;
+import org.example.engine.ShotResult;
+import org.example.metrics.EngineMetrics;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/***
+ * Партия двух ботов с ограничением времени на ход.
+ * Каждый вызов бота - расстановка флота или выбор выстрела - выполняется в
+ * отдельном потоке исполнителя (см. MoveExecutors), а поток партии ждет результат
+ * не дольше бюджета хода. Если бот не успел, бросил исключение или выбрал уже
+ * атакованную клетку, поток бота прерывается, а за бота делается запасной ход:
+ * случайная расстановка или выстрел по случайной неатакованной клетке. Пока
+ * предыдущий вызов бота не завершился, бот не вызывается и все его ходы запасные,
+ * поэтому зависший бот не задерживает партию больше чем на один бюджет.
+ * Результаты выстрелов копятся в очереди бота и доставляются ему через onResult
+ * в его потоке перед следующим выбором выстрела.
+ * Бот получает не саму доску противника, а неизменяемую копию ее открытого
+ * состояния (PublicView), сделанную потоком партии перед вызовом: просроченный
+ * бот читает свою копию, пока партия меняет доску.
+ * Первый бот ходит за GameEngine.FIRST, второй - за GameEngine.SECOND.
+ */
+public class BotMatch {
+
+    /***
+     * Бюджет хода по умолчанию.
+     */
+    public static final long DEFAULT_MOVE_BUDGET_MILLIS = 100;
+
+    private final Seat[] seats;
+    private final GameConfig config;
+    private final ExecutorService executor;
+    private final long budgetNanos;
+
+    /***
+     * @param first бот первого игрока.
+     * @param second бот второго игрока.
+     * @param config размер доски и состав флота.
+     * @param executor исполнитель вызовов ботов; должен запускать задачи без
+     * очереди, иначе ожидание в очереди съедает бюджет хода.
+     * @param moveBudgetMillis наибольшее время одного вызова бота.
+     */
+    public BotMatch(Bot first, Bot second, GameConfig config, ExecutorService executor, long moveBudgetMillis) {
+        if (moveBudgetMillis < 1) {
+            throw new IllegalArgumentException("Бюджет хода должен быть положительным");
+        }
+        this.seats = new Seat[]{new Seat(first), new Seat(second)};
+        this.config = config;
+        this.executor = executor;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(moveBudgetMillis);
+    }
+
+    /***
+     * Играет партию: боты расставляют флот, затем стреляют по очереди до победы.
+     * Вызывается один раз на экземпляр.
+     * @param random генератор случайных чисел партии.
+     * @return итог партии.
+     * @throws InterruptedException если поток партии прерван.
+     */
+    public MatchResult play(SplittableRandom random) throws InterruptedException {
+        long start = System.nanoTime();
+        GameBoard[] boards = new GameBoard[2];
+        for (int player = 0; player < 2; player++) {
+            boards[player] = placeShips(this.seats[player], random.split());
+        }
+        GameEngine engine = new GameEngine(boards[GameEngine.FIRST], boards[GameEngine.SECOND]);
+        int[] shots = new int[2];
+        while (!engine.isOver()) {
+            long turnStart = EngineMetrics.ENABLED ? System.nanoTime() : 0;
+            int player = engine.getTurn();
+            Seat seat = this.seats[player];
+            GameBoard target = engine.getTargetBoard();
+            GameBoard view = PublicView.of(target);
+            Integer chosen = call(seat, () -> {
+                for (Shot shot = seat.results.poll(); shot != null; shot = seat.results.poll()) {
+                    seat.bot.onResult(shot.cell(), shot.status());
+                }
+                return seat.bot.nextShot(view);
+            });
+            int cell;
+            if (chosen != null && isOpen(target, chosen)) {
+                cell = chosen;
+            } else {
+                seat.fallbacks++;
+                cell = fallbackShot(target, random);
+            }
+            ShotResult result = engine.fire(cell);
+            seat.results.add(new Shot(cell, result.getStatus()));
+            shots[player]++;
+            if (EngineMetrics.ENABLED) {
+                EngineMetrics.recordTurn(System.nanoTime() - turnStart);
+            }
+        }
+        return new MatchResult(new String[]{this.seats[0].bot.getName(), this.seats[1].bot.getName()},
+                engine.getWinner(), shots,
+                new int[]{this.seats[0].fallbacks, this.seats[1].fallbacks}, System.nanoTime() - start);
+    }
+
+    /***
+     * Просит бота расставить флот на новой доске. Длины поставленных кораблей
+     * считает слушатель доски; расстановка принимается, только если они как
+     * мультимножество совпадают с флотом конфигурации. Если расстановка не
+     * удалась или не совпадает с флотом, флот расставляется случайно на другой
+     * доске: просроченный бот может продолжать ставить корабли на свою.
+     */
+    private GameBoard placeShips(Seat seat, SplittableRandom random) throws InterruptedException {
+        GameBoard board = this.config.createBoard();
+        FleetCounter counter = new FleetCounter(this.config.getSize());
+        board.addListener(counter);
+        SplittableRandom botRandom = random.split();
+        Boolean placed = call(seat, () -> {
+            seat.bot.placeShips(board, this.config, botRandom);
+            return Boolean.TRUE;
+        });
+        // future.get упорядочивает записи слушателя в потоке бота перед этим чтением.
+        if (placed != null && counter.matches(this.config)) {
+            board.removeListener(counter);
+            return board;
+        }
+        seat.fallbacks++;
+        GameBoard fallback = this.config.createBoard();
+        Placements.random(fallback, this.config, random);
+        return fallback;
+    }
+
+    /***
+     * Выполняет действие бота в потоке исполнителя и ждет его не дольше бюджета.
+     * @return результат действия или null, если бот занят предыдущим вызовом, не
+     * уложился в бюджет или бросил исключение.
+     * @throws InterruptedException если поток партии прерван.
+     */
+    private <T> T call(Seat seat, Callable<T> action) throws InterruptedException {
+        if (seat.busy) {
+            return null;
+        }
+        seat.busy = true;
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            this.executor.execute(() -> seat.run(action, future));
+        } catch (RejectedExecutionException e) {
+            seat.busy = false;
+            throw e;
+        }
+        try {
+            return future.get(this.budgetNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            seat.interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private static boolean isOpen(GameBoard target, int cell) {
+        return cell >= 0 && cell < target.getSize() * target.getSize()
+                && target.getPublicStatus(cell) == Cell.Status.EMPTY;
+    }
+
+    /***
+     * Первая неатакованная клетка начиная со случайной. Игра не окончена, поэтому
+     * на доске есть целая часть корабля и такая клетка найдется.
+     */
+    private static int fallbackShot(GameBoard target, SplittableRandom random) {
+        int cells = target.getSize() * target.getSize();
+        int start = random.nextInt(cells);
+        for (int i = 0; i < cells; i++) {
+            int cell = (start + i) % cells;
+            if (target.getPublicStatus(cell) == Cell.Status.EMPTY) {
+                return cell;
+            }
+        }
+        throw new IllegalStateException("На доске нет неатакованных клеток");
+    }
+
+    /***
+     * Слушатель, считающий поставленные на доску корабли по длинам.
+     */
+    private static final class FleetCounter implements BoardListener {
+
+        /***
+         * Количество кораблей каждой длины; длина не больше размера доски.
+         */
+        private final int[] counts;
+
+        private FleetCounter(int size) {
+            this.counts = new int[size + 1];
+        }
+
+        @Override
+        public void shipPlaced(int length, int cell, boolean vertical) {
+            this.counts[length]++;
+        }
+
+        @Override
+        public void attacked(int cell, Cell.Status status) {
+        }
+
+        @Override
+        public void cleared() {
+            Arrays.fill(this.counts, 0);
+        }
+
+        /***
+         * @return true, если на доске ровно корабли флота конфигурации.
+         */
+        private boolean matches(GameConfig config) {
+            for (int length = 1; length < this.counts.length; length++) {
+                if (this.counts[length] != config.countShips(length)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /***
+     * Результат выстрела, ожидающий доставки боту.
+     */
+    private record Shot(int cell, Cell.Status status) {
+    }
+
+    /***
+     * Бот и состояние его вызовов.
+     */
+    private static final class Seat {
+
+        private final Bot bot;
+        private final Queue<Shot> results = new ConcurrentLinkedQueue<>();
+        /***
+         * Выполняется ли вызов бота. Сбрасывается потоком бота по завершении вызова.
+         */
+        private volatile boolean busy;
+        /***
+         * Поток выполняющегося вызова или null.
+         */
+        private Thread thread;
+        /***
+         * Количество запасных ходов, сделанных за бота.
+         */
+        private int fallbacks;
+
+        private Seat(Bot bot) {
+            this.bot = bot;
+        }
+
+        /***
+         * Выполняет вызов в потоке исполнителя. Признак занятости снимается до
+         * завершения future, чтобы поток партии, дождавшись результата, мог сразу
+         * вызвать бота снова.
+         */
+        private <T> void run(Callable<T> action, CompletableFuture<T> future) {
+            synchronized (this) {
+                this.thread = Thread.currentThread();
+            }
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = action.call();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                synchronized (this) {
+                    this.thread = null;
+                    // поток исполнителя может быть переиспользован: снимаем прерывание,
+                    // предназначенное этому вызову.
+                    Thread.interrupted();
+                }
+                this.busy = false;
+            }
+            if (failure == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+
+        /***
+         * Прерывает выполняющийся вызов, если он еще не завершился.
+         */
+        private synchronized void interrupt() {
+            if (this.thread != null) {
+                this.thread.interrupt();
+            }
+        }
+    }
+
+}
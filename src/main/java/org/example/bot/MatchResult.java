@@ -0,0 +1,72 @@
+package org.example.bot;
+
+/***
+ * Итог партии двух ботов.
+ * Боты обозначаются номерами игроков: GameEngine.FIRST и GameEngine.SECOND.
+ */
+public class MatchResult {
+
+    /***
+     * Названия ботов.
+     */
+    private final String[] names;
+    /***
+     * Номер победителя.
+     */
+    private final int winner;
+    /***
+     * Количество выстрелов каждого бота.
+     */
+    private final int[] shots;
+    /***
+     * Количество запасных ходов, сделанных за каждого бота, включая расстановку.
+     */
+    private final int[] fallbacks;
+    /***
+     * Время партии в наносекундах.
+     */
+    private final long elapsedNanos;
+
+    MatchResult(String[] names, int winner, int[] shots, int[] fallbacks, long elapsedNanos) {
+        this.names = names;
+        this.winner = winner;
+        this.shots = shots;
+        this.fallbacks = fallbacks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getName(int player) {
+        return this.names[player];
+    }
+
+    public int getWinner() {
+        return this.winner;
+    }
+
+    public int getShots(int player) {
+        return this.shots[player];
+    }
+
+    /***
+     * @param player номер игрока.
+     * @return количество ходов, которые бот не сделал вовремя или сделал неверно.
+     */
+    public int getFallbacks(int player) {
+        return this.fallbacks[player];
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Победитель: %s за %d выстрелов (%.3f с)%n"
+                        + "%s: выстрелов %d, запасных ходов %d%n"
+                        + "%s: выстрелов %d, запасных ходов %d",
+                this.names[this.winner], this.shots[this.winner], this.elapsedNanos / 1e9,
+                this.names[0], this.shots[0], this.fallbacks[0],
+                this.names[1], this.shots[1], this.fallbacks[1]);
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.example.bot;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/***
+ * Исполнители для вызовов ботов.
+ * Вызов бота почти все время либо короткий, либо ждет, поэтому каждому вызову
+ * выделяется свой поток. На Java 21 и новее это виртуальный поток
+ * (Executors.newVirtualThreadPerTaskExecutor), и тысячи партий в одной JVM не
+ * занимают тысячи потоков ОС. На более ранних версиях используется пул
+ * потоков-демонов без ограничения размера: зависший бот держит свой поток, но не
+ * мешает завершению JVM.
+ */
+public final class MoveExecutors {
+
+    /***
+     * Фабрика исполнителя на виртуальных потоках или null, если их нет.
+     */
+    private static final MethodHandle VIRTUAL = findVirtual();
+
+    private MoveExecutors() {
+    }
+
+    /***
+     * Создает исполнитель, который запускает каждую задачу в отдельном потоке.
+     * @return исполнитель на виртуальных потоках, если они поддерживаются, иначе
+     * пул потоков-демонов.
+     */
+    public static ExecutorService newPerMoveExecutor() {
+        if (VIRTUAL != null) {
+            try {
+                return (ExecutorService) VIRTUAL.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException("Не удалось создать исполнитель на виртуальных потоках", e);
+            }
+        }
+        AtomicInteger number = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "bot-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /***
+     * @return true - если исполнитель использует виртуальные потоки.
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL != null;
+    }
+
+    private static MethodHandle findVirtual() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+}
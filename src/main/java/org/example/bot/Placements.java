@@ -0,0 +1,81 @@
+package org.example.bot;
+
+import org.example.board.Board;
+import org.example.board.GameBoard;
+import org.example.component.GameConfig;
+import org.example.exception.CoordinateIsInvalidException;
+import org.example.exception.ShipPlacementInvalidException;
+import org.example.placement.FleetGenerator;
+import org.example.ship.Ship;
+
+import java.util.SplittableRandom;
+
+/***
+ * Случайная расстановка флота, которая используется вместо расстановки бота.
+ */
+final class Placements {
+
+    /***
+     * Количество попыток расставить флот, после которых доска признается слишком
+     * тесной для него.
+     */
+    private static final int ATTEMPTS = 1_000;
+
+    private Placements() {
+    }
+
+    /***
+     * Очищает доску и расставляет на ней флот. Стандартная доска заполняется
+     * FleetGenerator. На остальных досках корабли ставятся по очереди: для
+     * каждого ищется первая допустимая позиция начиная со случайной клетки.
+     * @param board доска размера config.getSize().
+     * @param config размер доски и состав флота.
+     * @param random генератор случайных чисел.
+     * @throws IllegalStateException если флот не удалось расставить.
+     */
+    static void random(GameBoard board, GameConfig config, SplittableRandom random) {
+        int[] fleet = new int[config.getShipCount()];
+        for (int i = 0; i < fleet.length; i++) {
+            fleet[i] = config.getShipLength(i);
+        }
+        if (board instanceof Board dense && board.getSize() == Board.SIZE) {
+            new FleetGenerator(fleet, FleetGenerator.Mode.FAST).place(dense, random);
+            return;
+        }
+        int cells = board.getSize() * board.getSize();
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            board.clear();
+            if (tryPlace(board, fleet, cells, random)) {
+                return;
+            }
+        }
+        throw new IllegalStateException("Не удалось расставить флот " + config);
+    }
+
+    private static boolean tryPlace(GameBoard board, int[] fleet, int cells, SplittableRandom random) {
+        for (int length : fleet) {
+            int start = random.nextInt(cells);
+            boolean vertical = random.nextBoolean();
+            int placed = -1;
+            for (int i = 0; i < cells && placed < 0; i++) {
+                int cell = (start + i) % cells;
+                if (board.canPlace(length, cell, vertical)) {
+                    placed = cell;
+                } else if (board.canPlace(length, cell, !vertical)) {
+                    placed = cell;
+                    vertical = !vertical;
+                }
+            }
+            if (placed < 0) {
+                return false;
+            }
+            try {
+                board.addShip(Ship.ofLength(length), placed, vertical);
+            } catch (CoordinateIsInvalidException | ShipPlacementInvalidException e) {
+                throw new IllegalStateException("Проверенная позиция отклонена доской", e);
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,51 @@
+package org.example.bot;
+
+import org.example.ai.Strategy;
+import org.example.board.Board;
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+import org.example.component.GameConfig;
+
+import java.util.SplittableRandom;
+
+/***
+ * Бот, который стреляет по стратегии Strategy и расставляет флот случайно.
+ * Стратегии рассчитаны на стандартную доску, поэтому бот играет только на ней.
+ */
+public class StrategyBot implements Bot {
+
+    private final Strategy strategy;
+
+    public StrategyBot(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public String getName() {
+        return this.strategy.getName();
+    }
+
+    /***
+     * Расставляет флот случайно и готовит стратегию к новой партии.
+     * @throws IllegalArgumentException если доска не стандартного размера.
+     */
+    @Override
+    public void placeShips(GameBoard board, GameConfig config, SplittableRandom random) {
+        if (board.getSize() != Board.SIZE) {
+            throw new IllegalArgumentException("Стратегии работают только со стандартной доской");
+        }
+        Placements.random(board, config, random);
+        this.strategy.reset(random);
+    }
+
+    @Override
+    public int nextShot(GameBoard target) {
+        return this.strategy.nextShot(target);
+    }
+
+    @Override
+    public void onResult(int cell, Cell.Status status) {
+        this.strategy.onResult(cell, status);
+    }
+
+}
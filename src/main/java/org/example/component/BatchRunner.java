@@ -0,0 +1,66 @@
+package org.example.component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/***
+ * Проигрывание записанных сценариев партий подряд, например для регрессионных
+ * проверок.
+ * Сценарий - файл с тем же вводом, что набирают игроки в консольной игре: имена,
+ * координаты кораблей и выстрелов. Партии играются без вывода и отрисовки досок,
+ * а в отчет для каждого сценария попадает одна строка с победителем и числом
+ * выстрелов или с причиной, по которой партия не завершилась.
+ */
+public class BatchRunner {
+
+    private final GameConfig config;
+
+    /***
+     * @param config размер доски и состав флота всех сценариев.
+     */
+    public BatchRunner(GameConfig config) {
+        this.config = config;
+    }
+
+    /***
+     * Проигрывает сценарий или все файлы каталога в порядке имен.
+     * @param path файл сценария или каталог со сценариями.
+     * @param report поток для отчета.
+     * @return количество завершенных партий.
+     * @throws IOException если сценарий не удалось прочитать.
+     */
+    public int run(Path path, PrintStream report) throws IOException {
+        List<Path> scripts;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.list(path)) {
+                scripts = files.filter(Files::isRegularFile).sorted().toList();
+            }
+        } else {
+            scripts = List.of(path);
+        }
+        long start = System.nanoTime();
+        int finished = 0;
+        for (Path script : scripts) {
+            String result;
+            try (InputStream input = Files.newInputStream(script)) {
+                Game game = new Game(new TokenReader(input), this.config, null, null);
+                game.play();
+                result = "победитель " + game.getWinner().getName() + ", выстрелов: " + game.getShots();
+                finished++;
+            } catch (NoSuchElementException e) {
+                result = "сценарий закончился до конца партии";
+            }
+            report.println(script.getFileName() + ": " + result);
+        }
+        report.printf("Сценариев: %d, завершено партий: %d за %.3f с%n",
+                scripts.size(), finished, (System.nanoTime() - start) / 1e9);
+        return finished;
+    }
+
+}
@@ -1,24 +1,49 @@
 package org.example.component;
 
+import org.example.archive.ArchiveWriter;
+import org.example.archive.GameRecord;
 import org.example.board.Board;
+import org.example.board.BoardRenderer;
 import org.example.board.Cell;
+import org.example.board.GameBoard;
+import org.example.engine.GameEngine;
+import org.example.engine.ShotResult;
 import org.example.exception.CoordinateIsInvalidException;
 import org.example.exception.InvalidCoordinatesCountException;
 import org.example.exception.ShipPlacementInvalidException;
-import org.example.ship.*;
+import org.example.metrics.EngineMetrics;
+import org.example.ship.Ship;
 
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.PrintStream;
 
 /***
  * Игра морской бой.
- * Содержит двух игроков. Позволяет указать откуда читать данные. Определяет чья очередь атаковать.
+ * Содержит двух игроков. Позволяет указать откуда читать данные.
+ * Консольная оболочка над GameEngine: читает координаты из входного потока и
+ * выводит доски и результаты выстрелов, а правила и очередь хода определяет движок.
+ * Размер доски, состав флота и режим залпов задаются параметрами GameConfig.
+ * Вывод можно отключить: так сценарии партий проигрываются без отрисовки досок.
  */
 public class Game {
 
     /***
-     * Входной поток в виде сканера.
+     * Названия кораблей в родительном падеже по длине.
      */
-    private final Scanner input;
+    private static final String[] SHIP_NAMES = {"", "торпедного катера", "эсминца", "крейсера", "линкора"};
+
+    /***
+     * Входной поток, разбитый на слова.
+     */
+    private final TokenReader input;
+    /***
+     * Поток вывода или null, если игра идет без вывода.
+     */
+    private final PrintStream out;
+    /***
+     * Размер доски и состав флота.
+     */
+    private final GameConfig config;
     /***
      * Первый игрок.
      */
@@ -28,13 +53,58 @@ public class Game {
      */
     private Player player2;
     /***
-     * Очередь делать ход. 0 - первого игрока, 1 - второго.
+     * Движок текущей партии.
+     */
+    private GameEngine engine;
+    /***
+     * Открытые виды досок игроков, которые видит противник.
+     */
+    private final BoardRenderer[] publicViews = new BoardRenderer[2];
+
+    /***
+     * Архив для сыгранной партии или null и запись текущей партии.
+     * Архив хранит партии на стандартной доске по одному выстрелу за ход, поэтому
+     * партии других размеров и партии залпами не записываются.
+     */
+    private final ArchiveWriter archive;
+    private final GameRecord record = new GameRecord();
+    /***
+     * Количество выстрелов в партии.
+     */
+    private int shots;
+
+    public Game(TokenReader input) {
+        this(input, null);
+    }
+
+    /***
+     * @param input входной поток.
+     * @param archive архив, в который записывается партия после окончания, или null.
      */
-    private int turn;
+    public Game(TokenReader input, ArchiveWriter archive) {
+        this(input, GameConfig.STANDARD, archive);
+    }
 
-    public Game(Scanner input) {
-        this.turn = 0;
+    /***
+     * @param input входной поток.
+     * @param config размер доски и состав флота.
+     * @param archive архив для партий на стандартной доске или null.
+     */
+    public Game(TokenReader input, GameConfig config, ArchiveWriter archive) {
+        this(input, config, archive, System.out);
+    }
+
+    /***
+     * @param input входной поток.
+     * @param config размер доски и состав флота.
+     * @param archive архив для партий на стандартной доске или null.
+     * @param out поток вывода или null, чтобы играть без вывода и отрисовки досок.
+     */
+    public Game(TokenReader input, GameConfig config, ArchiveWriter archive, PrintStream out) {
         this.input = input;
+        this.config = config;
+        this.archive = config.getSize() == Board.SIZE && !config.isSalvo() ? archive : null;
+        this.out = out;
     }
 
     /***
@@ -43,129 +113,178 @@ public class Game {
     public void play() {
         createPlayers();
 
-        Board board1 = new Board();
-        Board board2 = new Board();
-        System.out.println(player1.getName() + ", ваш черед расставлять корабли!");
+        GameBoard board1 = this.config.createBoard();
+        GameBoard board2 = this.config.createBoard();
+        println(player1.getName() + ", ваш черед расставлять корабли!");
         player1.setBoard(placeShips(board1));
-        System.out.println(player2.getName() + ", ваш черед расставлять корабли!");
+        println(player2.getName() + ", ваш черед расставлять корабли!");
         player2.setBoard(placeShips(board2));
 
-        while (board1.getLives() > 0 && board2.getLives() > 0) {
-            if (turn == 0) {
-                System.out.println(player1.getName() + ", твой ход!");
-                animateAttackAndUpdateTurn(board2);
+        this.engine = new GameEngine(board1, board2);
+        if (this.out != null) {
+            this.publicViews[GameEngine.FIRST] = new BoardRenderer(board1, true);
+            this.publicViews[GameEngine.SECOND] = new BoardRenderer(board2, true);
+        }
+        if (this.archive != null) {
+            this.record.start((Board) board1, (Board) board2);
+        }
+        while (!this.engine.isOver()) {
+            if (this.engine.getTurn() == GameEngine.FIRST) {
+                println(player1.getName() + ", твой ход!");
             } else {
-                System.out.println(player2.getName() + ", твой ход!");
-                animateAttackAndUpdateTurn(board1);
+                println(player2.getName() + ", твой ход!");
             }
+            animateAttack();
         }
         defineAndDisplayWinner();
     }
 
     public void showInstructions() {
-        System.out.println("Добро пожаловать в Морской бой!");
-        System.out.println("\nКоординаты точек вводите последовательно в виде \"буквацифра\"");
-        System.out.println("\tВерно: a7 a8 a9");
-        System.out.println("\tНеверно: a7 a9 a8");
-        System.out.println("\tНеверно: 7a 8a 9a");
-        System.out.println("\nОбозначения: ");
-        System.out.println("\tПусто: -");
-        System.out.println("\tКорабль: ●");
-        System.out.println("\tПромах: ○");
-        System.out.println("\tПопадание: -");
-        System.out.println("\tПотопленный корабль: X");
-        System.out.println("\nОбратите внимание, что X отмечается лишь часть корабля, после попадания в которую он был потоплен.\n");
+        println("Добро пожаловать в Морской бой!");
+        println("\nКоординаты точек вводите последовательно в виде \"буквацифра\"");
+        println("\tВерно: a7 a8 a9");
+        println("\tНеверно: a7 a9 a8");
+        println("\tНеверно: 7a 8a 9a");
+        println("На больших досках после a..z идут строки aa, ab и так далее, а столбцы нумеруются числами: ab12");
+        println("\nОбозначения: ");
+        println("\tПусто: -");
+        println("\tКорабль: ●");
+        println("\tПромах: ○");
+        println("\tПопадание: -");
+        println("\tПотопленный корабль: X");
+        println("\nПотопленный корабль целиком отмечается X, а клетки вокруг него - как промахи: кораблей там быть не может.\n");
     }
 
     /***
      * Предлагает игрокам представиться. Для ввода использует входной поток this.input.
      */
     private void createPlayers() {
-        System.out.print("Укажите имя первого игрока: ");
+        print("Укажите имя первого игрока: ");
         this.player1 = new Player(this.input.nextLine());
-        System.out.print("Введите имя второго игрока: ");
+        print("Введите имя второго игрока: ");
         this.player2 = new Player(this.input.nextLine());
     }
 
     /***
-     * Определяет победителя в конце игры.
+     * Определяет победителя в конце игры и записывает партию в архив, если он задан.
      */
     private void defineAndDisplayWinner() {
-        if (this.player1.getBoard().getLives() <= 0) {
-            System.out.print("Победитель: !!! " + this.player2.getName() + " !!!");
+        if (this.engine.getWinner() == GameEngine.SECOND) {
+            print("Победитель: !!! " + this.player2.getName() + " !!!");
         } else {
-            System.out.print("Победитель: !!! " + this.player1.getName() + " !!!");
+            print("Победитель: !!! " + this.player1.getName() + " !!!");
+        }
+        if (this.archive != null) {
+            this.record.finish(this.engine.getWinner());
+            try {
+                this.archive.write(this.record);
+            } catch (IOException e) {
+                print("\nНе удалось сохранить партию в архив: " + e.getMessage());
+            }
         }
     }
 
     /***
-     * Выводит сообщение о результате атаки.
+     * Выводит доску противника и сообщение о результате атаки.
      * Если было попадание по кораблю противника, то игрок делает еще ход, пока не промахнется.
-     * Если был совершен промах, то передает очередь следующему игроку.
-     * @param board доска которую нужно атаковать.
+     * Если был совершен промах, то движок передает очередь следующему игроку.
      */
-    private void animateAttackAndUpdateTurn(Board board) {
-        System.out.println(board.displayBoard(true));
-        switch (attackWithRetries(board)) {
-            case HIT -> {
-                System.out.println("Есть попадание!");
-            }
-            case SUNKEN -> {
-                System.out.println("Уничтожен!");
+    private void animateAttack() {
+        show(this.publicViews[1 - this.engine.getTurn()]);
+        if (this.config.isSalvo()) {
+            salvoWithRetries();
+            return;
+        }
+        long start = EngineMetrics.ENABLED ? System.nanoTime() : 0;
+        ShotResult result = attackWithRetries();
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.recordTurn(System.nanoTime() - start);
+        }
+        println(describe(result.getStatus()));
+    }
+
+    private static String describe(Cell.Status status) {
+        return switch (status) {
+            case HIT -> "Есть попадание!";
+            case SUNKEN -> "Уничтожен!";
+            default -> "Промах!";
+        };
+    }
+
+    /***
+     * Предлагает игроку указать координаты залпа - по точке за каждый его
+     * непотопленный корабль, пока все координаты не будут введены без ошибок.
+     * Залп применяется к доске противника одним вызовом, после чего выводится
+     * результат каждого выстрела, а ход переходит к противнику.
+     */
+    private void salvoWithRetries() {
+        long start = EngineMetrics.ENABLED ? System.nanoTime() : 0;
+        GameBoard target = this.engine.getTargetBoard();
+        int[] cells = new int[this.engine.getSalvoSize()];
+        print("Введите координаты " + cells.length + " точек для залпа: ");
+        while (true) {
+            String[] coordinates = getCoordinatesFromInput(cells.length);
+            boolean valid = true;
+            for (int i = 0; i < cells.length && valid; i++) {
+                cells[i] = target.parseCell(coordinates[i]);
+                valid = cells[i] != GameBoard.INVALID_CELL;
             }
-            default -> {
-                System.out.println("Промах!");
-                this.turn = (this.turn + 1) % 2;
+            if (valid) {
+                break;
             }
+            print("Введено неверное значение координаты. Повторите залп: ");
+        }
+        Cell.Status[] results = new Cell.Status[cells.length];
+        this.engine.fireSalvo(cells, results);
+        this.shots += cells.length;
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.recordTurn(System.nanoTime() - start);
+        }
+        for (int i = 0; i < cells.length; i++) {
+            println(target.toCoordinate(cells[i]) + ": " + describe(results[i]));
         }
     }
 
     /***
      * Предлагает игроку указать координаты для атаки, пока он не введет их без ошибок.
-     * @param board доска которую нужно атаковать.
-     * @return результат атаки квадрата: HIT, MISS или SUNKEN.
+     * @return результат выстрела.
      */
-    private Cell.Status attackWithRetries(Board board) {
-        System.out.print("Введите координаты точки для атаки: ");
+    private ShotResult attackWithRetries() {
+        print("Введите координаты точки для атаки: ");
         while (true) {
-            try {
-                return board.attack(getCoordinatesFromInput(1)[0]);
-            } catch (CoordinateIsInvalidException e) {
-                System.out.print("Введено неверное значение координаты. Повторите попытку: ");
+            int cell = this.engine.getTargetBoard().parseCell(getCoordinatesFromInput(1)[0]);
+            if (cell != GameBoard.INVALID_CELL) {
+                ShotResult result = this.engine.fire(cell);
+                this.shots++;
+                if (this.archive != null) {
+                    this.record.shot(cell, result.getStatus());
+                }
+                return result;
             }
+            print("Введено неверное значение координаты. Повторите попытку: ");
         }
     }
 
     /***
-     * Предлагает игроку разместить все корабли на доске.
-     * Это: 1 линкор (4 клетки), два крейсера (3 клетки), три эсминца (2 клетки),
-     * четыре торпедных катера (1 клетка).
+     * Предлагает игроку разместить все корабли флота на доске в порядке GameConfig.
+     * В стандартной партии это: 1 линкор (4 клетки), два крейсера (3 клетки),
+     * три эсминца (2 клетки), четыре торпедных катера (1 клетка).
      * @param board доска которую нужно атаковать.
      * @return доску с размещенными кораблями.
      */
-    private Board placeShips(Board board) {
-        System.out.println(board.displayBoard(false));
-        System.out.print("Введите координаты 4-ёх точек для постановки линкора: ");
-        addShipToBoardWithRetries(board, new Battleship());
-
-        for (int i = 1; i <= 2; i++) {
-            System.out.println(board.displayBoard(false));
-            System.out.print("Введите координаты 3-ёх точек для постановки " + i + "-го крейсера: ");
-            addShipToBoardWithRetries(board, new Cruiser());
-        }
-
-        for (int i = 1; i <= 3; i++) {
-            System.out.println(board.displayBoard(false));
-            System.out.print("Введите координаты 2-ух точек для постановки " + i + "-го эсминца: ");
-            addShipToBoardWithRetries(board, new Destroyer());
+    private GameBoard placeShips(GameBoard board) {
+        BoardRenderer view = this.out == null ? null : new BoardRenderer(board, false);
+        int[] numbers = new int[SHIP_NAMES.length];
+        for (int i = 0; i < this.config.getShipCount(); i++) {
+            int length = this.config.getShipLength(i);
+            int number = ++numbers[length];
+            String points = length == 1 ? "точки" : length + (length == 2 ? "-ух" : "-ёх") + " точек";
+            String order = this.config.countShips(length) == 1 ? "" : number + "-го ";
+            show(view);
+            print("Введите координаты " + points + " для постановки " + order + SHIP_NAMES[length] + ": ");
+            addShipToBoardWithRetries(board, Ship.ofLength(length));
         }
-
-        for (int i = 1; i <= 4; i++) {
-            System.out.println(board.displayBoard(false));
-            System.out.print("Введите координаты точки для постановки " + i + "-го торпедного катера: ");
-            addShipToBoardWithRetries(board, new TorpedoBoat());
-        }
-        System.out.println(board.displayBoard(false));
+        show(view);
         return board;
     }
 
@@ -187,20 +306,59 @@ public class Game {
      * @param board доска, на которую нужно добавить корабль.
      * @param ship корабль, который нужно добавить.
      */
-    private void addShipToBoardWithRetries(Board board, Ship ship) {
+    private void addShipToBoardWithRetries(GameBoard board, Ship ship) {
         boolean valid = false;
         while (!valid) {
             try {
                 board.addShip(ship, getCoordinatesFromInput(ship.getLength()));
                 valid = true;
             } catch (InvalidCoordinatesCountException e) {
-                System.out.print("Введено неверное количество координат. Повторите попытку: ");
+                print("Введено неверное количество координат. Повторите попытку: ");
             } catch (CoordinateIsInvalidException e) {
-                System.out.print("Введено неверное значение координаты. Повторите попытку: ");
+                print("Введено неверное значение координаты. Повторите попытку: ");
             } catch (ShipPlacementInvalidException e) {
-                System.out.print("Корабль не может быть поставлен по переданным координатам. Повторите попытку: ");
+                print("Корабль не может быть поставлен по переданным координатам. Повторите попытку: ");
             }
         }
     }
 
+    /***
+     * Победитель партии.
+     * @return победивший игрок или null, если партия не окончена.
+     */
+    public Player getWinner() {
+        if (this.engine == null || !this.engine.isOver()) {
+            return null;
+        }
+        return this.engine.getWinner() == GameEngine.SECOND ? this.player2 : this.player1;
+    }
+
+    /***
+     * @return количество выстрелов обоих игроков в партии.
+     */
+    public int getShots() {
+        return this.shots;
+    }
+
+    private void print(String text) {
+        if (this.out != null) {
+            this.out.print(text);
+        }
+    }
+
+    private void println(String text) {
+        if (this.out != null) {
+            this.out.println(text);
+        }
+    }
+
+    /***
+     * Выводит кадр доски; без вывода доска не отрисовывается.
+     */
+    private void show(BoardRenderer view) {
+        if (this.out != null) {
+            this.out.println(view.render());
+        }
+    }
+
 }
@@ -0,0 +1,145 @@
+package org.example.component;
+
+import org.example.board.Board;
+import org.example.board.GameBoard;
+import org.example.board.SparseBoard;
+import org.example.ship.Ship;
+
+import java.util.Arrays;
+
+/***
+ * Параметры партии: размер доски и состав флота.
+ * Флот задается длинами кораблей в порядке расстановки. В режиме залпов игрок
+ * за ход делает столько выстрелов, сколько у него непотопленных кораблей, и
+ * после залпа ход всегда переходит к противнику. Доски размером до
+ * DENSE_LIMIT создаются как Board с битовыми плоскостями, большие - как SparseBoard,
+ * память которой зависит от количества кораблей и ударов, а не от площади.
+ */
+public final class GameConfig {
+
+    /***
+     * Наибольший размер доски, для которой создается Board.
+     */
+    public static final int DENSE_LIMIT = Board.MAX_DENSE_SIZE;
+    /***
+     * Стандартная партия: доска 10x10, 1 линкор (4 клетки), два крейсера
+     * (3 клетки), три эсминца (2 клетки), четыре торпедных катера (1 клетка).
+     */
+    public static final GameConfig STANDARD = new GameConfig(Board.SIZE, 4, 3, 3, 2, 2, 2, 1, 1, 1, 1);
+
+    private final int size;
+    private final int[] fleet;
+    /***
+     * Режим залпов.
+     */
+    private final boolean salvo;
+
+    /***
+     * @param size количество строк и столбцов доски.
+     * @param fleet длины кораблей в порядке расстановки: от 1 до 4.
+     * @throws IllegalArgumentException если размер доски неверен, флот пуст,
+     * корабля такой длины нет, он не помещается на доске или кораблей больше,
+     * чем может поместиться.
+     */
+    public GameConfig(int size, int... fleet) {
+        if (size < 1 || size > GameBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("Неверный размер доски: " + size);
+        }
+        if (fleet.length == 0 || fleet.length > ((size + 1) / 2) * ((size + 1) / 2)) {
+            throw new IllegalArgumentException("Неверное количество кораблей: " + fleet.length);
+        }
+        for (int length : fleet) {
+            Ship.ofLength(length);
+            if (length > size) {
+                throw new IllegalArgumentException("Корабль длины " + length + " не помещается на доске");
+            }
+        }
+        this.size = size;
+        this.fleet = fleet.clone();
+        this.salvo = false;
+    }
+
+    private GameConfig(GameConfig config, boolean salvo) {
+        this.size = config.size;
+        this.fleet = config.fleet;
+        this.salvo = salvo;
+    }
+
+    /***
+     * @return те же параметры в режиме залпов.
+     */
+    public GameConfig withSalvo() {
+        return this.salvo ? this : new GameConfig(this, true);
+    }
+
+    /***
+     * Разбирает параметры из командной строки.
+     * @param size размер доски, например "1000".
+     * @param fleet длины кораблей через запятую, например "4,3,3,2", или null для
+     * стандартного флота.
+     * @return параметры партии.
+     * @throws IllegalArgumentException если параметры неверны.
+     */
+    public static GameConfig parse(String size, String fleet) {
+        if (fleet == null) {
+            return new GameConfig(Integer.parseInt(size), STANDARD.fleet);
+        }
+        String[] lengths = fleet.split(",");
+        int[] parsed = new int[lengths.length];
+        for (int i = 0; i < lengths.length; i++) {
+            parsed[i] = Integer.parseInt(lengths[i].trim());
+        }
+        return new GameConfig(Integer.parseInt(size), parsed);
+    }
+
+    /***
+     * Создает пустую доску подходящего для размера вида.
+     * @return Board для досок до DENSE_LIMIT, иначе SparseBoard.
+     */
+    public GameBoard createBoard() {
+        return this.size <= DENSE_LIMIT ? new Board(this.size) : new SparseBoard(this.size);
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public boolean isSalvo() {
+        return this.salvo;
+    }
+
+    /***
+     * @return количество кораблей во флоте.
+     */
+    public int getShipCount() {
+        return this.fleet.length;
+    }
+
+    /***
+     * @param index номер корабля в порядке расстановки.
+     * @return длина корабля.
+     */
+    public int getShipLength(int index) {
+        return this.fleet[index];
+    }
+
+    /***
+     * @param length длина корабля.
+     * @return количество кораблей такой длины во флоте.
+     */
+    public int countShips(int length) {
+        int count = 0;
+        for (int ship : this.fleet) {
+            if (ship == length) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return this.size + "x" + this.size + " " + Arrays.toString(this.fleet) + (this.salvo ? " залпами" : "");
+    }
+
+}
@@ -1,36 +1,54 @@
 package org.example.component;
 
-import org.example.board.Board;
+import org.example.board.GameBoard;
 
 /***
  * Сущность игрока.
  * Каждый игрок имеет имя, по которому к нему можно обращаться.
  * За каждым игроком закреплена доска, на которой расположены его корабли.
+ * Рейтинг игрока используется при подборе соперника.
  */
 public class Player {
 
+    /***
+     * Рейтинг нового игрока.
+     */
+    public static final int DEFAULT_RATING = 1500;
     /***
      * Имя игрока.
      */
     private final String name;
+    /***
+     * Рейтинг игрока.
+     */
+    private final int rating;
     /***
      * Доска игрока.
      */
-    private Board board;
+    private GameBoard board;
 
     public Player(String name) {
+        this(name, DEFAULT_RATING);
+    }
+
+    public Player(String name, int rating) {
         this.name = name;
+        this.rating = rating;
     }
 
     public String getName() {
         return this.name;
     }
 
-    public Board getBoard() {
+    public int getRating() {
+        return this.rating;
+    }
+
+    public GameBoard getBoard() {
         return this.board;
     }
 
-    public void setBoard(Board board) {
+    public void setBoard(GameBoard board) {
         this.board = board;
     }
 
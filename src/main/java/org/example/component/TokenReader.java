@@ -0,0 +1,145 @@
+package org.example.component;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/***
+ * Чтение слов и строк из входного потока вместо java.util.Scanner.
+ * Scanner разбирает вход регулярными выражениями и декодирует его посимвольно, а
+ * игре нужны только слова, разделенные пробельными символами, и целые строки.
+ * TokenReader читает байты блоками в свой буфер и ищет границы слов сравнением
+ * байтов: разделителями считаются байты с кодом не больше пробела. В строку
+ * UTF-8 декодируется только найденное слово или строка.
+ * Методы next и nextLine ведут себя как одноименные методы Scanner: nextLine после
+ * next возвращает остаток текущей строки.
+ * Класс не потокобезопасен.
+ */
+public final class TokenReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int INITIAL_TOKEN = 64;
+
+    private final InputStream input;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    /***
+     * Байты текущего слова или строки.
+     */
+    private byte[] token = new byte[INITIAL_TOKEN];
+
+    /***
+     * @param input входной поток; закрывается методом close.
+     */
+    public TokenReader(InputStream input) {
+        this.input = input;
+    }
+
+    /***
+     * Создает чтение из готового текста, например сценария партии.
+     * @param text текст.
+     */
+    public TokenReader(String text) {
+        this(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /***
+     * Пропускает пробельные символы и проверяет, осталось ли во входе слово.
+     * В отличие от Scanner.hasNext пропущенные переводы строк теряются, поэтому
+     * следующий nextLine вернет строку, на которой начинается слово.
+     * @return true - если во входе есть еще слово.
+     */
+    public boolean hasNext() {
+        while (fill()) {
+            if (this.buffer[this.position] > ' ') {
+                return true;
+            }
+            this.position++;
+        }
+        return false;
+    }
+
+    /***
+     * Читает следующее слово.
+     * @return слово без пробельных символов.
+     * @throws NoSuchElementException если вход закончился.
+     */
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Вход закончился");
+        }
+        int length = 0;
+        while (fill() && this.buffer[this.position] > ' ') {
+            length = append(length, this.buffer[this.position++]);
+        }
+        return new String(this.token, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /***
+     * Читает остаток текущей строки.
+     * @return строка без завершающего перевода строки ("\n" или "\r\n").
+     * @throws NoSuchElementException если вход закончился.
+     */
+    public String nextLine() {
+        if (!fill()) {
+            throw new NoSuchElementException("Вход закончился");
+        }
+        int length = 0;
+        while (fill()) {
+            byte b = this.buffer[this.position++];
+            if (b == '\n') {
+                break;
+            }
+            length = append(length, b);
+        }
+        if (length > 0 && this.token[length - 1] == '\r') {
+            length--;
+        }
+        return new String(this.token, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.input.close();
+    }
+
+    /***
+     * Дочитывает вход в буфер, если непрочитанных байтов не осталось.
+     * @return true - если в буфере есть непрочитанный байт.
+     */
+    private boolean fill() {
+        if (this.position < this.limit) {
+            return true;
+        }
+        if (this.limit < 0) {
+            return false;
+        }
+        try {
+            int count;
+            do {
+                count = this.input.read(this.buffer, 0, this.buffer.length);
+            } while (count == 0);
+            this.position = 0;
+            this.limit = count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this.limit > 0;
+    }
+
+    private int append(int length, byte b) {
+        if (length == this.token.length) {
+            byte[] grown = new byte[2 * length];
+            System.arraycopy(this.token, 0, grown, 0, length);
+            this.token = grown;
+        }
+        this.token[length] = b;
+        return length + 1;
+    }
+
+}
@@ -0,0 +1,191 @@
+package org.example.engine;
+
+import org.example.board.GameBoard;
+import org.example.board.Cell;
+import org.example.exception.CoordinateIsInvalidException;
+import org.example.metrics.EngineMetrics;
+
+/***
+ * Движок партии морского боя без ввода-вывода.
+ * Хранит доски двух игроков и очередь хода, принимает выстрелы по номерам строки и
+ * столбца и возвращает результат в виде ShotResult. Ничего не печатает и не
+ * форматирует строки, поэтому подходит и для консольной игры, и для симуляций.
+ * Игроки обозначаются номерами FIRST и SECOND.
+ */
+public class GameEngine {
+
+    /***
+     * Номер первого игрока.
+     */
+    public static final int FIRST = 0;
+    /***
+     * Номер второго игрока.
+     */
+    public static final int SECOND = 1;
+    /***
+     * Обозначает отсутствие победителя.
+     */
+    public static final int NONE = -1;
+    /***
+     * Доски игроков: boards[FIRST] - доска первого игрока, boards[SECOND] - второго.
+     */
+    private final GameBoard[] boards;
+    /***
+     * Очередь делать ход: FIRST или SECOND.
+     */
+    private int turn;
+    /***
+     * Номер победителя или NONE, если игра продолжается.
+     */
+    private int winner;
+
+    /***
+     * Создает партию по доскам с уже расставленными кораблями. Первым ходит FIRST.
+     * @param first доска первого игрока.
+     * @param second доска второго игрока.
+     */
+    public GameEngine(GameBoard first, GameBoard second) {
+        this(first, second, FIRST);
+    }
+
+    /***
+     * Создает партию, которая продолжается с хода игрока turn, например, после
+     * восстановления досок из журнала.
+     * @param first доска первого игрока.
+     * @param second доска второго игрока.
+     * @param turn игрок, который ходит следующим: FIRST или SECOND.
+     */
+    public GameEngine(GameBoard first, GameBoard second, int turn) {
+        if (turn != FIRST && turn != SECOND) {
+            throw new IllegalArgumentException("Неверный номер игрока: " + turn);
+        }
+        if (first.getSize() != second.getSize()) {
+            throw new IllegalArgumentException("Доски игроков разного размера");
+        }
+        this.boards = new GameBoard[]{first, second};
+        this.turn = turn;
+        this.winner = NONE;
+        if (first.getLives() <= 0) {
+            this.winner = SECOND;
+        } else if (second.getLives() <= 0) {
+            this.winner = FIRST;
+        }
+    }
+
+    /***
+     * Выстрел игрока, чья сейчас очередь, по доске противника.
+     * @param row номер строки, начиная с 0.
+     * @param column номер столбца, начиная с 0.
+     * @return результат выстрела.
+     * @throws CoordinateIsInvalidException если клетка находится за пределами доски.
+     * @throws IllegalStateException если игра уже окончена.
+     * @see #fire(int)
+     */
+    public ShotResult fire(int row, int column) throws CoordinateIsInvalidException {
+        int cell = getTargetBoard().cell(row, column);
+        if (cell == GameBoard.INVALID_CELL) {
+            throw new CoordinateIsInvalidException();
+        }
+        return fire(cell);
+    }
+
+    /***
+     * Выстрел игрока, чья сейчас очередь, по доске противника.
+     * Если был совершен промах, то очередь переходит к противнику, иначе игрок
+     * стреляет еще раз.
+     * @param cell номер клетки: row * размер доски + column.
+     * @return результат выстрела.
+     * @throws IllegalArgumentException если клетка находится за пределами доски.
+     * @throws IllegalStateException если игра уже окончена.
+     */
+    public ShotResult fire(int cell) {
+        if (isOver()) {
+            throw new IllegalStateException("Игра уже окончена");
+        }
+        int shooter = this.turn;
+        GameBoard target = this.boards[1 - shooter];
+        Cell.Status status = target.attack(cell);
+        if (status == Cell.Status.MISS) {
+            this.turn = 1 - shooter;
+        }
+        if (target.getLives() <= 0) {
+            this.winner = shooter;
+            if (EngineMetrics.ENABLED) {
+                EngineMetrics.recordGameCompleted();
+            }
+        }
+        return ShotResult.of(status, shooter, this.winner != NONE);
+    }
+
+    /***
+     * Залп игрока, чья сейчас очередь, по доске противника: несколько выстрелов
+     * за один ход. После залпа очередь всегда переходит к противнику, если залп
+     * не закончил игру.
+     * @param cells номера клеток: от 1 до getSalvoSize() выстрелов.
+     * @param results массив не короче cells для результатов выстрелов.
+     * @return номер победителя или NONE, если игра продолжается.
+     * @throws IllegalArgumentException если количество выстрелов неверно или
+     * клетка находится за пределами доски.
+     * @throws IllegalStateException если игра уже окончена.
+     * @see GameBoard#attackAll(int[], Cell.Status[])
+     */
+    public int fireSalvo(int[] cells, Cell.Status[] results) {
+        if (isOver()) {
+            throw new IllegalStateException("Игра уже окончена");
+        }
+        if (cells.length == 0 || cells.length > getSalvoSize()) {
+            throw new IllegalArgumentException("Неверное количество выстрелов в залпе: " + cells.length);
+        }
+        int shooter = this.turn;
+        GameBoard target = this.boards[1 - shooter];
+        target.attackAll(cells, results);
+        if (target.getLives() <= 0) {
+            this.winner = shooter;
+            if (EngineMetrics.ENABLED) {
+                EngineMetrics.recordGameCompleted();
+            }
+        } else {
+            this.turn = 1 - shooter;
+        }
+        return this.winner;
+    }
+
+    /***
+     * Размер залпа игрока, чья сейчас очередь: по выстрелу за каждый его
+     * непотопленный корабль.
+     * @return количество выстрелов в залпе.
+     */
+    public int getSalvoSize() {
+        return this.boards[this.turn].getShipsAfloat();
+    }
+
+    public int getTurn() {
+        return this.turn;
+    }
+
+    public boolean isOver() {
+        return this.winner != NONE;
+    }
+
+    public int getWinner() {
+        return this.winner;
+    }
+
+    /***
+     * Доска игрока.
+     * @param player номер игрока: FIRST или SECOND.
+     * @return доска с кораблями игрока.
+     */
+    public GameBoard getBoard(int player) {
+        return this.boards[player];
+    }
+
+    /***
+     * Доска, по которой стреляет игрок, чья сейчас очередь.
+     * @return доска противника.
+     */
+    public GameBoard getTargetBoard() {
+        return this.boards[1 - this.turn];
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.example.engine;
+
+import org.example.board.Cell;
+
+/***
+ * Результат выстрела в партии: статус атакованной клетки, кто стрелял, чей
+ * следующий ход и завершилась ли игра.
+ * Возможных результатов немного, поэтому все они создаются заранее и
+ * переиспользуются - выстрел не порождает новых объектов.
+ */
+public final class ShotResult {
+
+    /***
+     * Заранее созданные результаты, индекс: [статус][стрелявший][игра окончена].
+     */
+    private static final ShotResult[][][] CACHE = new ShotResult[Cell.Status.values().length][2][2];
+
+    static {
+        for (Cell.Status status : Cell.Status.values()) {
+            for (int shooter = 0; shooter < 2; shooter++) {
+                CACHE[status.ordinal()][shooter][0] = new ShotResult(status, shooter, false);
+                CACHE[status.ordinal()][shooter][1] = new ShotResult(status, shooter, true);
+            }
+        }
+    }
+
+    /***
+     * Статус клетки после удара: MISS, HIT или SUNKEN.
+     */
+    private final Cell.Status status;
+    /***
+     * Номер игрока, сделавшего выстрел.
+     */
+    private final int shooter;
+    /***
+     * Признак окончания игры после выстрела.
+     */
+    private final boolean gameOver;
+
+    private ShotResult(Cell.Status status, int shooter, boolean gameOver) {
+        this.status = status;
+        this.shooter = shooter;
+        this.gameOver = gameOver;
+    }
+
+    /***
+     * Возвращает результат выстрела.
+     * @param status статус клетки после удара.
+     * @param shooter номер стрелявшего игрока.
+     * @param gameOver true - если выстрел завершил игру.
+     * @return результат выстрела.
+     */
+    static ShotResult of(Cell.Status status, int shooter, boolean gameOver) {
+        return CACHE[status.ordinal()][shooter][gameOver ? 1 : 0];
+    }
+
+    public Cell.Status getStatus() {
+        return this.status;
+    }
+
+    public int getShooter() {
+        return this.shooter;
+    }
+
+    /***
+     * Номер игрока, который делает следующий ход. После промаха ход переходит
+     * к противнику, после попадания игрок стреляет еще раз.
+     * @return номер игрока.
+     */
+    public int getNextTurn() {
+        return this.status == Cell.Status.MISS ? 1 - this.shooter : this.shooter;
+    }
+
+    public boolean isGameOver() {
+        return this.gameOver;
+    }
+
+    /***
+     * Победитель партии. Игра заканчивается только на попадании, поэтому
+     * победителем становится стрелявший.
+     * @return номер победителя или GameEngine.NONE, если игра продолжается.
+     */
+    public int getWinner() {
+        return this.gameOver ? this.shooter : GameEngine.NONE;
+    }
+
+}
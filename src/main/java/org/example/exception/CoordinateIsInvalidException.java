@@ -12,6 +12,6 @@ package org.example.exception;
 public class CoordinateIsInvalidException extends Exception {
 
     public CoordinateIsInvalidException() {
-        super();
+        super(null, null, false, false);
     }
 }
@@ -6,6 +6,6 @@ package org.example.exception;
  */
 public class InvalidCoordinatesCountException extends Exception {
     public InvalidCoordinatesCountException() {
-        super();
+        super(null, null, false, false);
     }
 }
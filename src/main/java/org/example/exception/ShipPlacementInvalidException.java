@@ -11,8 +11,28 @@ package org.example.exception;
  */
 public class ShipPlacementInvalidException extends Exception {
 
-    public ShipPlacementInvalidException() {
-        super();
+    /***
+     * Причина, по которой корабль нельзя разместить.
+     * NOT_A_LINE - координаты не образуют прямую линию или не расположены рядом,
+     * WRONG_ORDER - координаты образуют линию, но идут не по порядку,
+     * OCCUPIED - клетки заняты или рядом уже стоит корабль.
+     */
+    public enum Reason {
+        NOT_A_LINE, WRONG_ORDER, OCCUPIED
+    }
+
+    private final Reason reason;
+
+    /***
+     * @param reason причина отказа.
+     */
+    public ShipPlacementInvalidException(Reason reason) {
+        super(null, null, false, false);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return this.reason;
     }
 
 }
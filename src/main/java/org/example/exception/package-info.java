@@ -0,0 +1,8 @@
+/***
+ * Исключения ошибок ввода игрока: неверные координаты, неверное количество
+ * координат, недопустимая постановка корабля.
+ * Они сообщают об ошибке ввода, а не о сбое программы, и создаются на каждую
+ * опечатку игрока, поэтому конструкторы вызывают super(null, null, false, false):
+ * стек вызовов не заполняется, а подавленные исключения не собираются.
+ */
+package org.example.exception;
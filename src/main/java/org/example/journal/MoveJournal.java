@@ -0,0 +1,353 @@
+package org.example.journal;
+
+import org.example.board.Board;
+import org.example.board.BoardListener;
+import org.example.board.Cell;
+import org.example.engine.GameEngine;
+import org.example.exception.CoordinateIsInvalidException;
+import org.example.exception.ShipPlacementInvalidException;
+import org.example.ship.Ship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/***
+ * Журнал ходов для восстановления незавершенных партий после падения процесса.
+ * Каждая постановка корабля, удар и очистка доски записывается одной записью
+ * long в файл, отображенный в память. Запись - это резервирование места
+ * атомарным счетчиком и одна операция записи в отображенную память, поэтому
+ * Board.attack почти не замедляется, а несколько потоков пишут без блокировок.
+ * Данные, записанные в отображение, сохраняются операционной системой и при
+ * падении процесса. Для защиты от сбоя самой системы фоновый поток раз в
+ * FLUSH_INTERVAL_MILLIS сбрасывает накопленные записи на диск одним вызовом
+ * force (групповая фиксация), sync() сбрасывает их немедленно.
+ * Формат записи (старшие биты слева): номер партии (32 бита), дополнительные
+ * данные (8 бит: длина корабля и признак вертикали), клетка (8 бит), номер
+ * игрока (8 бит), тип (8 бит). Нулевой тип обозначает конец журнала.
+ * Место резервируется до записи, поэтому при падении процесса за последней
+ * сделанной записью могут остаться пустые места, а за ними - записи других
+ * потоков. При открытии журнал читается до первой пустой записи, а все, что
+ * лежит дальше, обнуляется: порядок этих записей относительно потерянной
+ * неизвестен, и новые записи не должны с ними смешаться.
+ * Размер файла задается при создании. Переполнение проверяется до хода:
+ * reserve резервирует место под записи, которые слушатель сделает при следующем
+ * изменении доски, и возвращает false, если места нет; доска в этом случае не
+ * меняется. Запись без резерва - ошибка.
+ */
+public class MoveJournal implements Closeable {
+
+    /***
+     * Размер журнала по умолчанию: 8 миллионов записей.
+     */
+    public static final int DEFAULT_CAPACITY = 64 * 1024 * 1024;
+    /***
+     * Интервал групповой фиксации.
+     */
+    public static final long FLUSH_INTERVAL_MILLIS = 10;
+    static final int RECORD = Long.BYTES;
+    static final int PLACE = 1;
+    static final int ATTACK = 2;
+    static final int CLEAR = 3;
+    static final int FINISH = 4;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    /***
+     * Позиция следующей записи и позиция, до которой журнал сброшен на диск.
+     */
+    private final AtomicLong position = new AtomicLong();
+    /***
+     * Граница зарезервированного места: позиция плюс резервы, под которые записи
+     * еще не сделаны.
+     */
+    private final AtomicLong reserved = new AtomicLong();
+    private long forced;
+    private final AtomicInteger nextGame = new AtomicInteger(1);
+    private final List<RecoveredGame> recovered = new ArrayList<>();
+    private final Thread flusher;
+    private volatile boolean open = true;
+
+    /***
+     * Открывает журнал с размером по умолчанию.
+     * @see #MoveJournal(Path, int)
+     */
+    public MoveJournal(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY);
+    }
+
+    /***
+     * Открывает или создает журнал. Если файл уже содержит записи, незавершенные
+     * партии восстанавливаются (getRecovered), а новые записи дописываются после
+     * последней.
+     * @param file файл журнала.
+     * @param capacity размер файла в байтах.
+     * @throws IOException если файл не удалось открыть или отобразить в память.
+     */
+    public MoveJournal(Path file, int capacity) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long size = Math.max(capacity, this.channel.size()) / RECORD * RECORD;
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+        replay();
+        truncate();
+        this.reserved.set(this.position.get());
+        this.forced = this.position.get();
+        this.flusher = new Thread(this::flushLoop, "journal-flush");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /***
+     * Начинает партию и резервирует место под запись о ее окончании.
+     * @return новый номер партии, не встречавшийся в журнале.
+     * @throws IllegalStateException если журнал заполнен; партию нельзя начинать.
+     */
+    public int newGame() {
+        if (!reserve(1)) {
+            throw new IllegalStateException("Журнал ходов заполнен");
+        }
+        return this.nextGame.getAndIncrement();
+    }
+
+    /***
+     * Резервирует место под записи, которые будут сделаны при следующем изменении
+     * доски: одна запись на постановку корабля, удар или очистку.
+     * @param records количество записей.
+     * @return false, если журнал заполнен; тогда ход делать нельзя.
+     */
+    public boolean reserve(int records) {
+        long bytes = (long) records * RECORD;
+        long current;
+        do {
+            current = this.reserved.get();
+            if (current + bytes > this.buffer.capacity()) {
+                return false;
+            }
+        } while (!this.reserved.compareAndSet(current, current + bytes));
+        return true;
+    }
+
+    /***
+     * Возвращает резерв, под который записи сделаны не будут, например если
+     * постановка корабля отклонена.
+     * @param records количество записей.
+     */
+    public void release(int records) {
+        this.reserved.addAndGet(-(long) records * RECORD);
+    }
+
+    /***
+     * Создает слушателя, который записывает изменения доски игрока в журнал.
+     * Слушатель нужно установить на доску до постановки кораблей:
+     * board.addListener(journal.listener(game, player)), а перед каждым ходом
+     * резервировать место под его запись (reserve). Клетка записывается в
+     * 8 бит, а партии восстанавливаются на досках Board, поэтому журнал ведется
+     * только для досок стандартного размера.
+     * @param game номер партии.
+     * @param player номер игрока: GameEngine.FIRST или GameEngine.SECOND.
+     * @return слушатель доски.
+     */
+    public BoardListener listener(int game, int player) {
+        return new BoardListener() {
+            @Override
+            public void shipPlaced(int length, int cell, boolean vertical) {
+                append(game, player, PLACE, cell, length << 1 | (vertical ? 1 : 0));
+            }
+
+            @Override
+            public void attacked(int cell, Cell.Status status) {
+                append(game, player, ATTACK, cell, 0);
+            }
+
+            @Override
+            public void cleared() {
+                append(game, player, CLEAR, 0, 0);
+            }
+        };
+    }
+
+    /***
+     * Записывает удар, который не изменил доску: повторный удар по клетке.
+     * Слушатель доски о таком ударе не узнает, но очередь хода после него
+     * определяется так же, как после первого удара по клетке (промах передает ход),
+     * и без записи восстановленная партия продолжилась бы не тем игроком.
+     * Место под запись резервируется, как для хода (reserve).
+     * @param game номер партии.
+     * @param player номер игрока, по доске которого нанесен удар.
+     * @param cell номер клетки.
+     */
+    public void repeatedAttack(int game, int player, int cell) {
+        append(game, player, ATTACK, cell, 0);
+    }
+
+    /***
+     * Отмечает, что партия окончена и восстанавливать ее не нужно. Место под
+     * запись зарезервировано в newGame.
+     * @param game номер партии.
+     */
+    public void finish(int game) {
+        append(game, 0, FINISH, 0, 0);
+    }
+
+    /***
+     * Незавершенные партии, восстановленные из журнала при открытии, в порядке
+     * начала. На восстановленные доски слушатели не установлены.
+     */
+    public List<RecoveredGame> getRecovered() {
+        return this.recovered;
+    }
+
+    /***
+     * Записывает окончание всех восстановленных партий и очищает getRecovered.
+     * Вызывается, когда восстановленные партии продолжены или продолжать их
+     * некому: иначе они восстанавливались бы при каждом открытии журнала.
+     * @return количество оконченных партий.
+     * @throws IllegalStateException если в журнале нет места под записи об окончании.
+     */
+    public int finishRecovered() {
+        int count = this.recovered.size();
+        if (count == 0) {
+            return 0;
+        }
+        if (!reserve(count)) {
+            throw new IllegalStateException("Журнал ходов заполнен");
+        }
+        for (RecoveredGame game : this.recovered) {
+            finish(game.getId());
+        }
+        this.recovered.clear();
+        return count;
+    }
+
+    /***
+     * Сбрасывает все записи на диск.
+     */
+    public synchronized void sync() {
+        long written = Math.min(this.position.get(), this.buffer.capacity());
+        if (written > this.forced) {
+            this.buffer.force();
+            this.forced = written;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.open = false;
+        this.flusher.interrupt();
+        try {
+            this.flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sync();
+        this.channel.close();
+    }
+
+    private void append(int game, int player, int type, int cell, int extra) {
+        long offset = this.position.getAndAdd(RECORD);
+        if (offset + RECORD > this.reserved.get()) {
+            throw new IllegalStateException("Запись в журнал ходов без резерва места");
+        }
+        long record = (long) game << 32 | (long) extra << 24 | (long) cell << 16 | (long) player << 8 | type;
+        this.buffer.putLong((int) offset, record);
+    }
+
+    private void flushLoop() {
+        while (this.open) {
+            try {
+                Thread.sleep(FLUSH_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            sync();
+        }
+    }
+
+    /***
+     * Читает записи от начала файла до первой пустой и воспроизводит их на досках.
+     */
+    private void replay() {
+        Map<Integer, RecoveredGame> games = new LinkedHashMap<>();
+        int maxGame = 0;
+        int offset = 0;
+        for (; offset + RECORD <= this.buffer.capacity(); offset += RECORD) {
+            long record = this.buffer.getLong(offset);
+            int type = (int) record & 0xFF;
+            if (type == 0) {
+                break;
+            }
+            int player = (int) (record >>> 8) & 0xFF;
+            int cell = (int) (record >>> 16) & 0xFF;
+            int extra = (int) (record >>> 24) & 0xFF;
+            int game = (int) (record >>> 32);
+            maxGame = Math.max(maxGame, game);
+            if (type == FINISH) {
+                games.remove(game);
+                continue;
+            }
+            RecoveredGame state = games.computeIfAbsent(game, RecoveredGame::new);
+            Board board = state.getBoards()[player];
+            switch (type) {
+                case PLACE -> {
+                    try {
+                        board.addShip(Ship.ofLength(extra >>> 1), cell, (extra & 1) != 0);
+                    } catch (CoordinateIsInvalidException | ShipPlacementInvalidException e) {
+                        throw new IllegalStateException("Журнал содержит недопустимую постановку", e);
+                    }
+                }
+                case ATTACK -> {
+                    // повторный удар доску не меняет и возвращает текущий статус клетки.
+                    if (board.attack(cell) == Cell.Status.MISS) {
+                        // после промаха ходит владелец атакованной доски.
+                        state.setTurn(player);
+                    } else {
+                        state.setTurn(1 - player);
+                    }
+                }
+                case CLEAR -> {
+                    board.clear();
+                    state.setTurn(GameEngine.FIRST);
+                }
+                default -> throw new IllegalStateException("Неизвестный тип записи журнала: " + type);
+            }
+        }
+        this.position.set(offset);
+        this.nextGame.set(maxGame + 1);
+        this.recovered.addAll(games.values());
+    }
+
+    /***
+     * Обнуляет все записи после точки восстановления и сбрасывает их на диск.
+     * Пустые слова не переписываются, чтобы не трогать страницы, в которые
+     * никогда не писали.
+     */
+    private void truncate() {
+        int start = (int) this.position.get();
+        boolean changed = false;
+        for (int offset = start; offset + RECORD <= this.buffer.capacity(); offset += RECORD) {
+            if (this.buffer.getLong(offset) != 0) {
+                this.buffer.putLong(offset, 0);
+                changed = true;
+            }
+        }
+        if (changed) {
+            this.buffer.force();
+        }
+    }
+
+}
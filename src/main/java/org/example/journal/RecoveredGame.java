@@ -0,0 +1,49 @@
+package org.example.journal;
+
+import org.example.board.Board;
+import org.example.engine.GameEngine;
+
+/***
+ * Незавершенная партия, восстановленная из журнала ходов.
+ */
+public class RecoveredGame {
+
+    private final int id;
+    private final Board[] boards = {new Board(), new Board()};
+    private int turn = GameEngine.FIRST;
+
+    RecoveredGame(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    /***
+     * Доски игроков: boards[GameEngine.FIRST] и boards[GameEngine.SECOND].
+     */
+    public Board[] getBoards() {
+        return this.boards;
+    }
+
+    /***
+     * @return игрок, который ходит следующим.
+     */
+    public int getTurn() {
+        return this.turn;
+    }
+
+    void setTurn(int turn) {
+        this.turn = turn;
+    }
+
+    /***
+     * Создает движок, продолжающий партию с восстановленного хода.
+     * @return движок партии.
+     */
+    public GameEngine toEngine() {
+        return new GameEngine(this.boards[GameEngine.FIRST], this.boards[GameEngine.SECOND], this.turn);
+    }
+
+}
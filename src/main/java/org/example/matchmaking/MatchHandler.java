@@ -0,0 +1,18 @@
+package org.example.matchmaking;
+
+import org.example.component.Player;
+
+/***
+ * Получатель составленных пар, например, запуск партии между игроками.
+ */
+@FunctionalInterface
+public interface MatchHandler {
+
+    /***
+     * Вызывается в исполнителе, переданном Matchmaker, для каждой составленной пары.
+     * @param first игрок, который ждал дольше.
+     * @param second его соперник.
+     */
+    void onMatch(Player first, Player second);
+
+}
@@ -0,0 +1,94 @@
+package org.example.matchmaking;
+
+import org.example.component.Player;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/***
+ * Заявка игрока в очереди подбора соперника.
+ * Состояние заявки меняется только через CAS, поэтому одну заявку не могут
+ * одновременно забрать два подбирающих потока.
+ */
+public final class MatchTicket {
+
+    static final int WAITING = 0;
+    /***
+     * Заявку забрал поток, который пытается забрать и вторую заявку пары.
+     * Состояние временное: заявка станет MATCHED или вернется в WAITING.
+     */
+    static final int CLAIMED = 1;
+    static final int MATCHED = 2;
+    static final int CANCELLED = 3;
+
+    private final Player player;
+    private final long enqueuedNanos;
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+
+    MatchTicket(Player player, long enqueuedNanos) {
+        this.player = player;
+        this.enqueuedNanos = enqueuedNanos;
+    }
+
+    public Player getPlayer() {
+        return this.player;
+    }
+
+    long getEnqueuedNanos() {
+        return this.enqueuedNanos;
+    }
+
+    boolean isWaiting() {
+        return this.state.get() == WAITING;
+    }
+
+    /***
+     * @return true - если пара составлена или заявка отменена.
+     */
+    boolean isDone() {
+        int current = this.state.get();
+        return current == MATCHED || current == CANCELLED;
+    }
+
+    /***
+     * @return true - если соперник найден.
+     */
+    public boolean isMatched() {
+        return this.state.get() == MATCHED;
+    }
+
+    boolean claim() {
+        return this.state.compareAndSet(WAITING, CLAIMED);
+    }
+
+    void release() {
+        this.state.set(WAITING);
+    }
+
+    void confirm() {
+        this.state.set(MATCHED);
+    }
+
+    boolean match() {
+        return this.state.compareAndSet(WAITING, MATCHED);
+    }
+
+    /***
+     * Отменяет заявку, если соперник еще не найден.
+     * @return true - если заявка отменена, false - если пара уже составлена.
+     */
+    boolean cancel() {
+        while (true) {
+            int current = this.state.get();
+            if (current == WAITING) {
+                if (this.state.compareAndSet(WAITING, CANCELLED)) {
+                    return true;
+                }
+            } else if (current == CLAIMED) {
+                Thread.onSpinWait();
+            } else {
+                return current == CANCELLED;
+            }
+        }
+    }
+
+}
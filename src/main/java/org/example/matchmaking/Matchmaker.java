@@ -0,0 +1,261 @@
+package org.example.matchmaking;
+
+import org.example.component.Player;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/***
+ * Подбор соперников по рейтингу без глобальной блокировки.
+ * Ожидающие заявки лежат в неблокирующих очередях ConcurrentLinkedQueue, по одной
+ * на каждый диапазон рейтинга шириной BUCKET_WIDTH. Новая заявка сразу ищет
+ * соперника в ближайших диапазонах и, если не находит, встает в очередь своего
+ * диапазона. Заявки забираются CAS-операцией над их состоянием, поэтому
+ * параллельные потоки не могут отдать одного игрока в две пары.
+ * Допустимая разница рейтингов - окно - растет со временем ожидания: от
+ * initialWindow на widenPerSecond в секунду, но не больше maxWindow. Периодический
+ * проход matchWaiting подбирает пары ожидающим заявкам с расширившимся окном и
+ * убирает из очередей обработанные заявки.
+ * Составленная пара передается обработчику через исполнитель, поэтому запуск
+ * партии не задерживает подбор.
+ */
+public class Matchmaker implements Closeable {
+
+    /***
+     * Ширина диапазона рейтинга одной очереди.
+     */
+    public static final int BUCKET_WIDTH = 50;
+    /***
+     * Наибольший учитываемый рейтинг; рейтинг выше попадает в последний диапазон.
+     */
+    public static final int MAX_RATING = 4000;
+    private static final int BUCKETS = MAX_RATING / BUCKET_WIDTH + 1;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final ConcurrentLinkedQueue<MatchTicket>[] buckets;
+    private final int initialWindow;
+    private final int widenPerSecond;
+    private final int maxWindow;
+    private final Executor executor;
+    private final MatchHandler handler;
+    private final LongAdder waiting = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private ScheduledExecutorService sweeper;
+
+    /***
+     * @param initialWindow допустимая разница рейтингов сразу после постановки в очередь.
+     * @param widenPerSecond на сколько окно расширяется за секунду ожидания.
+     * @param maxWindow наибольшее окно.
+     * @param executor исполнитель, в котором вызывается обработчик пар.
+     * @param handler обработчик пар.
+     */
+    public Matchmaker(int initialWindow, int widenPerSecond, int maxWindow, Executor executor,
+                      MatchHandler handler) {
+        if (initialWindow < 0 || widenPerSecond < 0 || maxWindow < initialWindow) {
+            throw new IllegalArgumentException("Неверные параметры окна рейтинга");
+        }
+        this.buckets = newBuckets(BUCKETS);
+        this.initialWindow = initialWindow;
+        this.widenPerSecond = widenPerSecond;
+        this.maxWindow = maxWindow;
+        this.executor = executor;
+        this.handler = handler;
+    }
+
+    /***
+     * Массив пустых очередей корзин. Массив параметризованного типа создать нельзя,
+     * поэтому он создается с wildcard-типом и приводится.
+     */
+    @SuppressWarnings("unchecked")
+    private static ConcurrentLinkedQueue<MatchTicket>[] newBuckets(int count) {
+        ConcurrentLinkedQueue<MatchTicket>[] buckets =
+                (ConcurrentLinkedQueue<MatchTicket>[]) new ConcurrentLinkedQueue<?>[count];
+        for (int i = 0; i < count; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        return buckets;
+    }
+
+    /***
+     * Ставит игрока в очередь. Если подходящий соперник уже ждет, пара составляется сразу.
+     * @param player игрок.
+     * @return заявка, по которой можно узнать результат или отменить ее.
+     */
+    public MatchTicket enqueue(Player player) {
+        long now = System.nanoTime();
+        MatchTicket ticket = new MatchTicket(player, now);
+        MatchTicket partner = findPartner(ticket, now);
+        if (partner != null) {
+            // заявка еще не опубликована, поэтому ее никто другой забрать не мог.
+            ticket.confirm();
+            this.waiting.decrement();
+            dispatch(partner, ticket);
+            return ticket;
+        }
+        this.waiting.increment();
+        this.buckets[bucket(player.getRating())].add(ticket);
+        return ticket;
+    }
+
+    /***
+     * Отменяет заявку, например, когда игрок отключился.
+     * @param ticket заявка.
+     * @return true - если заявка отменена, false - если пара уже составлена.
+     */
+    public boolean cancel(MatchTicket ticket) {
+        if (ticket.cancel()) {
+            this.waiting.decrement();
+            return true;
+        }
+        return false;
+    }
+
+    /***
+     * Подбирает пары ожидающим заявкам с учетом расширившихся окон и убирает из
+     * очередей обработанные заявки. Может вызываться из нескольких потоков.
+     * @return количество составленных пар.
+     */
+    public int matchWaiting() {
+        int matched = 0;
+        long now = System.nanoTime();
+        for (ConcurrentLinkedQueue<MatchTicket> queue : this.buckets) {
+            for (Iterator<MatchTicket> it = queue.iterator(); it.hasNext(); ) {
+                MatchTicket ticket = it.next();
+                if (ticket.isDone()) {
+                    it.remove();
+                    continue;
+                }
+                if (!ticket.claim()) {
+                    continue;
+                }
+                MatchTicket partner = findPartner(ticket, now);
+                if (partner == null) {
+                    ticket.release();
+                    continue;
+                }
+                ticket.confirm();
+                it.remove();
+                this.waiting.add(-2);
+                matched++;
+                if (partner.getEnqueuedNanos() < ticket.getEnqueuedNanos()) {
+                    dispatch(partner, ticket);
+                } else {
+                    dispatch(ticket, partner);
+                }
+            }
+        }
+        return matched;
+    }
+
+    /***
+     * Запускает периодический вызов matchWaiting в отдельном потоке.
+     * @param periodMillis период в миллисекундах.
+     */
+    public synchronized void start(long periodMillis) {
+        if (this.sweeper != null) {
+            throw new IllegalStateException("Подбор уже запущен");
+        }
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "matchmaker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper.scheduleWithFixedDelay(this::matchWaiting, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /***
+     * Останавливает периодический подбор. Ожидающие заявки остаются в очередях.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.sweeper != null) {
+            this.sweeper.shutdownNow();
+            this.sweeper = null;
+        }
+    }
+
+    /***
+     * @return количество ожидающих заявок.
+     */
+    public long getWaitingCount() {
+        return this.waiting.sum();
+    }
+
+    /***
+     * @return количество составленных пар.
+     */
+    public long getMatchCount() {
+        return this.matches.sum();
+    }
+
+    /***
+     * Текущее окно заявки.
+     */
+    int window(MatchTicket ticket, long now) {
+        long widened = this.initialWindow + this.widenPerSecond * (now - ticket.getEnqueuedNanos()) / NANOS_PER_SECOND;
+        return (int) Math.min(widened, this.maxWindow);
+    }
+
+    /***
+     * Ищет и забирает ожидающую заявку, подходящую по рейтингу. Очереди
+     * просматриваются от диапазона заявки к более дальним.
+     * @return забранная заявка соперника или null.
+     */
+    private MatchTicket findPartner(MatchTicket ticket, long now) {
+        int rating = ticket.getPlayer().getRating();
+        int window = window(ticket, now);
+        int own = bucket(rating);
+        int reach = Math.max(own - bucket(rating - window), bucket(rating + window) - own);
+        for (int distance = 0; distance <= reach; distance++) {
+            MatchTicket partner = claimIn(own - distance, ticket, rating, window, now);
+            if (partner == null && distance > 0) {
+                partner = claimIn(own + distance, ticket, rating, window, now);
+            }
+            if (partner != null) {
+                return partner;
+            }
+        }
+        return null;
+    }
+
+    private MatchTicket claimIn(int bucket, MatchTicket ticket, int rating, int window, long now) {
+        if (bucket < 0 || bucket >= BUCKETS) {
+            return null;
+        }
+        for (Iterator<MatchTicket> it = this.buckets[bucket].iterator(); it.hasNext(); ) {
+            MatchTicket candidate = it.next();
+            if (candidate.isDone()) {
+                // составленные и отмененные заявки убираются при первой встрече.
+                it.remove();
+                continue;
+            }
+            if (candidate == ticket || !candidate.isWaiting()) {
+                continue;
+            }
+            int difference = Math.abs(candidate.getPlayer().getRating() - rating);
+            if (difference <= Math.max(window, window(candidate, now)) && candidate.match()) {
+                it.remove();
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void dispatch(MatchTicket first, MatchTicket second) {
+        this.matches.increment();
+        Player a = first.getPlayer();
+        Player b = second.getPlayer();
+        this.executor.execute(() -> this.handler.onMatch(a, b));
+    }
+
+    private static int bucket(int rating) {
+        return Math.max(0, Math.min(rating, MAX_RATING)) / BUCKET_WIDTH;
+    }
+
+}
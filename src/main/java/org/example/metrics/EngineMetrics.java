@@ -0,0 +1,238 @@
+package org.example.metrics;
+
+import org.example.board.Cell;
+import org.example.exception.ShipPlacementInvalidException;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/***
+ * Метрики горячих путей движка: количество ударов и их результатов, отказов в
+ * постановке корабля по причинам, завершенных партий и гистограммы задержек
+ * Board.attack, Board.addShip и хода в Game.
+ * Метрики включаются системным свойством battleship.metrics=true. Флаг ENABLED -
+ * константа, поэтому при выключенных метриках JIT убирает проверки
+ * "if (EngineMetrics.ENABLED)" вместе с замерами времени, и горячие пути ничего не
+ * платят. При включенных метриках счетчики - LongAdder, которые не создают
+ * конкуренции между потоками.
+ * Включенные метрики регистрируются в JMX как OBJECT_NAME и раз в
+ * battleship.metrics.logPeriod секунд (по умолчанию 60, 0 - не выводить)
+ * выводятся строкой в журнал java.util.logging.
+ */
+public final class EngineMetrics {
+
+    /***
+     * Включены ли метрики.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("battleship.metrics");
+    /***
+     * Имя MBean с метриками.
+     */
+    public static final String OBJECT_NAME = "org.example:type=EngineMetrics";
+
+    private static final Logger LOGGER = Logger.getLogger(EngineMetrics.class.getName());
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder SUNKEN = new LongAdder();
+    private static final LongAdder GAMES = new LongAdder();
+    private static final LongAdder[] REJECTIONS = new LongAdder[ShipPlacementInvalidException.Reason.values().length];
+    private static final LatencyHistogram ATTACK = new LatencyHistogram();
+    private static final LatencyHistogram ADD_SHIP = new LatencyHistogram();
+    private static final LatencyHistogram TURN = new LatencyHistogram();
+
+    static {
+        for (int i = 0; i < REJECTIONS.length; i++) {
+            REJECTIONS[i] = new LongAdder();
+        }
+        if (ENABLED) {
+            register();
+            long period = Long.getLong("battleship.metrics.logPeriod", 60);
+            if (period > 0) {
+                startLogging(period);
+            }
+        }
+    }
+
+    private EngineMetrics() {
+    }
+
+    /***
+     * Учитывает удар по клетке.
+     * @param status результат удара.
+     * @param nanos время выполнения Board.attack.
+     */
+    public static void recordAttack(Cell.Status status, long nanos) {
+        switch (status) {
+            case HIT -> HITS.increment();
+            case SUNKEN -> SUNKEN.increment();
+            default -> MISSES.increment();
+        }
+        ATTACK.record(nanos);
+    }
+
+    /***
+     * Учитывает успешную постановку корабля.
+     * @param nanos время выполнения Board.addShip.
+     */
+    public static void recordAddShip(long nanos) {
+        ADD_SHIP.record(nanos);
+    }
+
+    /***
+     * Учитывает отказ в постановке корабля.
+     * @param reason причина отказа.
+     */
+    public static void recordRejection(ShipPlacementInvalidException.Reason reason) {
+        REJECTIONS[reason.ordinal()].increment();
+    }
+
+    /***
+     * Учитывает ход игрока в Game: от приглашения ввести координаты до результата.
+     * @param nanos время хода.
+     */
+    public static void recordTurn(long nanos) {
+        TURN.record(nanos);
+    }
+
+    /***
+     * Учитывает завершенную партию.
+     */
+    public static void recordGameCompleted() {
+        GAMES.increment();
+    }
+
+    public static long getAttacks() {
+        return HITS.sum() + MISSES.sum() + SUNKEN.sum();
+    }
+
+    public static long getRejections(ShipPlacementInvalidException.Reason reason) {
+        return REJECTIONS[reason.ordinal()].sum();
+    }
+
+    /***
+     * Сводка метрик одной строкой.
+     * @return строка с текущими значениями.
+     */
+    public static String summary() {
+        return String.format("ударов=%d (HIT=%d MISS=%d SUNKEN=%d) партий=%d отказов: линия=%d порядок=%d занято=%d "
+                        + "attack: среднее=%.0f нс p99<=%d нс; addShip: среднее=%.0f нс p99<=%d нс; "
+                        + "ход: среднее=%.0f нс p99<=%d нс",
+                getAttacks(), HITS.sum(), MISSES.sum(), SUNKEN.sum(), GAMES.sum(),
+                getRejections(ShipPlacementInvalidException.Reason.NOT_A_LINE),
+                getRejections(ShipPlacementInvalidException.Reason.WRONG_ORDER),
+                getRejections(ShipPlacementInvalidException.Reason.OCCUPIED),
+                ATTACK.getMean(), ATTACK.getPercentile(99),
+                ADD_SHIP.getMean(), ADD_SHIP.getPercentile(99),
+                TURN.getMean(), TURN.getPercentile(99));
+    }
+
+    private static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Не удалось зарегистрировать метрики в JMX", e);
+        }
+    }
+
+    /***
+     * Запускает вывод сводки с количеством ударов в секунду за прошедший период.
+     */
+    private static void startLogging(long periodSeconds) {
+        ScheduledExecutorService logger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "engine-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long[] previous = new long[1];
+        logger.scheduleAtFixedRate(() -> {
+            long attacks = getAttacks();
+            double rate = (double) (attacks - previous[0]) / periodSeconds;
+            previous[0] = attacks;
+            LOGGER.info(String.format("ударов/с=%.0f %s", rate, summary()));
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /***
+     * Реализация MBean поверх статических счетчиков.
+     */
+    private static final class Bean implements EngineMetricsMXBean {
+
+        @Override
+        public long getAttacks() {
+            return EngineMetrics.getAttacks();
+        }
+
+        @Override
+        public long getHits() {
+            return HITS.sum();
+        }
+
+        @Override
+        public long getMisses() {
+            return MISSES.sum();
+        }
+
+        @Override
+        public long getSunken() {
+            return SUNKEN.sum();
+        }
+
+        @Override
+        public long getGamesCompleted() {
+            return GAMES.sum();
+        }
+
+        @Override
+        public long getRejectedNotALine() {
+            return getRejections(ShipPlacementInvalidException.Reason.NOT_A_LINE);
+        }
+
+        @Override
+        public long getRejectedWrongOrder() {
+            return getRejections(ShipPlacementInvalidException.Reason.WRONG_ORDER);
+        }
+
+        @Override
+        public long getRejectedOccupied() {
+            return getRejections(ShipPlacementInvalidException.Reason.OCCUPIED);
+        }
+
+        @Override
+        public double getAttackMeanNanos() {
+            return ATTACK.getMean();
+        }
+
+        @Override
+        public long getAttackP99Nanos() {
+            return ATTACK.getPercentile(99);
+        }
+
+        @Override
+        public double getAddShipMeanNanos() {
+            return ADD_SHIP.getMean();
+        }
+
+        @Override
+        public long getAddShipP99Nanos() {
+            return ADD_SHIP.getPercentile(99);
+        }
+
+        @Override
+        public double getTurnMeanNanos() {
+            return TURN.getMean();
+        }
+
+        @Override
+        public long getTurnP99Nanos() {
+            return TURN.getPercentile(99);
+        }
+    }
+
+}
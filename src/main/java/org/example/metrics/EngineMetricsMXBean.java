@@ -0,0 +1,37 @@
+package org.example.metrics;
+
+/***
+ * Метрики движка, доступные через JMX под именем EngineMetrics.OBJECT_NAME.
+ * Задержки указаны в наносекундах.
+ */
+public interface EngineMetricsMXBean {
+
+    long getAttacks();
+
+    long getHits();
+
+    long getMisses();
+
+    long getSunken();
+
+    long getGamesCompleted();
+
+    long getRejectedNotALine();
+
+    long getRejectedWrongOrder();
+
+    long getRejectedOccupied();
+
+    double getAttackMeanNanos();
+
+    long getAttackP99Nanos();
+
+    double getAddShipMeanNanos();
+
+    long getAddShipP99Nanos();
+
+    double getTurnMeanNanos();
+
+    long getTurnP99Nanos();
+
+}
@@ -0,0 +1,81 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/***
+ * Гистограмма задержек с корзинами по степеням двойки.
+ * Задержка d наносекунд попадает в корзину с номером, равным количеству значащих
+ * бит d, то есть в диапазон [2^(b-1), 2^b). Запись - одно увеличение LongAdder
+ * корзины и суммы, без блокировок и выделения памяти. Перцентили оцениваются
+ * по верхней границе корзины, то есть с точностью до двух раз, чего достаточно,
+ * чтобы заметить изменения порядка величины.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /***
+     * Добавляет измерение.
+     * @param nanos задержка в наносекундах.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        this.buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+        this.total.add(value);
+    }
+
+    /***
+     * @return количество измерений.
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : this.buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /***
+     * @return средняя задержка в наносекундах.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) this.total.sum() / count;
+    }
+
+    /***
+     * Оценка перцентиля.
+     * @param percentile перцентиль от 0 до 100.
+     * @return верхняя граница корзины, в которую попадает перцентиль, в наносекундах.
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                return i == 0 ? 0 : i >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+}
@@ -0,0 +1,130 @@
+package org.example.opening;
+
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+import org.example.placement.PlacementTable;
+
+import java.nio.ByteBuffer;
+
+/***
+ * Запись книги дебютов: рекомендуемые выстрелы для позиции и вероятности того,
+ * что в клетке стоит корабль. Вероятности хранятся с точностью 1/65535 - по два
+ * байта на клетку.
+ */
+public final class BookEntry {
+
+    private static final int CELLS = PlacementTable.CELLS;
+    private static final double SCALE = 65535;
+
+    private final PositionKey key;
+    /***
+     * Номера клеток для выстрела, лучшая первой.
+     */
+    private final byte[] shots;
+    private final char[] probabilities;
+
+    private BookEntry(PositionKey key, byte[] shots, char[] probabilities) {
+        this.key = key;
+        this.shots = shots;
+        this.probabilities = probabilities;
+    }
+
+    /***
+     * Создает запись по вероятностям клеток: рекомендуются count неатакованных
+     * клеток с наибольшей вероятностью.
+     * @param key позиция.
+     * @param probabilities вероятности клеток.
+     * @param count количество рекомендуемых выстрелов.
+     * @return запись книги.
+     */
+    static BookEntry of(PositionKey key, double[] probabilities, int count) {
+        char[] quantized = new char[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            quantized[cell] = (char) Math.round(Math.min(Math.max(probabilities[cell], 0), 1) * SCALE);
+        }
+        byte[] shots = new byte[count];
+        boolean[] taken = new boolean[CELLS];
+        for (int i = 0; i < count; i++) {
+            int best = -1;
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (!taken[cell] && key.getStatus(cell) == Cell.Status.EMPTY
+                        && (best < 0 || quantized[cell] > quantized[best])) {
+                    best = cell;
+                }
+            }
+            // если неатакованных клеток меньше count, последняя рекомендация повторяется.
+            if (best >= 0) {
+                taken[best] = true;
+                shots[i] = (byte) best;
+            } else {
+                shots[i] = i == 0 ? 0 : shots[i - 1];
+            }
+        }
+        return new BookEntry(key, shots, quantized);
+    }
+
+    static BookEntry read(ByteBuffer buffer, int offset, int count) {
+        PositionKey key = PositionKey.read(buffer, offset);
+        int position = offset + PositionKey.BYTES;
+        byte[] shots = new byte[count];
+        for (int i = 0; i < count; i++) {
+            shots[i] = buffer.get(position++);
+        }
+        char[] probabilities = new char[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            probabilities[cell] = buffer.getChar(position);
+            position += Character.BYTES;
+        }
+        return new BookEntry(key, shots, probabilities);
+    }
+
+    void write(ByteBuffer buffer) {
+        this.key.write(buffer);
+        buffer.put(this.shots);
+        for (char probability : this.probabilities) {
+            buffer.putChar(probability);
+        }
+    }
+
+    public PositionKey getKey() {
+        return this.key;
+    }
+
+    /***
+     * @param cell номер клетки.
+     * @return вероятность корабля в клетке.
+     */
+    public double getProbability(int cell) {
+        return this.probabilities[cell] / SCALE;
+    }
+
+    /***
+     * @return количество рекомендуемых выстрелов.
+     */
+    public int getShotCount() {
+        return this.shots.length;
+    }
+
+    /***
+     * @param rank номер рекомендации, 0 - лучшая.
+     * @return номер клетки.
+     */
+    public int getShot(int rank) {
+        return this.shots[rank];
+    }
+
+    /***
+     * Лучший рекомендуемый выстрел, который еще не сделан на доске.
+     * @param target доска противника.
+     * @return номер клетки или -1, если все рекомендованные клетки атакованы.
+     */
+    public int getBestShot(GameBoard target) {
+        for (byte shot : this.shots) {
+            if (target.getPublicStatus(shot) == Cell.Status.EMPTY) {
+                return shot;
+            }
+        }
+        return -1;
+    }
+
+}
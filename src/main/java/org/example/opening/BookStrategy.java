@@ -0,0 +1,74 @@
+package org.example.opening;
+
+import org.example.ai.Strategy;
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+/***
+ * Стратегия, которая играет дебют по книге, а после выхода из нее передает ход
+ * другой стратегии.
+ * Пока позиция есть в книге, выстрел делается в лучшую рекомендованную клетку.
+ * Как только позиции в книге нет, стратегия до конца партии ходит как вложенная
+ * и больше книгу не спрашивает. Результаты всех выстрелов, в том числе
+ * дебютных, передаются вложенной стратегии, чтобы ее состояние совпадало с доской.
+ */
+public class BookStrategy implements Strategy {
+
+    private final OpeningBook book;
+    private final Strategy fallback;
+    /***
+     * Позиция партии еще в книге.
+     */
+    private boolean inBook;
+
+    /***
+     * @param book книга дебютов, может быть общей для нескольких стратегий.
+     * @param fallback стратегия после выхода из книги.
+     */
+    public BookStrategy(OpeningBook book, Strategy fallback) {
+        this.book = book;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public String getName() {
+        return "book+" + this.fallback.getName();
+    }
+
+    @Override
+    public void reset(SplittableRandom random) {
+        this.fallback.reset(random);
+        this.inBook = true;
+    }
+
+    /***
+     * @throws UncheckedIOException если файл книги не удалось прочитать.
+     */
+    @Override
+    public int nextShot(GameBoard target) {
+        if (this.inBook) {
+            BookEntry entry;
+            try {
+                entry = this.book.lookup(target);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            int cell = entry == null ? -1 : entry.getBestShot(target);
+            if (cell >= 0) {
+                return cell;
+            }
+            this.inBook = false;
+        }
+        return this.fallback.nextShot(target);
+    }
+
+    @Override
+    public void onResult(int cell, Cell.Status status) {
+        this.fallback.onResult(cell, status);
+    }
+
+}
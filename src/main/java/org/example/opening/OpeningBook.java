@@ -0,0 +1,258 @@
+package org.example.opening;
+
+import org.example.board.Board;
+import org.example.board.GameBoard;
+import org.example.solver.LayoutSolver;
+import org.example.solver.Solution;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/***
+ * Книга дебютов: заранее рассчитанные рекомендации выстрелов и вероятности клеток
+ * для позиций начала партии.
+ * Позиция задается открытым состоянием доски (PositionKey), поэтому разные
+ * порядки одних и тех же выстрелов дают одну запись. Файл книги:
+ * <pre>
+ * int MAGIC
+ * int количество записей
+ * int количество рекомендаций в записи
+ * записи по возрастанию ключа: ключ (4 long), рекомендации (byte каждая),
+ * вероятности клеток (char каждая)
+ * </pre>
+ * Запись стандартной доски с RECOMMENDED рекомендациями занимает 236 байт.
+ * Файл отображается в память при первом обращении, запись ищется двоичным
+ * поиском. Прочитанные и рассчитанные записи хранятся в кэше ограниченного
+ * размера с вытеснением давно не использованных. Если позиции нет в книге, а
+ * книге передан решатель, запись рассчитывается им и тоже попадает в кэш.
+ * Методы потокобезопасны: одну книгу могут использовать стратегии разных потоков.
+ */
+public class OpeningBook implements Closeable {
+
+    /***
+     * Признак файла книги: "SOB1".
+     */
+    public static final int MAGIC = 0x534F4231;
+    /***
+     * Количество рекомендаций в записи, которое записывает build.
+     */
+    public static final int RECOMMENDED = 4;
+    /***
+     * Размер кэша записей по умолчанию.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+    private static final int HEADER = 3 * Integer.BYTES;
+    private static final int CELLS = Board.SIZE * Board.SIZE;
+
+    private final Path file;
+    /***
+     * Решатель для позиций вне книги или null.
+     */
+    private final LayoutSolver solver;
+    private final Map<PositionKey, BookEntry> cache;
+    /***
+     * Отображенный файл; null до первого обращения.
+     */
+    private FileChannel channel;
+    private MappedByteBuffer data;
+    private int entries;
+    private int recommended;
+    private int entryBytes;
+
+    /***
+     * @param file файл книги; null - книга без файла, только кэш и решатель.
+     * @param cacheSize наибольшее количество записей в кэше.
+     * @param solver решатель для позиций вне книги или null.
+     */
+    public OpeningBook(Path file, int cacheSize, LayoutSolver solver) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным");
+        }
+        this.file = file;
+        this.solver = solver;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PositionKey, BookEntry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /***
+     * Открывает книгу без решателя с кэшем по умолчанию.
+     * @param file файл книги.
+     */
+    public OpeningBook(Path file) {
+        this(file, DEFAULT_CACHE_SIZE, null);
+    }
+
+    /***
+     * Ищет запись для открытого состояния доски.
+     * @param board стандартная доска противника.
+     * @return запись или null, если позиции нет в книге и решатель не задан.
+     * @throws IOException если файл книги не удалось прочитать или он поврежден.
+     */
+    public BookEntry lookup(GameBoard board) throws IOException {
+        PositionKey key = PositionKey.of(board);
+        synchronized (this.cache) {
+            BookEntry cached = this.cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        BookEntry entry = find(key);
+        if (entry == null && this.solver != null) {
+            Solution solution = this.solver.solve(board);
+            entry = BookEntry.of(key, solution.getProbabilities(), RECOMMENDED);
+        }
+        if (entry != null) {
+            synchronized (this.cache) {
+                this.cache.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    /***
+     * @return количество записей в кэше.
+     */
+    public int getCachedEntries() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+    /***
+     * Двоичный поиск записи в файле.
+     */
+    private BookEntry find(PositionKey key) throws IOException {
+        ByteBuffer buffer = map();
+        if (buffer == null) {
+            return null;
+        }
+        int low = 0;
+        int high = this.entries - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = HEADER + middle * this.entryBytes;
+            int result = key.compareTo(buffer, offset);
+            if (result == 0) {
+                return BookEntry.read(buffer, offset, this.recommended);
+            }
+            if (result > 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return null;
+    }
+
+    /***
+     * Отображает файл в память при первом обращении и проверяет заголовок.
+     * @return буфер файла или null, если книга без файла.
+     */
+    private synchronized ByteBuffer map() throws IOException {
+        if (this.data != null || this.file == null) {
+            return this.data;
+        }
+        FileChannel opened = FileChannel.open(this.file, StandardOpenOption.READ);
+        try {
+            long size = opened.size();
+            if (size < HEADER) {
+                throw new IOException("Файл книги дебютов обрывается в заголовке");
+            }
+            MappedByteBuffer mapped = opened.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int entries = mapped.getInt(Integer.BYTES);
+            int recommended = mapped.getInt(2 * Integer.BYTES);
+            int entryBytes = PositionKey.BYTES + recommended + CELLS * Character.BYTES;
+            if (mapped.getInt(0) != MAGIC || entries < 0 || recommended < 1
+                    || size != HEADER + (long) entries * entryBytes) {
+                throw new IOException("Неверный формат файла книги дебютов");
+            }
+            this.channel = opened;
+            this.entries = entries;
+            this.recommended = recommended;
+            this.entryBytes = entryBytes;
+            this.data = mapped;
+            return mapped;
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+        }
+    }
+
+    /***
+     * Строит книгу для стандартного флота. Дебютная линия - позиции из одних
+     * промахов: из пустой доски по каждой из RECOMMENDED лучших клеток делается
+     * промах, и так на глубину depth выстрелов. Позиции, которые получаются
+     * разными порядками выстрелов, рассчитываются один раз.
+     * @param file файл книги; перезаписывается.
+     * @param solver решатель для расчета позиций.
+     * @param depth количество выстрелов в самой длинной линии.
+     * @return количество записей в книге.
+     * @throws IOException если файл не удалось записать.
+     */
+    public static int build(Path file, LayoutSolver solver, int depth) throws IOException {
+        Map<PositionKey, BookEntry> book = new HashMap<>();
+        List<int[]> level = new ArrayList<>();
+        level.add(new int[0]);
+        for (int shots = 0; shots <= depth && !level.isEmpty(); shots++) {
+            List<int[]> next = new ArrayList<>();
+            for (int[] misses : level) {
+                Board board = new Board();
+                for (int cell : misses) {
+                    board.attack(cell);
+                }
+                PositionKey key = PositionKey.of(board);
+                if (book.containsKey(key)) {
+                    continue;
+                }
+                BookEntry entry = BookEntry.of(key, solver.solve(board).getProbabilities(), RECOMMENDED);
+                book.put(key, entry);
+                for (int rank = 0; rank < RECOMMENDED && shots < depth; rank++) {
+                    int[] child = Arrays.copyOf(misses, misses.length + 1);
+                    child[misses.length] = entry.getShot(rank);
+                    next.add(child);
+                }
+            }
+            level = next;
+        }
+
+        List<BookEntry> sorted = new ArrayList<>(book.values());
+        sorted.sort((a, b) -> a.getKey().compareTo(b.getKey()));
+        int entryBytes = PositionKey.BYTES + RECOMMENDED + CELLS * Character.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + sorted.size() * entryBytes);
+        buffer.putInt(MAGIC).putInt(sorted.size()).putInt(RECOMMENDED);
+        for (BookEntry entry : sorted) {
+            entry.write(buffer);
+        }
+        buffer.flip();
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+        return sorted.size();
+    }
+
+}
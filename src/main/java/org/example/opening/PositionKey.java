@@ -0,0 +1,129 @@
+package org.example.opening;
+
+import org.example.board.Board;
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+import org.example.placement.PlacementTable;
+
+import java.nio.ByteBuffer;
+
+/***
+ * Открытое состояние стандартной доски как ключ: по 2 бита на клетку
+ * (EMPTY - 0, MISS - 1, HIT - 2, SUNKEN - 3), 200 бит в четырех словах long.
+ * Ключ не зависит от порядка выстрелов, поэтому все истории, приводящие к одному
+ * состоянию, имеют один ключ. Ключи упорядочены как беззнаковые числа от
+ * старшего слова к младшему; в этом порядке записи хранятся в файле книги.
+ */
+public final class PositionKey implements Comparable<PositionKey> {
+
+    /***
+     * Размер ключа в файле.
+     */
+    static final int BYTES = 4 * Long.BYTES;
+    private static final int CELLS = PlacementTable.CELLS;
+    private static final int CELLS_PER_WORD = Long.SIZE / 2;
+
+    private final long[] words;
+
+    private PositionKey(long[] words) {
+        this.words = words;
+    }
+
+    /***
+     * Строит ключ по открытому состоянию доски.
+     * @param board стандартная доска.
+     * @return ключ.
+     * @throws IllegalArgumentException если доска не стандартного размера.
+     */
+    public static PositionKey of(GameBoard board) {
+        if (board.getSize() != Board.SIZE) {
+            throw new IllegalArgumentException("Книга дебютов рассчитана на стандартную доску");
+        }
+        long[] words = new long[4];
+        for (int cell = 0; cell < CELLS; cell++) {
+            long code = switch (board.getPublicStatus(cell)) {
+                case MISS -> 1;
+                case HIT -> 2;
+                case SUNKEN -> 3;
+                default -> 0;
+            };
+            words[cell / CELLS_PER_WORD] |= code << ((cell % CELLS_PER_WORD) << 1);
+        }
+        return new PositionKey(words);
+    }
+
+    /***
+     * @param cell номер клетки.
+     * @return открытый статус клетки: EMPTY, MISS, HIT или SUNKEN.
+     */
+    public Cell.Status getStatus(int cell) {
+        int code = (int) (this.words[cell / CELLS_PER_WORD] >>> ((cell % CELLS_PER_WORD) << 1)) & 3;
+        return switch (code) {
+            case 1 -> Cell.Status.MISS;
+            case 2 -> Cell.Status.HIT;
+            case 3 -> Cell.Status.SUNKEN;
+            default -> Cell.Status.EMPTY;
+        };
+    }
+
+    static PositionKey read(ByteBuffer buffer, int offset) {
+        long[] words = new long[4];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buffer.getLong(offset + i * Long.BYTES);
+        }
+        return new PositionKey(words);
+    }
+
+    void write(ByteBuffer buffer) {
+        for (long word : this.words) {
+            buffer.putLong(word);
+        }
+    }
+
+    /***
+     * Сравнивает ключ с ключом, записанным в буфере, без создания объекта.
+     */
+    int compareTo(ByteBuffer buffer, int offset) {
+        for (int i = this.words.length - 1; i >= 0; i--) {
+            int result = Long.compareUnsigned(this.words[i], buffer.getLong(offset + i * Long.BYTES));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int compareTo(PositionKey other) {
+        for (int i = this.words.length - 1; i >= 0; i--) {
+            int result = Long.compareUnsigned(this.words[i], other.words[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof PositionKey key)) {
+            return false;
+        }
+        for (int i = 0; i < this.words.length; i++) {
+            if (this.words[i] != key.words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = 0;
+        for (long word : this.words) {
+            hash = hash * 0x9E3779B97F4A7C15L + word;
+        }
+        return (int) (hash ^ hash >>> 32);
+    }
+
+}
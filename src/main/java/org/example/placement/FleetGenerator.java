@@ -0,0 +1,258 @@
+package org.example.placement;
+
+import org.example.board.Board;
+import org.example.exception.CoordinateIsInvalidException;
+import org.example.exception.ShipPlacementInvalidException;
+import org.example.ship.Ship;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/***
+ * Генератор случайной расстановки флота по таблицам позиций PlacementTable.
+ * Занятые клетки и их окружение хранятся в 128-битной маске запрещенной зоны,
+ * поэтому допустимость позиции проверяется одной операцией над масками и на доску
+ * попадают только заведомо допустимые позиции.
+ * Экземпляр хранит рабочие буферы и не потокобезопасен: каждому потоку нужен свой.
+ */
+public class FleetGenerator {
+
+    /***
+     * Длины кораблей стандартного флота в порядке постановки, как в Game.placeShips.
+     */
+    public static final int[] STANDARD_FLEET = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
+
+    /***
+     * Режим генерации.
+     * FAST - каждый следующий корабль выбирается равновероятно среди позиций,
+     * допустимых после постановки предыдущих. Быстро, но расстановки с длинными
+     * кораблями у края получаются чаще, чем при равномерном выборе.
+     * UNIFORM - расстановки флота равновероятны с точностью до прогрева цепи.
+     * Каждая расстановка строится заново: из расстановки FAST делается
+     * MIXING_SWEEPS проходов цепи Гиббса, в каждом проходе каждый корабль по
+     * очереди переставляется в позицию, выбранную равновероятно среди всех
+     * допустимых относительно остальных кораблей (включая текущую). Такой шаг
+     * сохраняет равномерное распределение, поэтому цепь сходится к нему, а
+     * расстановки разных вызовов generate независимы. Независимый выбор с
+     * отбрасыванием пересечений для стандартного флота практически никогда не
+     * дает допустимой расстановки.
+     */
+    public enum Mode {
+        FAST, UNIFORM
+    }
+
+    /***
+     * Количество проходов цепи на одну расстановку в режиме UNIFORM. Для
+     * стандартного флота вероятности занятости клеток расстановки FAST
+     * отличаются от равномерных до 0,05, а уже после двух проходов совпадают с
+     * вероятностями после 64 проходов в пределах погрешности выборки; 4 прохода
+     * берутся с запасом. Сверка с точным перебором - в FleetGeneratorTest.
+     */
+    public static final int MIXING_SWEEPS = 4;
+
+    /***
+     * Длины кораблей флота по убыванию.
+     */
+    private final int[] fleet;
+    private final Mode mode;
+    /***
+     * Номера выбранных позиций кораблей в порядке fleet.
+     */
+    private final int[] placements;
+    /***
+     * Допустимые позиции каждого корабля при поиске с возвратом: еще не
+     * опробованные позиции корабля i лежат в candidates[i][0..untried[i]).
+     */
+    private final int[][] candidates;
+    private final int[] untried;
+    /***
+     * Запрещенные зоны перед постановкой корабля i: forbiddenLo[i], forbiddenHi[i].
+     */
+    private final long[] forbiddenLo;
+    private final long[] forbiddenHi;
+    /***
+     * Таблицы позиций кораблей в порядке fleet.
+     */
+    private final PlacementTable[] tables;
+    /***
+     * Запрещенные зоны кораблей (клетки и окружение) в режиме UNIFORM.
+     */
+    private final long[] zoneLo;
+    private final long[] zoneHi;
+
+    /***
+     * Создает генератор стандартного флота в режиме FAST.
+     */
+    public FleetGenerator() {
+        this(STANDARD_FLEET, Mode.FAST);
+    }
+
+    /***
+     * @param fleet длины кораблей флота: от 1 до PlacementTable.MAX_LENGTH.
+     * @param mode режим генерации.
+     */
+    public FleetGenerator(int[] fleet, Mode mode) {
+        int[] sorted = fleet.clone();
+        Arrays.sort(sorted);
+        this.fleet = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            this.fleet[i] = sorted[sorted.length - 1 - i];
+        }
+        this.tables = new PlacementTable[this.fleet.length];
+        int max = 0;
+        for (int i = 0; i < this.fleet.length; i++) {
+            this.tables[i] = PlacementTable.forLength(this.fleet[i]);
+            max = Math.max(max, this.tables[i].size());
+        }
+        this.mode = mode;
+        this.placements = new int[this.fleet.length];
+        this.zoneLo = new long[this.fleet.length];
+        this.zoneHi = new long[this.fleet.length];
+        this.candidates = new int[this.fleet.length][max];
+        this.untried = new int[this.fleet.length];
+        this.forbiddenLo = new long[this.fleet.length + 1];
+        this.forbiddenHi = new long[this.fleet.length + 1];
+    }
+
+    /***
+     * Выбирает позиции всех кораблей флота.
+     * @param random генератор случайных чисел.
+     * @throws IllegalStateException если флот не помещается на доске.
+     */
+    public void generate(SplittableRandom random) {
+        placeFast(random);
+        if (this.mode == Mode.UNIFORM) {
+            mix(random);
+        }
+    }
+
+    /***
+     * Очищает доску и ставит на нее случайно расставленный флот.
+     * @param board доска для расстановки.
+     * @param random генератор случайных чисел.
+     */
+    public void place(Board board, SplittableRandom random) {
+        generate(random);
+        board.clear();
+        try {
+            for (int i = 0; i < this.fleet.length; i++) {
+                PlacementTable table = this.tables[i];
+                board.addShip(Ship.ofLength(this.fleet[i]), table.firstCell(this.placements[i]),
+                        table.isVertical(this.placements[i]));
+            }
+        } catch (CoordinateIsInvalidException | ShipPlacementInvalidException e) {
+            throw new IllegalStateException("Позиция из таблицы отклонена доской", e);
+        }
+    }
+
+    /***
+     * Длина корабля с номером ship в порядке постановки (по убыванию длины).
+     */
+    public int getShipLength(int ship) {
+        return this.fleet[ship];
+    }
+
+    /***
+     * Номер позиции корабля в PlacementTable.forLength(getShipLength(ship)) после
+     * последнего вызова generate.
+     */
+    public int getPlacement(int ship) {
+        return this.placements[ship];
+    }
+
+    public int getShipCount() {
+        return this.fleet.length;
+    }
+
+    /***
+     * Ставит корабли по очереди, выбирая каждый равновероятно среди еще не
+     * опробованных допустимых позиций. Если следующему кораблю не осталось места,
+     * поиск возвращается к предыдущему кораблю и ставит его в другую позицию:
+     * флот целиком не отбрасывается, а недопустимая позиция не строится.
+     */
+    private void placeFast(SplittableRandom random) {
+        int ships = this.fleet.length;
+        int ship = 0;
+        if (ships > 0) {
+            collectCandidates(ship);
+        }
+        while (ship < ships) {
+            if (this.untried[ship] == 0) {
+                // тупик: все позиции корабля опробованы, переставляем предыдущий.
+                if (--ship < 0) {
+                    throw new IllegalStateException("Флот не помещается на доске");
+                }
+                continue;
+            }
+            int[] options = this.candidates[ship];
+            int index = random.nextInt(this.untried[ship]);
+            int chosen = options[index];
+            options[index] = options[--this.untried[ship]];
+            this.placements[ship] = chosen;
+            PlacementTable table = this.tables[ship];
+            this.forbiddenLo[ship + 1] = this.forbiddenLo[ship] | table.maskLo(chosen) | table.haloLo(chosen);
+            this.forbiddenHi[ship + 1] = this.forbiddenHi[ship] | table.maskHi(chosen) | table.haloHi(chosen);
+            if (++ship < ships) {
+                collectCandidates(ship);
+            }
+        }
+    }
+
+    /***
+     * Заполняет список допустимых позиций корабля с учетом запрещенной зоны
+     * предыдущих кораблей.
+     */
+    private void collectCandidates(int ship) {
+        PlacementTable table = this.tables[ship];
+        long forbiddenLo = this.forbiddenLo[ship];
+        long forbiddenHi = this.forbiddenHi[ship];
+        int[] options = this.candidates[ship];
+        int count = 0;
+        for (int p = 0; p < table.size(); p++) {
+            if ((table.maskLo(p) & forbiddenLo) == 0 && (table.maskHi(p) & forbiddenHi) == 0) {
+                options[count++] = p;
+            }
+        }
+        this.untried[ship] = count;
+    }
+
+    /***
+     * Проходы цепи Гиббса из текущей расстановки.
+     */
+    private void mix(SplittableRandom random) {
+        int ships = this.fleet.length;
+        for (int i = 0; i < ships; i++) {
+            PlacementTable table = this.tables[i];
+            int p = this.placements[i];
+            this.zoneLo[i] = table.maskLo(p) | table.haloLo(p);
+            this.zoneHi[i] = table.maskHi(p) | table.haloHi(p);
+        }
+        // списки позиций поиска с возвратом уже не нужны: первый служит буфером.
+        int[] options = this.candidates[0];
+        for (int sweep = 0; sweep < MIXING_SWEEPS; sweep++) {
+            for (int moved = 0; moved < ships; moved++) {
+                long forbiddenLo = 0;
+                long forbiddenHi = 0;
+                for (int i = 0; i < ships; i++) {
+                    if (i != moved) {
+                        forbiddenLo |= this.zoneLo[i];
+                        forbiddenHi |= this.zoneHi[i];
+                    }
+                }
+                PlacementTable table = this.tables[moved];
+                int count = 0;
+                for (int p = 0; p < table.size(); p++) {
+                    if ((table.maskLo(p) & forbiddenLo) == 0 && (table.maskHi(p) & forbiddenHi) == 0) {
+                        options[count++] = p;
+                    }
+                }
+                // текущая позиция корабля допустима, поэтому count > 0.
+                int chosen = options[random.nextInt(count)];
+                this.placements[moved] = chosen;
+                this.zoneLo[moved] = table.maskLo(chosen) | table.haloLo(chosen);
+                this.zoneHi[moved] = table.maskHi(chosen) | table.haloHi(chosen);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package org.example.placement;
+
+import org.example.board.Board;
+
+import java.util.Arrays;
+
+/***
+ * Таблица всех позиций корабля заданной длины на стандартной доске.
+ * Позиция - это прямая линия из length клеток по горизонтали или вертикали.
+ * Для каждой позиции хранятся ее клетки, маска клеток и маска окружения (соседних
+ * клеток, включая диагональные, в которых не может стоять другой корабль).
+ * Маски занимают 128 бит: младшие 64 клетки в словах Lo, остальные в словах Hi.
+ * Таблицы неизменяемы и вычисляются один раз для каждой длины.
+ */
+public final class PlacementTable {
+
+    /***
+     * Количество клеток доски.
+     */
+    public static final int CELLS = Board.SIZE * Board.SIZE;
+    /***
+     * Максимальная длина корабля, для которой строятся таблицы.
+     */
+    public static final int MAX_LENGTH = 4;
+    /***
+     * Таблицы по длине корабля, индекс 0 не используется.
+     */
+    private static final PlacementTable[] TABLES = new PlacementTable[MAX_LENGTH + 1];
+
+    static {
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            TABLES[length] = new PlacementTable(length);
+        }
+    }
+
+    /***
+     * Длина корабля.
+     */
+    private final int length;
+    /***
+     * Количество позиций.
+     */
+    private final int count;
+    /***
+     * Клетки позиций: клетки позиции p лежат в [p * length, (p + 1) * length)
+     * по возрастанию номера.
+     */
+    private final int[] cells;
+    /***
+     * Признак вертикальной позиции.
+     */
+    private final boolean[] vertical;
+    private final long[] maskLo;
+    private final long[] maskHi;
+    private final long[] haloLo;
+    private final long[] haloHi;
+    /***
+     * Номера позиций, накрывающих клетку: byCell[cell].
+     */
+    private final int[][] byCell;
+
+    private PlacementTable(int length) {
+        this.length = length;
+        int lines = Board.SIZE * (Board.SIZE - length + 1);
+        // однопалубный корабль в обеих ориентациях занимает одни и те же клетки.
+        int capacity = length == 1 ? lines : 2 * lines;
+        this.count = capacity;
+        this.cells = new int[capacity * length];
+        this.vertical = new boolean[capacity];
+        this.maskLo = new long[capacity];
+        this.maskHi = new long[capacity];
+        this.haloLo = new long[capacity];
+        this.haloHi = new long[capacity];
+
+        int[] coverage = new int[CELLS];
+        int p = 0;
+        for (int orientation = 0; orientation < (length == 1 ? 1 : 2); orientation++) {
+            boolean down = orientation == 1;
+            for (int row = 0; row < (down ? Board.SIZE - length + 1 : Board.SIZE); row++) {
+                for (int column = 0; column < (down ? Board.SIZE : Board.SIZE - length + 1); column++) {
+                    this.vertical[p] = down;
+                    for (int i = 0; i < length; i++) {
+                        int cell = down ? (row + i) * Board.SIZE + column : row * Board.SIZE + column + i;
+                        this.cells[p * length + i] = cell;
+                        coverage[cell]++;
+                        if (cell < 64) {
+                            this.maskLo[p] |= 1L << cell;
+                        } else {
+                            this.maskHi[p] |= 1L << (cell - 64);
+                        }
+                    }
+                    fillHalo(p, row, column, down);
+                    p++;
+                }
+            }
+        }
+
+        this.byCell = new int[CELLS][];
+        for (int cell = 0; cell < CELLS; cell++) {
+            this.byCell[cell] = new int[coverage[cell]];
+        }
+        Arrays.fill(coverage, 0);
+        for (p = 0; p < capacity; p++) {
+            for (int i = 0; i < length; i++) {
+                int cell = this.cells[p * length + i];
+                this.byCell[cell][coverage[cell]++] = p;
+            }
+        }
+    }
+
+    /***
+     * Заполняет маску окружения позиции: прямоугольник вокруг корабля без клеток
+     * самого корабля.
+     */
+    private void fillHalo(int p, int row, int column, boolean down) {
+        int lastRow = down ? row + this.length - 1 : row;
+        int lastColumn = down ? column : column + this.length - 1;
+        for (int i = Math.max(row - 1, 0); i <= Math.min(lastRow + 1, Board.SIZE - 1); i++) {
+            for (int j = Math.max(column - 1, 0); j <= Math.min(lastColumn + 1, Board.SIZE - 1); j++) {
+                int cell = i * Board.SIZE + j;
+                if (cell < 64) {
+                    this.haloLo[p] |= 1L << cell;
+                } else {
+                    this.haloHi[p] |= 1L << (cell - 64);
+                }
+            }
+        }
+        this.haloLo[p] &= ~this.maskLo[p];
+        this.haloHi[p] &= ~this.maskHi[p];
+    }
+
+    /***
+     * Таблица позиций корабля.
+     * @param length длина корабля: от 1 до MAX_LENGTH.
+     * @return таблица позиций.
+     */
+    public static PlacementTable forLength(int length) {
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Нет таблицы для корабля длины " + length);
+        }
+        return TABLES[length];
+    }
+
+    public int getLength() {
+        return this.length;
+    }
+
+    /***
+     * @return количество позиций корабля.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /***
+     * Клетка позиции.
+     * @param placement номер позиции.
+     * @param index номер клетки в позиции: от 0 до length - 1.
+     * @return номер клетки на доске.
+     */
+    public int cell(int placement, int index) {
+        return this.cells[placement * this.length + index];
+    }
+
+    /***
+     * Первая (левая или верхняя) клетка позиции.
+     * @param placement номер позиции.
+     * @return номер клетки на доске.
+     */
+    public int firstCell(int placement) {
+        return this.cells[placement * this.length];
+    }
+
+    public boolean isVertical(int placement) {
+        return this.vertical[placement];
+    }
+
+    public long maskLo(int placement) {
+        return this.maskLo[placement];
+    }
+
+    public long maskHi(int placement) {
+        return this.maskHi[placement];
+    }
+
+    public long haloLo(int placement) {
+        return this.haloLo[placement];
+    }
+
+    public long haloHi(int placement) {
+        return this.haloHi[placement];
+    }
+
+    /***
+     * Позиции, накрывающие клетку. Возвращается внутренний массив, изменять его нельзя.
+     * @param cell номер клетки.
+     * @return номера позиций.
+     */
+    public int[] coveringCell(int cell) {
+        return this.byCell[cell];
+    }
+
+}
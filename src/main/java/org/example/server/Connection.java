@@ -0,0 +1,231 @@
+package org.example.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/***
+ * Соединение игрока с сервером.
+ * Входящие байты собираются в строки, которые передаются партии или, для
+ * соединения зрителя, объекту Watcher. Исходящие
+ * сообщения записываются в неблокирующий канал сразу, а то, что клиент не успел
+ * принять, копится в буфере и дописывается, когда канал станет готов к записи.
+ * Буфер ограничен MAX_PENDING байтами: клиент, который не читает ответы,
+ * отключается, а не задерживает поток сервера и другие партии.
+ * Все методы вызываются только из потока селектора.
+ */
+final class Connection {
+
+    /***
+     * Максимальная длина входной строки.
+     */
+    static final int MAX_LINE = 1024;
+    /***
+     * Максимальный объем неотправленных данных.
+     */
+    static final int MAX_PENDING = 64 * 1024;
+    private static final int INITIAL_OUTPUT = 1024;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ByteBuffer input = ByteBuffer.allocate(MAX_LINE);
+    /***
+     * Неотправленные данные в режиме записи в буфер.
+     */
+    private ByteBuffer output = ByteBuffer.allocate(INITIAL_OUTPUT);
+    /***
+     * Партия и номер игрока в ней; null, пока соперник не найден.
+     */
+    private Session session;
+    private int player;
+    /***
+     * Зритель, которому передаются строки, если это соединение зрителя.
+     */
+    private Watcher watcher;
+    /***
+     * Закрыть соединение, как только будут отправлены все данные.
+     */
+    private boolean closing;
+    private boolean closed;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    void join(Session session, int player) {
+        this.session = session;
+        this.player = player;
+    }
+
+    void watch(Watcher watcher) {
+        this.watcher = watcher;
+    }
+
+    /***
+     * Читает доступные байты и передает партии полные строки.
+     */
+    void read() {
+        int count;
+        try {
+            count = this.channel.read(this.input);
+        } catch (IOException e) {
+            count = -1;
+        }
+        if (count < 0) {
+            close();
+            return;
+        }
+        processLines();
+    }
+
+    /***
+     * Передает партии полные строки из входного буфера. Пока соперник не найден,
+     * строки остаются в буфере и обрабатываются после начала партии.
+     */
+    void processLines() {
+        if (this.session == null && this.watcher == null) {
+            if (!this.input.hasRemaining()) {
+                close();
+            }
+            return;
+        }
+        byte[] bytes = this.input.array();
+        int start = 0;
+        int end = this.input.position();
+        for (int i = 0; i < end && !this.closed; i++) {
+            if (bytes[i] == '\n') {
+                int length = i > start && bytes[i - 1] == '\r' ? i - 1 - start : i - start;
+                String line = new String(bytes, start, length, StandardCharsets.UTF_8);
+                start = i + 1;
+                if (this.watcher != null) {
+                    this.watcher.onLine(line);
+                } else {
+                    this.session.onLine(this.player, line);
+                }
+            }
+        }
+        if (this.closed) {
+            return;
+        }
+        this.input.position(start).limit(end);
+        this.input.compact();
+        if (!this.input.hasRemaining()) {
+            // строка длиннее MAX_LINE: клиент не говорит на протоколе игры.
+            close();
+        }
+    }
+
+    /***
+     * Отправляет текст клиенту. Если клиент не успевает принимать данные и
+     * неотправленного становится больше MAX_PENDING, соединение закрывается.
+     * @param text сообщение.
+     */
+    void send(String text) {
+        if (this.closed || this.closing) {
+            return;
+        }
+        send(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /***
+     * Отправляет клиенту готовые байты, например общий для всех зрителей кадр
+     * трансляции, без промежуточной строки.
+     * @param data байты от позиции до границы буфера; позиция буфера сдвигается.
+     */
+    void send(ByteBuffer data) {
+        if (this.closed || this.closing) {
+            return;
+        }
+        int length = data.remaining();
+        if (this.output.remaining() < length) {
+            int required = this.output.position() + length;
+            if (required > MAX_PENDING) {
+                close();
+                return;
+            }
+            int capacity = this.output.capacity();
+            while (capacity < required) {
+                capacity *= 2;
+            }
+            ByteBuffer grown = ByteBuffer.allocate(Math.min(capacity, MAX_PENDING));
+            this.output.flip();
+            grown.put(this.output);
+            this.output = grown;
+        }
+        this.output.put(data);
+        flush();
+    }
+
+    /***
+     * Дописывает накопленные данные, пока канал их принимает.
+     */
+    void flush() {
+        if (this.closed) {
+            return;
+        }
+        this.output.flip();
+        try {
+            this.channel.write(this.output);
+        } catch (IOException e) {
+            close();
+            return;
+        } finally {
+            this.output.compact();
+        }
+        if (this.output.position() > 0) {
+            this.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } else if (this.closing) {
+            close();
+        } else {
+            this.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /***
+     * Закрывает соединение после отправки уже накопленных данных.
+     */
+    void closeAfterFlush() {
+        if (this.closed) {
+            return;
+        }
+        this.closing = true;
+        flush();
+    }
+
+    /***
+     * Закрывает соединение немедленно и сообщает об этом партии.
+     */
+    void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.key.cancel();
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            // соединение уже разорвано.
+        }
+        if (this.session != null) {
+            this.session.onDisconnect(this.player);
+        }
+        if (this.watcher != null) {
+            this.watcher.onDisconnect();
+        }
+    }
+
+    boolean isClosed() {
+        return this.closed;
+    }
+
+    /***
+     * @return количество байт, которые клиент еще не принял.
+     */
+    int pending() {
+        return this.output.position();
+    }
+
+}
@@ -0,0 +1,323 @@
+package org.example.server;
+
+import org.example.journal.MoveJournal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/***
+ * TCP-сервер, на котором одновременно идет множество партий.
+ * Подключившиеся клиенты объединяются в пары по порядку подключения, каждая пара
+ * играет свою партию Session по тому же текстовому протоколу, что и консольная
+ * игра: имя, координаты кораблей вида "a7 a8 a9", координаты выстрелов.
+ * Все соединения обслуживает один поток с селектором NIO и неблокирующими
+ * каналами: ожидающий хода игрок не занимает поток, а медленный клиент только
+ * копит ограниченный буфер исходящих данных и отключается при его переполнении.
+ * Ошибка при обслуживании одного соединения, в том числе исключение из партии,
+ * закрывает только это соединение (соперник получает сообщение об отключении),
+ * а ошибка при приеме соединения - только принимаемый канал; поток селектора
+ * продолжает работу. Останавливает сервер только отказ самого селектора.
+ * Если задан адрес трансляций, на нем принимаются зрители Watcher: зритель
+ * выбирает идущую партию по номеру и получает кадры ее SpectatorFeed.
+ * Для проверок сервер можно запустить на порту 0 и узнать выбранный порт через
+ * getPort().
+ */
+public class GameServer implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(GameServer.class.getName());
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    /***
+     * Серверный сокет зрителей или null.
+     */
+    private final ServerSocketChannel spectators;
+    /***
+     * Журнал ходов или null.
+     */
+    private final MoveJournal journal;
+    /***
+     * Клиент, ожидающий соперника.
+     */
+    private Connection waiting;
+    /***
+     * Идущие партии по номерам и подключенные зрители; используются только
+     * потоком селектора.
+     */
+    private final Map<Integer, Session> sessions = new HashMap<>();
+    private final List<Watcher> watchers = new ArrayList<>();
+    private int nextGame = 1;
+    private Thread thread;
+    private volatile boolean running;
+
+    /***
+     * Открывает серверный сокет. Соединения принимаются после вызова start().
+     * @param address адрес для прослушивания; порт 0 - любой свободный порт.
+     * @throws IOException если сокет не удалось открыть.
+     */
+    public GameServer(InetSocketAddress address) throws IOException {
+        this(address, null);
+    }
+
+    /***
+     * Открывает серверный сокет, партии которого записываются в журнал ходов.
+     * Журнал не закрывается вместе с сервером. Незавершенные партии, восстановленные
+     * журналом, сервер отмечает оконченными: игроки анонимны, и после перезапуска
+     * вернуться в свою партию им нечем.
+     * @param address адрес для прослушивания; порт 0 - любой свободный порт.
+     * @param journal журнал ходов или null.
+     * @throws IOException если сокет не удалось открыть.
+     */
+    public GameServer(InetSocketAddress address, MoveJournal journal) throws IOException {
+        this(address, journal, null);
+    }
+
+    /***
+     * Открывает серверный сокет игроков и, если задан адрес, сокет зрителей.
+     * @param address адрес для прослушивания; порт 0 - любой свободный порт.
+     * @param journal журнал ходов или null.
+     * @param spectatorAddress адрес трансляций или null.
+     * @throws IOException если сокет не удалось открыть.
+     * @throws IllegalStateException если в журнале нет места под окончание
+     * восстановленных партий.
+     */
+    public GameServer(InetSocketAddress address, MoveJournal journal, InetSocketAddress spectatorAddress)
+            throws IOException {
+        this.journal = journal;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        ServerSocketChannel spectators = null;
+        try {
+            listen(this.server, address);
+            if (spectatorAddress != null) {
+                spectators = ServerSocketChannel.open();
+                listen(spectators, spectatorAddress);
+            }
+            if (journal != null) {
+                int abandoned = journal.finishRecovered();
+                if (abandoned > 0) {
+                    LOGGER.info("Восстановленных партий отмечено оконченными: " + abandoned);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (spectators != null) {
+                spectators.close();
+            }
+            this.server.close();
+            this.selector.close();
+            throw e;
+        }
+        this.spectators = spectators;
+    }
+
+    private void listen(ServerSocketChannel channel, InetSocketAddress address) throws IOException {
+        channel.bind(address);
+        channel.configureBlocking(false);
+        channel.register(this.selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /***
+     * @return порт, на котором сервер принимает соединения.
+     */
+    public int getPort() {
+        return this.server.socket().getLocalPort();
+    }
+
+    /***
+     * @return порт трансляций или -1, если сервер открыт без него.
+     */
+    public int getSpectatorPort() {
+        return this.spectators == null ? -1 : this.spectators.socket().getLocalPort();
+    }
+
+    /***
+     * Запускает поток селектора.
+     */
+    public synchronized void start() {
+        if (this.thread != null) {
+            throw new IllegalStateException("Сервер уже запущен");
+        }
+        this.running = true;
+        this.thread = new Thread(this::serve, "game-server");
+        this.thread.start();
+    }
+
+    /***
+     * Останавливает поток селектора и закрывает все соединения.
+     */
+    @Override
+    public void close() throws IOException {
+        Thread serving;
+        synchronized (this) {
+            this.running = false;
+            serving = this.thread;
+        }
+        this.selector.wakeup();
+        if (serving != null) {
+            try {
+                serving.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (SelectionKey key : this.selector.keys()) {
+            key.channel().close();
+        }
+        this.selector.close();
+    }
+
+    private void serve() {
+        while (this.running) {
+            try {
+                this.selector.select();
+            } catch (IOException e) {
+                throw new IllegalStateException("Ошибка селектора сервера", e);
+            }
+            Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept((ServerSocketChannel) key.channel());
+                    continue;
+                }
+                Connection connection = (Connection) key.attachment();
+                try {
+                    if (key.isReadable()) {
+                        connection.read();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.flush();
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Ошибка при обслуживании соединения, соединение закрыто", e);
+                    drop(connection);
+                }
+            }
+            this.sessions.values().removeIf(Session::isOver);
+            pumpWatchers();
+        }
+    }
+
+    /***
+     * Отправляет зрителям новые кадры трансляций и забывает отключившихся.
+     */
+    private void pumpWatchers() {
+        Iterator<Watcher> watchers = this.watchers.iterator();
+        while (watchers.hasNext()) {
+            Watcher watcher = watchers.next();
+            try {
+                watcher.pump();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Ошибка трансляции, соединение зрителя закрыто", e);
+                watcher.close();
+            }
+            if (watcher.isClosed()) {
+                watchers.remove();
+            }
+        }
+    }
+
+    /***
+     * Принимает все ожидающие соединения. Ошибка настройки канала закрывает
+     * только этот канал; ошибка самого приема откладывает прием до следующего
+     * срабатывания селектора.
+     */
+    private void accept(ServerSocketChannel server) {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Не удалось принять соединение", e);
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            Connection connection;
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+                connection = new Connection(channel, key);
+                key.attach(connection);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Не удалось настроить соединение, соединение закрыто", e);
+                try {
+                    channel.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                continue;
+            }
+            try {
+                if (server == this.spectators) {
+                    Watcher watcher = new Watcher(connection, this.sessions);
+                    this.watchers.add(watcher);
+                    watcher.start();
+                } else {
+                    pair(connection);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Ошибка при начале партии, соединение закрыто", e);
+                drop(connection);
+            }
+        }
+    }
+
+    /***
+     * Ставит соединение в ожидание соперника или начинает партию с ожидающим.
+     */
+    private void pair(Connection connection) {
+        if (this.waiting == null || this.waiting.isClosed()) {
+            this.waiting = connection;
+            connection.send("Ожидание соперника...\n");
+            return;
+        }
+        Connection first = this.waiting;
+        this.waiting = null;
+        Session session;
+        try {
+            session = new Session(this.nextGame++, first, connection, this.journal);
+        } catch (IllegalStateException e) {
+            // журнал ходов заполнен: новые партии не начинаются, идущие продолжаются.
+            for (Connection player : new Connection[]{first, connection}) {
+                player.send("Сервер не может начать партию: журнал ходов заполнен.\n");
+                player.closeAfterFlush();
+            }
+            return;
+        }
+        this.sessions.put(session.getNumber(), session);
+        session.start();
+    }
+
+    /***
+     * Закрывает соединение после ошибки. Если ошибка возникла в партии и повторяется
+     * при оповещении соперника, соединение все равно остается закрытым.
+     */
+    private static void drop(Connection connection) {
+        try {
+            connection.close();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Ошибка при закрытии соединения", e);
+        }
+    }
+
+}
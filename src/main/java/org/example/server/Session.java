@@ -0,0 +1,319 @@
+package org.example.server;
+
+import org.example.board.Board;
+import org.example.board.BoardRenderer;
+import org.example.board.Cell;
+import org.example.engine.GameEngine;
+import org.example.engine.ShotResult;
+import org.example.exception.CoordinateIsInvalidException;
+import org.example.exception.InvalidCoordinatesCountException;
+import org.example.exception.ShipPlacementInvalidException;
+import org.example.journal.MoveJournal;
+import org.example.placement.FleetGenerator;
+import org.example.ship.Ship;
+import org.example.spectator.SpectatorFeed;
+
+/***
+ * Партия двух сетевых игроков.
+ * Повторяет ход консольной игры Game, но управляется событиями: каждая строка
+ * от клиента разбивается на слова, и слова обрабатываются в зависимости от
+ * этапа партии. Сначала игрок называет себя, затем расставляет флот (игроки
+ * делают это одновременно), затем игроки стреляют по очереди, которую
+ * определяет GameEngine.
+ * Если сервер ведет журнал ходов, доски партии записывают в него постановки и
+ * удары, а окончание партии отмечается в журнале. Место под запись каждого
+ * хода резервируется до хода; если журнал заполнен, партия прерывается, не
+ * сделав хода, который нельзя записать.
+ * Когда оба флота расставлены, партия начинает трансляцию SpectatorFeed: ее
+ * слушатели добавляются на доски после слушателей журнала, и зрители сервера
+ * (Watcher) подписываются на нее по номеру партии.
+ * Все методы вызываются только из потока селектора, поэтому синхронизация не нужна.
+ */
+final class Session {
+
+    private static final int[] FLEET = FleetGenerator.STANDARD_FLEET;
+    private static final String[] SHIP_NAMES = {
+            null, "торпедного катера", "эсминца", "крейсера", "линкора"
+    };
+
+    private final Connection[] players;
+    private final String[] names = new String[2];
+    private final Board[] boards = {new Board(), new Board()};
+    private final BoardRenderer[] privateViews = new BoardRenderer[2];
+    private final BoardRenderer[] publicViews = new BoardRenderer[2];
+    /***
+     * Количество поставленных кораблей каждого игрока.
+     */
+    private final int[] placed = new int[2];
+    /***
+     * Введенные координаты корабля, который ставится сейчас.
+     */
+    private final String[][] coordinates = new String[2][];
+    private final int[] coordinateCount = new int[2];
+    private GameEngine engine;
+    private boolean over;
+    /***
+     * Журнал ходов и номер партии в нем; journal равен null, если журнал не ведется.
+     */
+    private final MoveJournal journal;
+    private final int id;
+    /***
+     * Номер партии на сервере и трансляция; feed равен null, пока флоты не расставлены.
+     */
+    private final int number;
+    private SpectatorFeed feed;
+
+    /***
+     * @throws IllegalStateException если журнал ходов заполнен; к соединениям
+     * партия в этом случае не присоединяется.
+     */
+    Session(int number, Connection first, Connection second, MoveJournal journal) {
+        this.number = number;
+        this.players = new Connection[]{first, second};
+        this.journal = journal;
+        this.id = journal == null ? 0 : journal.newGame();
+        for (int player = 0; player < 2; player++) {
+            if (journal != null) {
+                this.boards[player].addListener(journal.listener(this.id, player));
+            }
+            this.privateViews[player] = new BoardRenderer(this.boards[player], false);
+            this.publicViews[player] = new BoardRenderer(this.boards[player], true);
+            this.players[player].join(this, player);
+        }
+    }
+
+    void start() {
+        for (Connection connection : this.players) {
+            connection.send("Соперник найден!\nУкажите ваше имя: ");
+        }
+        for (Connection connection : this.players) {
+            connection.processLines();
+        }
+    }
+
+    /***
+     * Обрабатывает строку, полученную от игрока.
+     * @param player номер игрока.
+     * @param line строка без перевода строки.
+     */
+    void onLine(int player, String line) {
+        if (this.over) {
+            return;
+        }
+        if (this.names[player] == null) {
+            String name = line.strip();
+            this.names[player] = name.isEmpty() ? "Игрок " + (player + 1) : name;
+            this.players[player].send(this.names[player] + ", ваш черед расставлять корабли!\n");
+            promptShip(player);
+            return;
+        }
+        int length = line.length();
+        int i = 0;
+        while (i < length && !this.over) {
+            while (i < length && Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                onToken(player, line.substring(start, i));
+            }
+        }
+    }
+
+    /***
+     * Завершает партию, если один из игроков отключился.
+     * @param player номер отключившегося игрока.
+     */
+    void onDisconnect(int player) {
+        if (this.over) {
+            return;
+        }
+        finish();
+        Connection opponent = this.players[1 - player];
+        opponent.send("\nСоперник отключился. Игра окончена.\n");
+        opponent.closeAfterFlush();
+    }
+
+    int getNumber() {
+        return this.number;
+    }
+
+    /***
+     * @return трансляция партии или null, если флоты еще не расставлены.
+     */
+    SpectatorFeed getFeed() {
+        return this.feed;
+    }
+
+    boolean isOver() {
+        return this.over;
+    }
+
+    /***
+     * @return имена игроков для списка партий, например "Алиса - Боб".
+     */
+    String describe() {
+        return this.names[0] + " - " + this.names[1];
+    }
+
+    private void finish() {
+        this.over = true;
+        if (this.journal != null) {
+            this.journal.finish(this.id);
+        }
+    }
+
+    /***
+     * Резервирует в журнале место под запись следующего хода. Если журнал
+     * заполнен, партия прерывается до хода: доски остаются согласованы с журналом.
+     * @return false, если ход делать нельзя.
+     */
+    private boolean reserveRecord() {
+        if (this.journal == null || this.journal.reserve(1)) {
+            return true;
+        }
+        finish();
+        for (Connection connection : this.players) {
+            connection.send("\nЖурнал ходов сервера заполнен. Игра прервана.\n");
+            connection.closeAfterFlush();
+        }
+        return false;
+    }
+
+    private void releaseRecord() {
+        if (this.journal != null) {
+            this.journal.release(1);
+        }
+    }
+
+    private void onToken(int player, String token) {
+        if (this.placed[player] < FLEET.length) {
+            addCoordinate(player, token);
+        } else if (this.engine == null) {
+            this.players[player].send("Дождитесь, пока соперник расставит корабли.\n");
+        } else if (this.engine.getTurn() != player) {
+            this.players[player].send("Сейчас ход соперника.\n");
+        } else {
+            attack(player, token);
+        }
+    }
+
+    private void addCoordinate(int player, String token) {
+        int length = FLEET[this.placed[player]];
+        if (this.coordinates[player] == null || this.coordinates[player].length != length) {
+            this.coordinates[player] = new String[length];
+        }
+        this.coordinates[player][this.coordinateCount[player]++] = token;
+        if (this.coordinateCount[player] < length) {
+            return;
+        }
+        this.coordinateCount[player] = 0;
+
+        if (!reserveRecord()) {
+            return;
+        }
+        Connection connection = this.players[player];
+        String error = null;
+        try {
+            this.boards[player].addShip(Ship.ofLength(length), this.coordinates[player]);
+        } catch (InvalidCoordinatesCountException e) {
+            error = "Введено неверное количество координат. Повторите попытку: ";
+        } catch (CoordinateIsInvalidException e) {
+            error = "Введено неверное значение координаты. Повторите попытку: ";
+        } catch (ShipPlacementInvalidException e) {
+            error = "Корабль не может быть поставлен по переданным координатам. Повторите попытку: ";
+        }
+        if (error != null) {
+            // корабль не поставлен, и записи в журнале не будет.
+            releaseRecord();
+            connection.send(error);
+            return;
+        }
+
+        if (++this.placed[player] < FLEET.length) {
+            promptShip(player);
+            return;
+        }
+        connection.send(this.privateViews[player].render());
+        if (this.placed[1 - player] < FLEET.length) {
+            connection.send("Ожидание соперника...\n");
+            return;
+        }
+        this.engine = new GameEngine(this.boards[0], this.boards[1]);
+        this.feed = new SpectatorFeed(this.names[0], this.boards[0], this.names[1], this.boards[1]);
+        for (int i = 0; i < 2; i++) {
+            this.boards[i].addListener(this.feed.listener(i));
+        }
+        promptTurn();
+    }
+
+    /***
+     * Выводит доску и предлагает ввести координаты следующего корабля, как в Game.placeShips.
+     */
+    private void promptShip(int player) {
+        int ship = this.placed[player];
+        int length = FLEET[ship];
+        int number = 1;
+        for (int i = 0; i < ship; i++) {
+            if (FLEET[i] == length) {
+                number++;
+            }
+        }
+        String points = length == 1 ? "точки" : length + (length == 2 ? "-ух" : "-ёх") + " точек";
+        String order = length == FLEET[0] ? "" : number + "-го ";
+        this.players[player].send(this.privateViews[player].render()
+                + "Введите координаты " + points + " для постановки " + order + SHIP_NAMES[length] + ": ");
+    }
+
+    private void promptTurn() {
+        int shooter = this.engine.getTurn();
+        this.players[shooter].send(this.names[shooter] + ", твой ход!\n"
+                + this.publicViews[1 - shooter].render() + "Введите координаты точки для атаки: ");
+        this.players[1 - shooter].send("Ход игрока " + this.names[shooter] + "...\n");
+    }
+
+    private void attack(int player, String token) {
+        int cell = this.boards[1 - player].parseCell(token);
+        if (cell == Board.INVALID_CELL) {
+            this.players[player].send("Введено неверное значение координаты. Повторите попытку: ");
+            return;
+        }
+        if (!reserveRecord()) {
+            return;
+        }
+        // повторный удар доску не меняет, и слушатель журнала его не запишет, а
+        // очередь хода он меняет так же, как первый: записываем его сами.
+        boolean repeated = this.boards[1 - player].getPublicStatus(cell) != Cell.Status.EMPTY;
+        ShotResult result = this.engine.fire(cell);
+        if (repeated && this.journal != null) {
+            this.journal.repeatedAttack(this.id, 1 - player, cell);
+        }
+        String message = switch (result.getStatus()) {
+            case HIT -> "Есть попадание!\n";
+            case SUNKEN -> "Уничтожен!\n";
+            default -> "Промах!\n";
+        };
+        this.players[player].send(message);
+        this.players[1 - player].send(this.names[player] + " стреляет в " + token + ". " + message);
+
+        if (result.isGameOver()) {
+            finish();
+            String winner = "Победитель: !!! " + this.names[result.getWinner()] + " !!!\n";
+            for (Connection connection : this.players) {
+                connection.send(winner);
+                connection.closeAfterFlush();
+            }
+            return;
+        }
+        if (result.getNextTurn() != player) {
+            promptTurn();
+        } else {
+            this.players[player].send(this.publicViews[1 - player].render()
+                    + "Введите координаты точки для атаки: ");
+        }
+    }
+
+}
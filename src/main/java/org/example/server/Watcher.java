@@ -0,0 +1,122 @@
+package org.example.server;
+
+import org.example.spectator.Frame;
+import org.example.spectator.SpectatorFeed;
+import org.example.spectator.Subscription;
+
+import java.util.Map;
+
+/***
+ * Зритель, подключившийся к порту трансляций сервера.
+ * Получает список идущих партий, выбирает партию по номеру и подписывается на ее
+ * SpectatorFeed. Кадры трансляции отправляются клиенту как есть, без
+ * перекодирования. Новые кадры забираются из подписки, только пока клиент успевает
+ * принимать уже отправленное: у медленного зрителя копятся не байты в буфере
+ * соединения, а кадры в подписке, которые сворачиваются в последнее состояние досок.
+ * Когда партия окончена и все ее кадры отправлены, соединение закрывается.
+ * Все методы вызываются только из потока селектора.
+ */
+final class Watcher {
+
+    /***
+     * Сколько неотправленных байт допускается перед чтением следующего кадра.
+     */
+    private static final int BACKLOG = Connection.MAX_PENDING / 4;
+
+    private final Connection connection;
+    /***
+     * Идущие партии сервера по номерам.
+     */
+    private final Map<Integer, Session> sessions;
+    private Session session;
+    private Subscription subscription;
+
+    Watcher(Connection connection, Map<Integer, Session> sessions) {
+        this.connection = connection;
+        this.sessions = sessions;
+        connection.watch(this);
+    }
+
+    void start() {
+        promptGame();
+        this.connection.processLines();
+    }
+
+    /***
+     * Обрабатывает строку зрителя: номер партии, пока подписки нет.
+     */
+    void onLine(String line) {
+        if (this.subscription != null) {
+            return;
+        }
+        Session session;
+        try {
+            session = this.sessions.get(Integer.parseInt(line.strip()));
+        } catch (NumberFormatException e) {
+            session = null;
+        }
+        SpectatorFeed feed = session == null || session.isOver() ? null : session.getFeed();
+        if (feed == null) {
+            this.connection.send("Нет идущей партии с таким номером.\n");
+            promptGame();
+            return;
+        }
+        this.session = session;
+        this.subscription = feed.subscribe();
+        this.connection.send("Трансляция партии " + session.describe() + "\n");
+        pump();
+    }
+
+    /***
+     * Отправляет зрителю новые кадры, пока клиент успевает их принимать.
+     */
+    void pump() {
+        if (this.subscription == null || this.connection.isClosed()) {
+            return;
+        }
+        while (this.connection.pending() < BACKLOG) {
+            Frame frame = this.subscription.poll();
+            if (frame == null) {
+                if (this.session.isOver()) {
+                    this.subscription.close();
+                    this.subscription = null;
+                    this.connection.send("Игра окончена.\n");
+                    this.connection.closeAfterFlush();
+                }
+                return;
+            }
+            this.connection.send(frame.getData());
+        }
+    }
+
+    void onDisconnect() {
+        if (this.subscription != null) {
+            this.subscription.close();
+            this.subscription = null;
+        }
+    }
+
+    void close() {
+        this.connection.close();
+    }
+
+    boolean isClosed() {
+        return this.connection.isClosed();
+    }
+
+    private void promptGame() {
+        StringBuilder text = new StringBuilder("Идущие партии:");
+        boolean any = false;
+        for (Session game : this.sessions.values()) {
+            if (game.getFeed() != null && !game.isOver()) {
+                text.append("\n  ").append(game.getNumber()).append(". ").append(game.describe());
+                any = true;
+            }
+        }
+        if (!any) {
+            text.append(" нет");
+        }
+        this.connection.send(text.append("\nВведите номер партии: ").toString());
+    }
+
+}
@@ -34,6 +34,22 @@ public abstract class Ship {
         return hits >= length;
     }
 
+    /***
+     * Создает корабль нужного типа по его длине.
+     * @param length количество клеток корабля: от 1 до 4.
+     * @return торпедный катер, эсминец, крейсер или линкор.
+     * @throws IllegalArgumentException если корабля такой длины нет.
+     */
+    public static Ship ofLength(int length) {
+        return switch (length) {
+            case 1 -> new TorpedoBoat();
+            case 2 -> new Destroyer();
+            case 3 -> new Cruiser();
+            case 4 -> new Battleship();
+            default -> throw new IllegalArgumentException("Нет корабля длины " + length);
+        };
+    }
+
     public int getLength() {
         return this.length;
     }
@@ -0,0 +1,91 @@
+package org.example.simulation;
+
+/***
+ * Итоги серии партий между двумя стратегиями.
+ * Стратегии обозначаются номерами 0 и 1 в порядке передачи в SimulationRunner.
+ */
+public class SimulationReport {
+
+    /***
+     * Названия стратегий.
+     */
+    private final String[] names;
+    /***
+     * Количество сыгранных партий.
+     */
+    private final long games;
+    /***
+     * Количество побед каждой стратегии.
+     */
+    private final long[] wins;
+    /***
+     * Суммарное количество выстрелов, сделанных победителями.
+     */
+    private final long winnerShots;
+    /***
+     * Время выполнения серии в наносекундах.
+     */
+    private final long elapsedNanos;
+
+    SimulationReport(String[] names, long games, long[] wins, long winnerShots, long elapsedNanos) {
+        this.names = names;
+        this.games = games;
+        this.wins = wins;
+        this.winnerShots = winnerShots;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() {
+        return this.games;
+    }
+
+    public String getName(int strategy) {
+        return this.names[strategy];
+    }
+
+    public long getWins(int strategy) {
+        return this.wins[strategy];
+    }
+
+    /***
+     * Доля побед стратегии.
+     * @param strategy номер стратегии: 0 или 1.
+     * @return доля побед от 0 до 1.
+     */
+    public double getWinRate(int strategy) {
+        return this.games == 0 ? 0 : (double) this.wins[strategy] / this.games;
+    }
+
+    /***
+     * Среднее количество выстрелов, которое понадобилось победителю.
+     * @return среднее число выстрелов до победы.
+     */
+    public double getAverageShotsToWin() {
+        return this.games == 0 ? 0 : (double) this.winnerShots / this.games;
+    }
+
+    /***
+     * Пропускная способность симуляции.
+     * @return количество партий в секунду.
+     */
+    public double getGamesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.games * 1e9 / this.elapsedNanos;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Партий: %d за %.3f с (%.0f партий/с)%n"
+                        + "Среднее число выстрелов до победы: %.2f%n"
+                        + "%s: %.2f%% побед%n"
+                        + "%s: %.2f%% побед",
+                this.games, this.elapsedNanos / 1e9, getGamesPerSecond(),
+                getAverageShotsToWin(),
+                this.names[0], getWinRate(0) * 100,
+                this.names[1], getWinRate(1) * 100);
+    }
+
+}
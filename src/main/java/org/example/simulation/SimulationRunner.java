@@ -0,0 +1,219 @@
+package org.example.simulation;
+
+import org.example.ai.Strategy;
+import org.example.archive.ArchiveWriter;
+import org.example.archive.GameRecord;
+import org.example.board.Board;
+import org.example.engine.GameEngine;
+import org.example.engine.ShotResult;
+import org.example.placement.FleetGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/***
+ * Параллельный прогон партий компьютер против компьютера методом Монте-Карло.
+ * Диапазон партий делится между задачами ForkJoinPool. Каждая задача создает
+ * собственные доски, генератор расстановки и экземпляры стратегий и
+ * переиспользует их для всех своих партий, а итоги задач объединяются в конце,
+ * поэтому общего изменяемого состояния у потоков нет.
+ * Генератор случайных чисел каждой партии зависит только от начального зерна и
+ * номера партии, поэтому результат не зависит от числа потоков.
+ * Стратегии ходят первыми по очереди: в четных партиях первая, в нечетных - вторая.
+ * Сыгранные партии можно записывать в архив ArchiveWriter для последующего анализа.
+ */
+public class SimulationRunner {
+
+    /***
+     * Минимальное количество партий в одной задаче.
+     */
+    private static final int MIN_CHUNK = 256;
+    /***
+     * Множитель для получения зерна партии из ее номера.
+     */
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+    /***
+     * Фабрики стратегий: strategies.get(0) - первая стратегия, strategies.get(1) - вторая.
+     */
+    private final List<Supplier<? extends Strategy>> strategies;
+    /***
+     * Количество потоков.
+     */
+    private final int parallelism;
+
+    /***
+     * Создает прогон на всех доступных ядрах.
+     * @param first фабрика первой стратегии.
+     * @param second фабрика второй стратегии.
+     */
+    public SimulationRunner(Supplier<? extends Strategy> first, Supplier<? extends Strategy> second) {
+        this(first, second, Runtime.getRuntime().availableProcessors());
+    }
+
+    /***
+     * @param first фабрика первой стратегии.
+     * @param second фабрика второй стратегии.
+     * @param parallelism количество потоков.
+     */
+    public SimulationRunner(Supplier<? extends Strategy> first, Supplier<? extends Strategy> second,
+                            int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным");
+        }
+        this.strategies = List.of(first, second);
+        this.parallelism = parallelism;
+    }
+
+    /***
+     * Играет серию партий.
+     * @param games количество партий.
+     * @param seed начальное зерно генератора случайных чисел.
+     * @return итоги серии.
+     */
+    public SimulationReport run(long games, long seed) {
+        try {
+            return run(games, seed, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /***
+     * Играет серию партий и записывает их в архив.
+     * @param games количество партий.
+     * @param seed начальное зерно генератора случайных чисел.
+     * @param archive архив для завершенных партий или null.
+     * @return итоги серии.
+     * @throws IOException если партию не удалось записать в архив.
+     */
+    public SimulationReport run(long games, long seed, ArchiveWriter archive) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            long chunk = Math.max(MIN_CHUNK, games / (this.parallelism * 8L));
+            long start = System.nanoTime();
+            Totals totals;
+            try {
+                totals = pool.invoke(new Batch(0, games, chunk, seed, archive));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            long elapsed = System.nanoTime() - start;
+            String[] names = {
+                    this.strategies.get(0).get().getName(), this.strategies.get(1).get().getName()
+            };
+            return new SimulationReport(names, games, totals.wins, totals.winnerShots, elapsed);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /***
+     * Итоги части серии.
+     */
+    private static final class Totals {
+
+        private final long[] wins = new long[2];
+        private long winnerShots;
+
+        private Totals merge(Totals other) {
+            this.wins[0] += other.wins[0];
+            this.wins[1] += other.wins[1];
+            this.winnerShots += other.winnerShots;
+            return this;
+        }
+    }
+
+    /***
+     * Задача, играющая партии с номерами [from, to).
+     */
+    private final class Batch extends RecursiveTask<Totals> {
+
+        private final long from;
+        private final long to;
+        private final long chunk;
+        private final long seed;
+        private final ArchiveWriter archive;
+
+        private Batch(long from, long to, long chunk, long seed, ArchiveWriter archive) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.seed = seed;
+            this.archive = archive;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (this.to - this.from > this.chunk) {
+                long middle = (this.from + this.to) >>> 1;
+                Batch left = new Batch(this.from, middle, this.chunk, this.seed, this.archive);
+                left.fork();
+                Totals right = new Batch(middle, this.to, this.chunk, this.seed, this.archive).compute();
+                return right.merge(left.join());
+            }
+
+            Board[] boards = {new Board(), new Board()};
+            Strategy[] bots = {strategies.get(0).get(), strategies.get(1).get()};
+            FleetGenerator generator = new FleetGenerator();
+            GameRecord record = this.archive == null ? null : new GameRecord();
+            Totals totals = new Totals();
+            for (long game = this.from; game < this.to; game++) {
+                play(game, boards, bots, generator, record, totals);
+            }
+            return totals;
+        }
+
+        /***
+         * Играет одну партию и добавляет ее итог в totals, а если задан архив, то
+         * записывает партию в record и архив.
+         */
+        private void play(long game, Board[] boards, Strategy[] bots, FleetGenerator generator,
+                          GameRecord record, Totals totals) {
+            SplittableRandom random = new SplittableRandom(this.seed + game * SEED_STEP);
+            generator.place(boards[0], random);
+            generator.place(boards[1], random);
+            bots[0].reset(random);
+            bots[1].reset(random);
+
+            // стратегия, которая ходит за игрока с номером players[i].
+            int firstBot = (int) (game & 1);
+            int[] players = {firstBot, 1 - firstBot};
+            int[] shots = new int[2];
+            GameEngine engine = new GameEngine(boards[0], boards[1]);
+            if (record != null) {
+                record.start(boards[0], boards[1]);
+            }
+            while (!engine.isOver()) {
+                int player = engine.getTurn();
+                Strategy bot = bots[players[player]];
+                int cell = bot.nextShot(engine.getTargetBoard());
+                ShotResult result = engine.fire(cell);
+                bot.onResult(cell, result.getStatus());
+                if (record != null) {
+                    record.shot(cell, result.getStatus());
+                }
+                if (++shots[player] > Board.SIZE * Board.SIZE) {
+                    throw new IllegalStateException("Стратегия " + bot.getName()
+                            + " повторяет выстрелы по атакованным клеткам");
+                }
+            }
+            int winner = engine.getWinner();
+            if (record != null) {
+                record.finish(winner);
+                try {
+                    this.archive.write(record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            totals.wins[players[winner]]++;
+            totals.winnerShots += shots[winner];
+        }
+    }
+
+}
@@ -0,0 +1,682 @@
+package org.example.solver;
+
+import org.example.board.Board;
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+import org.example.board.ShipExtent;
+import org.example.placement.FleetGenerator;
+import org.example.placement.PlacementTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/***
+ * Точный решатель позиции на стандартной доске: перебирает все расстановки
+ * флота, согласные с открытым состоянием доски, и считает для каждой клетки,
+ * в скольких из них она занята кораблем. Служит эталоном для оценки стратегий.
+ * Расстановка согласна с наблюдениями, если корабли не стоят на промахах и не
+ * касаются друг друга, накрывают все подбитые клетки и ни один корабль не
+ * состоит только из подбитых клеток (иначе он был бы потоплен). Потопленные
+ * корабли известны целиком (GameBoard.getSunkShip) и исключаются из перебора.
+ * Корабли перебираются по убыванию длины по таблицам PlacementTable. Занятые
+ * клетки вместе с окружением хранятся в 128-битной маске, поэтому проверка
+ * позиции - одна операция над масками. Одинаковые корабли ставятся в порядке
+ * возрастания номера позиции, чтобы каждая расстановка встречалась один раз.
+ * Результат подзадачи "поставить корабли начиная с первого корабля длины L при
+ * маске M" запоминается: к одной маске приводят разные порядки постановки более
+ * длинных кораблей. Верхние уровни перебора делятся на задачи ForkJoinPool.
+ * Перебор ограничен количеством узлов и временем. В начале партии расстановок
+ * порядка 10^13, и если бюджет исчерпан, вероятности оцениваются выборкой
+ * случайных путей по дереву перебора (оценка Кнута): путь от корня до листа
+ * выбирает каждого потомка равновероятно, а его вес - произведение количеств
+ * потомков на пути. Средний вес листа-расстановки равен количеству расстановок,
+ * поэтому отношение взвешенной занятости клетки к сумме весов - состоятельная
+ * оценка ее вероятности; пути, зашедшие в тупик, дают вес 0 и просто
+ * начинаются заново. Чтобы тупиков было мало, дерево выборки ветвится сначала
+ * по подбитым клеткам: пока есть ненакрытая подбитая клетка, потомки узла - все
+ * корабли оставшихся длин во всех позициях, накрывающих первую такую клетку.
+ * Каждая расстановка по-прежнему достигается ровно одним путем: корабль,
+ * накрывающий клетку, единственен. Остальные корабли ставятся, как в переборе,
+ * по убыванию длины.
+ * Если согласных расстановок нет, solve бросает исключение, а не возвращает
+ * нулевые вероятности.
+ */
+public class LayoutSolver {
+
+    /***
+     * Бюджет перебора по умолчанию: количество узлов и время.
+     */
+    public static final long DEFAULT_NODE_BUDGET = 50_000_000;
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 2_000;
+    /***
+     * Размер выборки по умолчанию: количество случайных путей. Веса путей в начале
+     * партии различаются на порядки, и при 200 000 путей оценки вероятностей
+     * симметричных клеток пустой доски расходятся не больше чем на 0,02.
+     */
+    public static final int DEFAULT_SAMPLES = 200_000;
+    private static final int CELLS = PlacementTable.CELLS;
+    /***
+     * Количество верхних уровней перебора, которые делятся на задачи.
+     */
+    private static final int SPLIT_DEPTH = 2;
+    /***
+     * Наибольшее количество запомненных подзадач: каждая хранит 100 счетчиков.
+     */
+    private static final int MEMO_LIMIT = 1 << 15;
+    /***
+     * Через сколько узлов задача сверяется с общим бюджетом.
+     */
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    private final int parallelism;
+    private final long nodeBudget;
+    private final long timeBudgetMillis;
+    private final int samples;
+
+    /***
+     * Создает решатель с бюджетом по умолчанию, использующий все доступные ядра.
+     */
+    public LayoutSolver() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_NODE_BUDGET,
+                DEFAULT_TIME_BUDGET_MILLIS, DEFAULT_SAMPLES);
+    }
+
+    /***
+     * @param parallelism количество потоков.
+     * @param nodeBudget наибольшее количество узлов точного перебора.
+     * @param timeBudgetMillis наибольшее время точного перебора.
+     * @param samples размер выборки, если точный перебор не уложился в бюджет.
+     */
+    public LayoutSolver(int parallelism, long nodeBudget, long timeBudgetMillis, int samples) {
+        if (parallelism < 1 || samples < 1) {
+            throw new IllegalArgumentException("Количество потоков и размер выборки должны быть положительными");
+        }
+        this.parallelism = parallelism;
+        this.nodeBudget = nodeBudget;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.samples = samples;
+    }
+
+    /***
+     * Решает позицию стандартного флота.
+     * @see #solve(GameBoard, int[], long)
+     */
+    public Solution solve(GameBoard target) {
+        return solve(target, FleetGenerator.STANDARD_FLEET, 0);
+    }
+
+    /***
+     * Считает вероятности клеток по открытому состоянию доски противника.
+     * @param target доска противника стандартного размера.
+     * @param fleet длины кораблей флота, включая потопленные.
+     * @param seed зерно выборки на случай, если перебор не уложится в бюджет.
+     * @return вероятности клеток.
+     * @throws IllegalArgumentException если доска не стандартного размера,
+     * потоплен корабль, которого нет во флоте, или перебор показал, что
+     * согласных с доской расстановок нет.
+     * @throws IllegalStateException если перебор не уложился в бюджет, а выборка
+     * не нашла ни одной согласной расстановки.
+     */
+    public Solution solve(GameBoard target, int[] fleet, long seed) {
+        Problem problem = new Problem(target, fleet);
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            Search search = new Search(problem, this.nodeBudget,
+                    System.nanoTime() + this.timeBudgetMillis * 1_000_000);
+            Counts counts = pool.invoke(new Enumerate(search, 0, 0, problem.blockedLo, problem.blockedHi));
+            if (!search.aborted) {
+                if (counts.count == 0) {
+                    throw new IllegalArgumentException("Нет расстановок флота, согласных с доской");
+                }
+                double[] probabilities = new double[CELLS];
+                for (int cell = 0; cell < CELLS; cell++) {
+                    probabilities[cell] = (double) counts.cells[cell] / counts.count;
+                }
+                return problem.solution(probabilities, true, counts.count, 0, search.nodes.get());
+            }
+            return sample(pool, problem, seed, search.nodes.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /***
+     * Оценивает вероятности выборкой: пути делятся поровну между задачами, по
+     * одной на поток, веса складываются.
+     */
+    private Solution sample(ForkJoinPool pool, Problem problem, long seed, long nodes) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int perTask = (this.samples + this.parallelism - 1) / this.parallelism;
+        List<Paths> tasks = new ArrayList<>();
+        for (int i = 0; i < this.parallelism; i++) {
+            tasks.add(new Paths(problem, random.split(), perTask));
+        }
+        for (Paths task : tasks) {
+            pool.execute(task);
+        }
+        double total = 0;
+        double[] occupied = new double[CELLS];
+        for (Paths task : tasks) {
+            double[] weights = task.join();
+            for (int cell = 0; cell < CELLS; cell++) {
+                occupied[cell] += weights[cell];
+            }
+            total += weights[CELLS];
+        }
+        if (total == 0) {
+            throw new IllegalStateException("Выборка не нашла ни одной расстановки, согласной с доской");
+        }
+        double[] probabilities = new double[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            probabilities[cell] = occupied[cell] / total;
+        }
+        return problem.solution(probabilities, false, -1, perTask * this.parallelism, nodes);
+    }
+
+    /***
+     * Наблюдения, переведенные в маски, и оставшийся флот.
+     */
+    private static final class Problem {
+
+        /***
+         * Оставшиеся корабли по убыванию длины, их таблицы и допустимые позиции:
+         * не на промахах и окружении потопленных кораблей, не вплотную к
+         * подбитым клеткам и не только из подбитых клеток.
+         */
+        final int ships;
+        final PlacementTable[] tables;
+        final int[][] candidates;
+        /***
+         * Признак первого корабля своей длины и суммарная длина кораблей начиная с данного.
+         */
+        final boolean[] groupStart;
+        final int[] remainingCells;
+        final long hitsLo;
+        final long hitsHi;
+        /***
+         * Клетки, где кораблей быть не может: промахи и потопленные корабли с окружением.
+         */
+        final long blockedLo;
+        final long blockedHi;
+        /***
+         * Клетки потопленных кораблей и клетки, по которым еще не стреляли.
+         */
+        final long[] sunk = new long[2];
+        final boolean[] unknown = new boolean[CELLS];
+
+        Problem(GameBoard target, int[] fleet) {
+            if (target.getSize() != Board.SIZE) {
+                throw new IllegalArgumentException("Решатель работает только со стандартной доской");
+            }
+            long[] hits = new long[2];
+            long[] blocked = new long[2];
+            List<Integer> remaining = new ArrayList<>();
+            for (int length : fleet) {
+                remaining.add(length);
+            }
+            for (int cell = 0; cell < CELLS; cell++) {
+                Cell.Status status = target.getPublicStatus(cell);
+                if (status == Cell.Status.EMPTY) {
+                    this.unknown[cell] = true;
+                } else if (status == Cell.Status.HIT) {
+                    hits[cell >>> 6] |= 1L << cell;
+                } else if (status == Cell.Status.MISS) {
+                    blocked[cell >>> 6] |= 1L << cell;
+                } else {
+                    this.sunk[cell >>> 6] |= 1L << cell;
+                    ShipExtent extent = target.getSunkShip(cell);
+                    if (extent.getFirst() == cell) {
+                        if (!remaining.remove((Integer) extent.getLength())) {
+                            throw new IllegalArgumentException("Потоплен корабль, которого нет во флоте");
+                        }
+                        int placement = find(extent);
+                        PlacementTable table = PlacementTable.forLength(extent.getLength());
+                        blocked[0] |= table.maskLo(placement) | table.haloLo(placement);
+                        blocked[1] |= table.maskHi(placement) | table.haloHi(placement);
+                    }
+                }
+            }
+            this.hitsLo = hits[0];
+            this.hitsHi = hits[1];
+            this.blockedLo = blocked[0];
+            this.blockedHi = blocked[1];
+
+            remaining.sort((a, b) -> b - a);
+            this.ships = remaining.size();
+            this.tables = new PlacementTable[this.ships];
+            this.candidates = new int[this.ships][];
+            this.groupStart = new boolean[this.ships];
+            this.remainingCells = new int[this.ships + 1];
+            for (int i = this.ships - 1; i >= 0; i--) {
+                this.remainingCells[i] = this.remainingCells[i + 1] + remaining.get(i);
+            }
+            for (int i = 0; i < this.ships; i++) {
+                this.tables[i] = PlacementTable.forLength(remaining.get(i));
+                this.groupStart[i] = i == 0 || !remaining.get(i).equals(remaining.get(i - 1));
+                this.candidates[i] = this.groupStart[i] ? candidates(this.tables[i]) : this.candidates[i - 1];
+            }
+        }
+
+        private static int find(ShipExtent extent) {
+            PlacementTable table = PlacementTable.forLength(extent.getLength());
+            for (int placement : table.coveringCell(extent.getFirst())) {
+                if (table.firstCell(placement) == extent.getFirst()
+                        && (extent.getLength() == 1 || table.isVertical(placement) == extent.isVertical())) {
+                    return placement;
+                }
+            }
+            throw new IllegalStateException("Нет позиции для корабля в " + extent.getFirst());
+        }
+
+        private int[] candidates(PlacementTable table) {
+            int[] result = new int[table.size()];
+            int count = 0;
+            for (int p = 0; p < table.size(); p++) {
+                if ((table.maskLo(p) & this.blockedLo) == 0 && (table.maskHi(p) & this.blockedHi) == 0
+                        && allowed(table, p)) {
+                    result[count++] = p;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        /***
+         * Номер следующей позиции в candidates для корабля position + 1: одинаковые
+         * корабли ставятся по возрастанию, первый корабль новой длины - с начала.
+         */
+        int next(int position, int index) {
+            return position + 1 < this.ships && !this.groupStart[position + 1] ? index + 1 : 0;
+        }
+
+        /***
+         * Проверяет, что все подбитые клетки накрыты маской.
+         */
+        boolean coversHits(long lo, long hi) {
+            return (this.hitsLo & ~lo) == 0 && (this.hitsHi & ~hi) == 0;
+        }
+
+        int uncoveredHits(long lo, long hi) {
+            return Long.bitCount(this.hitsLo & ~lo) + Long.bitCount(this.hitsHi & ~hi);
+        }
+
+        /***
+         * Позицию можно занять кораблем: она не стоит вплотную к подбитым клеткам
+         * и состоит не только из подбитых клеток. Промахи и занятые клетки
+         * проверяются маской отдельно.
+         */
+        boolean allowed(PlacementTable table, int p) {
+            long lo = table.maskLo(p);
+            long hi = table.maskHi(p);
+            return (table.haloLo(p) & this.hitsLo) == 0 && (table.haloHi(p) & this.hitsHi) == 0
+                    && ((lo & ~this.hitsLo) != 0 || (hi & ~this.hitsHi) != 0);
+        }
+
+        /***
+         * Дополняет вероятности известными клетками потопленных кораблей.
+         */
+        Solution solution(double[] probabilities, boolean exact, long layouts, int samples, long nodes) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                if ((this.sunk[cell >>> 6] & 1L << cell) != 0) {
+                    probabilities[cell] = 1;
+                }
+            }
+            return new Solution(probabilities, this.unknown, exact, layouts, samples, nodes);
+        }
+    }
+
+    /***
+     * Количество расстановок поддерева и, для каждой клетки, количество тех из
+     * них, где клетка занята.
+     */
+    private static final class Counts {
+        long count;
+        final long[] cells = new long[CELLS];
+    }
+
+    /***
+     * Ключ запомненной подзадачи: маска занятых клеток с окружением и номер
+     * первого корабля очередной длины.
+     */
+    private record Key(long lo, long hi, int position) {
+    }
+
+    /***
+     * Общее состояние одного перебора.
+     */
+    private static final class Search {
+        final Problem problem;
+        final Map<Key, Counts> memo = new ConcurrentHashMap<>();
+        final AtomicLong nodes = new AtomicLong();
+        final long nodeBudget;
+        final long deadline;
+        volatile boolean aborted;
+
+        Search(Problem problem, long nodeBudget, long deadline) {
+            this.problem = problem;
+            this.nodeBudget = nodeBudget;
+            this.deadline = deadline;
+        }
+
+        /***
+         * Учитывает пройденные узлы.
+         * @return true - если бюджет исчерпан и перебор нужно прервать.
+         */
+        boolean exhausted(long delta) {
+            if (this.nodes.addAndGet(delta) > this.nodeBudget || System.nanoTime() > this.deadline) {
+                this.aborted = true;
+            }
+            return this.aborted;
+        }
+
+        void remember(Key key, Counts counts) {
+            if (!this.aborted && this.memo.size() < MEMO_LIMIT) {
+                this.memo.putIfAbsent(key, counts);
+            }
+        }
+    }
+
+    /***
+     * Перебор расстановок кораблей начиная с position. На первых SPLIT_DEPTH
+     * уровнях каждая позиция корабля перебирается отдельной задачей, ниже -
+     * рекурсией в потоке задачи.
+     */
+    private static final class Enumerate extends RecursiveTask<Counts> {
+
+        private final Search search;
+        private final int position;
+        private final int from;
+        private final long lo;
+        private final long hi;
+        /***
+         * Узлы, пройденные задачей с последней сверки с бюджетом.
+         */
+        private int nodes;
+        /***
+         * Бюджет исчерпан: оставшиеся узлы задачи не обходятся.
+         */
+        private boolean stopped;
+
+        Enumerate(Search search, int position, int from, long lo, long hi) {
+            this.search = search;
+            this.position = position;
+            this.from = from;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Counts compute() {
+            Problem problem = this.search.problem;
+            Counts result = new Counts();
+            if (this.search.aborted) {
+                // бюджет исчерпан до начала задачи, результат все равно отбрасывается.
+                return result;
+            }
+            if (this.position >= SPLIT_DEPTH || this.position == problem.ships) {
+                result.count = count(this.position, this.from, this.lo, this.hi, result.cells);
+                this.search.exhausted(this.nodes);
+                return result;
+            }
+            PlacementTable table = problem.tables[this.position];
+            int[] list = problem.candidates[this.position];
+            List<Enumerate> tasks = new ArrayList<>();
+            List<Integer> placements = new ArrayList<>();
+            for (int i = this.from; i < list.length; i++) {
+                int p = list[i];
+                if ((table.maskLo(p) & this.lo) == 0 && (table.maskHi(p) & this.hi) == 0) {
+                    tasks.add(new Enumerate(this.search, this.position + 1, problem.next(this.position, i),
+                            this.lo | table.maskLo(p) | table.haloLo(p), this.hi | table.maskHi(p) | table.haloHi(p)));
+                    placements.add(p);
+                }
+            }
+            invokeAll(tasks);
+            for (int t = 0; t < tasks.size(); t++) {
+                Counts child = tasks.get(t).join();
+                result.count += child.count;
+                for (int cell = 0; cell < CELLS; cell++) {
+                    result.cells[cell] += child.cells[cell];
+                }
+                for (int k = 0; k < table.getLength(); k++) {
+                    result.cells[table.cell(placements.get(t), k)] += child.count;
+                }
+            }
+            return result;
+        }
+
+        /***
+         * Считает расстановки оставшихся кораблей и прибавляет занятость клеток к cells.
+         * @return количество расстановок.
+         */
+        private long count(int position, int from, long lo, long hi, long[] cells) {
+            Problem problem = this.search.problem;
+            if (position == problem.ships) {
+                return problem.coversHits(lo, hi) ? 1 : 0;
+            }
+            if (this.stopped) {
+                return 0;
+            }
+            if (++this.nodes == CHECK_INTERVAL) {
+                this.nodes = 0;
+                if (this.search.exhausted(CHECK_INTERVAL)) {
+                    this.stopped = true;
+                    return 0;
+                }
+            }
+            if (problem.uncoveredHits(lo, hi) > problem.remainingCells[position]) {
+                return 0;
+            }
+            if (from != 0 || !problem.groupStart[position]) {
+                return expand(position, from, lo, hi, cells);
+            }
+            Key key = new Key(lo, hi, position);
+            Counts cached = this.search.memo.get(key);
+            if (cached == null) {
+                cached = new Counts();
+                cached.count = expand(position, 0, lo, hi, cached.cells);
+                this.search.remember(key, cached);
+            }
+            for (int cell = 0; cell < CELLS; cell++) {
+                cells[cell] += cached.cells[cell];
+            }
+            return cached.count;
+        }
+
+        private long expand(int position, int from, long lo, long hi, long[] cells) {
+            Problem problem = this.search.problem;
+            PlacementTable table = problem.tables[position];
+            int[] list = problem.candidates[position];
+            long total = 0;
+            for (int i = from; i < list.length; i++) {
+                int p = list[i];
+                if ((table.maskLo(p) & lo) != 0 || (table.maskHi(p) & hi) != 0) {
+                    continue;
+                }
+                long child = count(position + 1, problem.next(position, i),
+                        lo | table.maskLo(p) | table.haloLo(p), hi | table.maskHi(p) | table.haloHi(p), cells);
+                if (child != 0) {
+                    total += child;
+                    for (int k = 0; k < table.getLength(); k++) {
+                        cells[table.cell(p, k)] += child;
+                    }
+                }
+            }
+            return total;
+        }
+    }
+
+    /***
+     * Серия случайных путей по дереву выборки. Возвращает взвешенную занятость
+     * клеток и, в элементе CELLS, сумму весов.
+     */
+    private static final class Paths extends RecursiveTask<double[]> {
+
+        private final Problem problem;
+        private final SplittableRandom random;
+        private final int samples;
+        /***
+         * Количество оставшихся кораблей каждой длины и номер следующей позиции в
+         * candidates для кораблей, которые ставятся по убыванию длины.
+         */
+        private final int[] left = new int[PlacementTable.MAX_LENGTH + 1];
+        private final int[] from = new int[PlacementTable.MAX_LENGTH + 1];
+        /***
+         * Длины и позиции кораблей текущего пути.
+         */
+        private final int[] lengths;
+        private final int[] placements;
+
+        Paths(Problem problem, SplittableRandom random, int samples) {
+            this.problem = problem;
+            this.random = random;
+            this.samples = samples;
+            this.lengths = new int[problem.ships];
+            this.placements = new int[problem.ships];
+        }
+
+        @Override
+        protected double[] compute() {
+            double[] result = new double[CELLS + 1];
+            for (int s = 0; s < this.samples; s++) {
+                double weight = walk();
+                if (weight == 0) {
+                    continue;
+                }
+                result[CELLS] += weight;
+                for (int i = 0; i < this.problem.ships; i++) {
+                    PlacementTable table = PlacementTable.forLength(this.lengths[i]);
+                    for (int k = 0; k < table.getLength(); k++) {
+                        result[table.cell(this.placements[i], k)] += weight;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /***
+         * Проходит один случайный путь от корня.
+         * @return вес пути или 0, если путь зашел в тупик.
+         */
+        private double walk() {
+            Problem problem = this.problem;
+            Arrays.fill(this.left, 0);
+            Arrays.fill(this.from, 0);
+            // клетки еще не поставленных кораблей, сумма left[length] * length: coverHit
+            // ставит корабли не по убыванию длины, и remainingCells здесь не подходит.
+            int remaining = 0;
+            for (int i = 0; i < problem.ships; i++) {
+                int length = problem.tables[i].getLength();
+                this.left[length]++;
+                remaining += length;
+            }
+            long lo = problem.blockedLo;
+            long hi = problem.blockedHi;
+            long shipsLo = 0;
+            long shipsHi = 0;
+            double weight = 1;
+            for (int placed = 0; placed < problem.ships; placed++) {
+                if (problem.uncoveredHits(shipsLo, shipsHi) > remaining) {
+                    return 0;
+                }
+                long uncoveredLo = problem.hitsLo & ~shipsLo;
+                long uncoveredHi = problem.hitsHi & ~shipsHi;
+                int choices;
+                if ((uncoveredLo | uncoveredHi) != 0) {
+                    int hit = uncoveredLo != 0 ? Long.numberOfTrailingZeros(uncoveredLo)
+                            : Long.SIZE + Long.numberOfTrailingZeros(uncoveredHi);
+                    choices = coverHit(hit, lo, hi, placed);
+                } else {
+                    choices = placeLongest(lo, hi, placed);
+                }
+                if (choices == 0) {
+                    return 0;
+                }
+                weight *= choices;
+                remaining -= this.lengths[placed];
+                PlacementTable table = PlacementTable.forLength(this.lengths[placed]);
+                int p = this.placements[placed];
+                lo |= table.maskLo(p) | table.haloLo(p);
+                hi |= table.maskHi(p) | table.haloHi(p);
+                shipsLo |= table.maskLo(p);
+                shipsHi |= table.maskHi(p);
+            }
+            return problem.coversHits(shipsLo, shipsHi) ? weight : 0;
+        }
+
+        /***
+         * Выбирает корабль и позицию, накрывающую подбитую клетку: все
+         * оставшиеся длины, все свободные допустимые позиции через клетку.
+         * @return количество вариантов; выбранный записывается в позицию placed пути.
+         */
+        private int coverHit(int hit, long lo, long hi, int placed) {
+            int choices = 0;
+            for (int length = 1; length <= PlacementTable.MAX_LENGTH; length++) {
+                if (this.left[length] == 0) {
+                    continue;
+                }
+                PlacementTable table = PlacementTable.forLength(length);
+                for (int p : table.coveringCell(hit)) {
+                    if ((table.maskLo(p) & lo) == 0 && (table.maskHi(p) & hi) == 0 && this.problem.allowed(table, p)
+                            && this.random.nextInt(++choices) == 0) {
+                        // выбор равновероятен: i-й вариант заменяет выбранный с вероятностью 1/i.
+                        this.lengths[placed] = length;
+                        this.placements[placed] = p;
+                    }
+                }
+            }
+            if (choices != 0) {
+                this.left[this.lengths[placed]]--;
+            }
+            return choices;
+        }
+
+        /***
+         * Ставит самый длинный из оставшихся кораблей в свободную позицию из
+         * candidates; одинаковые корабли - по возрастанию номера позиции.
+         * @return количество вариантов; выбранный записывается в позицию placed пути.
+         */
+        private int placeLongest(long lo, long hi, int placed) {
+            int length = PlacementTable.MAX_LENGTH;
+            while (this.left[length] == 0) {
+                length--;
+            }
+            PlacementTable table = PlacementTable.forLength(length);
+            int[] list = this.problem.candidates[firstShip(length)];
+            int choices = 0;
+            int chosen = -1;
+            for (int i = this.from[length]; i < list.length; i++) {
+                int p = list[i];
+                if ((table.maskLo(p) & lo) == 0 && (table.maskHi(p) & hi) == 0
+                        && this.random.nextInt(++choices) == 0) {
+                    chosen = i;
+                }
+            }
+            if (choices != 0) {
+                this.lengths[placed] = length;
+                this.placements[placed] = list[chosen];
+                this.from[length] = chosen + 1;
+                this.left[length]--;
+            }
+            return choices;
+        }
+
+        /***
+         * Номер первого корабля длины length в Problem: у кораблей одной длины
+         * общий список candidates.
+         */
+        private int firstShip(int length) {
+            int i = 0;
+            while (this.problem.tables[i].getLength() != length) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+}
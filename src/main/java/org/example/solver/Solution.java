@@ -0,0 +1,97 @@
+package org.example.solver;
+
+import org.example.placement.PlacementTable;
+
+/***
+ * Результат решателя: для каждой клетки доля расстановок флота, согласных с
+ * наблюдениями, в которых клетка занята кораблем.
+ * Точный результат получен перебором всех расстановок, приближенный - выборкой
+ * расстановок, если перебор не уложился в бюджет.
+ */
+public final class Solution {
+
+    private final double[] probabilities;
+    /***
+     * Клетки, по которым еще не стреляли.
+     */
+    private final boolean[] unknown;
+    private final boolean exact;
+    private final long layouts;
+    private final int samples;
+    private final long nodes;
+
+    Solution(double[] probabilities, boolean[] unknown, boolean exact, long layouts, int samples, long nodes) {
+        this.probabilities = probabilities;
+        this.unknown = unknown;
+        this.exact = exact;
+        this.layouts = layouts;
+        this.samples = samples;
+        this.nodes = nodes;
+    }
+
+    /***
+     * @param cell номер клетки.
+     * @return вероятность того, что в клетке стоит корабль: 1 для подбитых
+     * клеток, 0 для промахов.
+     */
+    public double getProbability(int cell) {
+        return this.probabilities[cell];
+    }
+
+    /***
+     * @return вероятности всех клеток; массив - копия.
+     */
+    public double[] getProbabilities() {
+        return this.probabilities.clone();
+    }
+
+    /***
+     * Лучший выстрел: неатакованная клетка с наибольшей вероятностью корабля.
+     * @return номер клетки или -1, если неатакованных клеток нет.
+     */
+    public int getBestCell() {
+        int best = -1;
+        for (int cell = 0; cell < PlacementTable.CELLS; cell++) {
+            if (this.unknown[cell] && (best < 0 || this.probabilities[cell] > this.probabilities[best])) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /***
+     * @return true - если вероятности получены полным перебором.
+     */
+    public boolean isExact() {
+        return this.exact;
+    }
+
+    /***
+     * @return количество расстановок, согласных с наблюдениями, для точного
+     * результата или -1 для приближенного.
+     */
+    public long getLayouts() {
+        return this.layouts;
+    }
+
+    /***
+     * @return количество расстановок в выборке; 0 для точного результата.
+     */
+    public int getSamples() {
+        return this.samples;
+    }
+
+    /***
+     * @return количество узлов перебора, включая прерванный перебор.
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    @Override
+    public String toString() {
+        return (this.exact ? "точно, расстановок: " + this.layouts : "выборка: " + this.samples)
+                + ", узлов перебора: " + this.nodes + ", лучшая клетка: " + getBestCell();
+    }
+
+}
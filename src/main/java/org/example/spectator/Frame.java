@@ -0,0 +1,60 @@
+package org.example.spectator;
+
+import java.nio.ByteBuffer;
+
+/***
+ * Закодированное обновление для зрителей партии.
+ * Кадр создается один раз на событие и общий для всех подписчиков: данные лежат
+ * в буфере только для чтения, а каждый подписчик получает собственную копию
+ * позиции и границы буфера (ByteBuffer.duplicate), но не байтов.
+ */
+public final class Frame {
+
+    /***
+     * Вид кадра.
+     * SHOT - строка о результате одного выстрела.
+     * STATE - открытый вид обеих досок целиком, как GameBoard.displayBoard(true).
+     * Кадр STATE заменяет все предыдущие кадры.
+     */
+    public enum Type {
+        SHOT, STATE
+    }
+
+    private final Type type;
+    /***
+     * Номер события: кадры одной партии нумеруются по возрастанию, кадр STATE
+     * имеет номер последнего учтенного в нем события.
+     */
+    private final long version;
+    private final ByteBuffer data;
+
+    Frame(Type type, long version, byte[] bytes) {
+        this.type = type;
+        this.version = version;
+        this.data = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    /***
+     * @return буфер только для чтения с текстом кадра в UTF-8; каждый вызов
+     * возвращает новый буфер над теми же байтами с позицией 0.
+     */
+    public ByteBuffer getData() {
+        return this.data.duplicate();
+    }
+
+    /***
+     * @return размер кадра в байтах.
+     */
+    public int size() {
+        return this.data.capacity();
+    }
+
+}
@@ -0,0 +1,167 @@
+package org.example.spectator;
+
+import org.example.board.BoardListener;
+import org.example.board.BoardRenderer;
+import org.example.board.Cell;
+import org.example.board.GameBoard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/***
+ * Трансляция партии зрителям.
+ * Доски партии сообщают о выстрелах через слушателей listener(player). На каждое
+ * событие лента один раз кодирует строку о выстреле (кадр SHOT) и открытый вид
+ * обеих досок (кадр STATE) и раздает кадр SHOT всем подпискам без копирования.
+ * Открытый вид рисуется кэширующими BoardRenderer со скрытыми кораблями, как
+ * GameBoard.displayBoard(true), поэтому стоимость события не зависит от
+ * количества зрителей: медленный зритель получает вместо пропущенных кадров
+ * последний кадр STATE, который уже закодирован.
+ * События публикуются из одного потока партии, подписываться и отписываться можно
+ * из любого потока.
+ */
+public class SpectatorFeed {
+
+    /***
+     * Емкость буфера подписки по умолчанию.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final String[] names;
+    private final GameBoard[] boards;
+    private final BoardRenderer[] views;
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final StringBuilder text = new StringBuilder();
+    /***
+     * Номер последнего события; меняется только потоком партии.
+     */
+    private long version;
+    /***
+     * Последнее состояние досок.
+     */
+    private volatile Frame state;
+
+    /***
+     * @param firstName имя первого игрока.
+     * @param first доска первого игрока.
+     * @param secondName имя второго игрока.
+     * @param second доска второго игрока.
+     */
+    public SpectatorFeed(String firstName, GameBoard first, String secondName, GameBoard second) {
+        this.names = new String[]{firstName, secondName};
+        this.boards = new GameBoard[]{first, second};
+        this.views = new BoardRenderer[]{new BoardRenderer(first, true), new BoardRenderer(second, true)};
+        this.state = encodeState();
+    }
+
+    /***
+     * Слушатель доски игрока, который публикует удары по ней. Устанавливается на
+     * доску через GameBoard.addListener.
+     * @param player номер игрока: GameEngine.FIRST или GameEngine.SECOND.
+     * @return слушатель.
+     */
+    public BoardListener listener(int player) {
+        GameBoard board = this.boards[player];
+        return new BoardListener() {
+            @Override
+            public void shipPlaced(int length, int cell, boolean vertical) {
+                // зрители видят доски так же, как противник: без целых кораблей.
+            }
+
+            @Override
+            public void attacked(int cell, Cell.Status status) {
+                publishShot(1 - player, board.toCoordinate(cell), status);
+            }
+
+            @Override
+            public void cleared() {
+                publishState();
+            }
+        };
+    }
+
+    /***
+     * Подписывает зрителя с буфером емкости DEFAULT_CAPACITY.
+     * @see #subscribe(int)
+     */
+    public Subscription subscribe() {
+        return subscribe(DEFAULT_CAPACITY);
+    }
+
+    /***
+     * Подписывает зрителя. Первым кадром подписки будет текущее состояние досок.
+     * @param capacity сколько кадров SHOT копится до того, как зритель считается
+     * отставшим: степень двойки.
+     * @return подписка.
+     * @throws IllegalArgumentException если емкость не степень двойки.
+     */
+    public Subscription subscribe(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Емкость должна быть степенью двойки: " + capacity);
+        }
+        Subscription subscription = new Subscription(this, capacity);
+        this.subscriptions.add(subscription);
+        return subscription;
+    }
+
+    void unsubscribe(Subscription subscription) {
+        this.subscriptions.remove(subscription);
+    }
+
+    /***
+     * @return количество подписок.
+     */
+    public int getSubscribers() {
+        return this.subscriptions.size();
+    }
+
+    /***
+     * @return кадр STATE с последним состоянием досок.
+     */
+    public Frame getState() {
+        return this.state;
+    }
+
+    private void publishShot(int shooter, String coordinate, Cell.Status status) {
+        this.text.setLength(0);
+        this.text.append(this.names[shooter]).append(" стреляет в ").append(coordinate).append(". ")
+                .append(switch (status) {
+                    case HIT -> "Есть попадание!";
+                    case SUNKEN -> "Уничтожен!";
+                    default -> "Промах!";
+                }).append('\n');
+        Frame shot = new Frame(Frame.Type.SHOT, ++this.version, encode());
+        // состояние публикуется раньше кадра: отставший зритель, который читает
+        // состояние вместо кадров, должен увидеть и этот выстрел.
+        this.state = encodeState();
+        for (Subscription subscription : this.subscriptions) {
+            subscription.offer(shot);
+        }
+    }
+
+    /***
+     * Публикует только состояние, например после очистки доски: все подписки
+     * получат его вместо накопленных кадров.
+     */
+    private void publishState() {
+        this.version++;
+        this.state = encodeState();
+        for (Subscription subscription : this.subscriptions) {
+            subscription.offer(this.state);
+        }
+    }
+
+    private Frame encodeState() {
+        this.text.setLength(0);
+        for (int player = 0; player < 2; player++) {
+            this.text.append("Доска игрока ").append(this.names[player]).append(":\n")
+                    .append(this.views[player].render());
+        }
+        return new Frame(Frame.Type.STATE, this.version, encode());
+    }
+
+    private byte[] encode() {
+        return this.text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.example.spectator;
+
+/***
+ * Подписка зрителя на кадры партии.
+ * Кадры SHOT складываются в кольцевой буфер фиксированной емкости: в него пишет
+ * только поток партии, читает только поток зрителя, поэтому достаточно двух
+ * volatile-индексов без блокировок. Если буфер заполнен, зритель отстал: новые
+ * кадры ему не записываются, а при следующем чтении все накопленное заменяется
+ * одним кадром STATE с последним состоянием досок. Первый прочитанный кадр
+ * подписки - тоже STATE.
+ * Методы чтения вызываются из одного потока зрителя.
+ */
+public final class Subscription implements AutoCloseable {
+
+    private final SpectatorFeed feed;
+    private final Frame[] ring;
+    private final int mask;
+    /***
+     * Номер следующей записи (пишет поток партии) и следующего чтения (поток зрителя).
+     */
+    private volatile long head;
+    private volatile long tail;
+    /***
+     * Зритель отстал: накопленные кадры нужно заменить последним состоянием.
+     */
+    private volatile boolean lagged = true;
+    /***
+     * Номер последнего выданного кадра; кадры с меньшим или равным номером уже
+     * учтены в выданном кадре STATE.
+     */
+    private long lastVersion = -1;
+    /***
+     * Выдан ли первый кадр подписки.
+     */
+    private boolean started;
+    /***
+     * Количество раз, когда отставание сворачивалось в кадр STATE.
+     */
+    private volatile long coalesced;
+
+    /***
+     * @param capacity емкость буфера: степень двойки.
+     */
+    Subscription(SpectatorFeed feed, int capacity) {
+        this.feed = feed;
+        this.ring = new Frame[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /***
+     * Добавляет кадр из потока партии.
+     */
+    void offer(Frame frame) {
+        long position = this.head;
+        if (position - this.tail == this.ring.length) {
+            this.lagged = true;
+            return;
+        }
+        this.ring[(int) (position & this.mask)] = frame;
+        this.head = position + 1;
+    }
+
+    /***
+     * Возвращает следующий кадр без ожидания.
+     * @return кадр или null, если новых событий нет.
+     */
+    public Frame poll() {
+        if (this.lagged) {
+            // сначала снимаем признак, затем читаем состояние: поток партии
+            // публикует состояние раньше, чем отмечает отставание.
+            this.lagged = false;
+            long position = this.head;
+            for (long i = this.tail; i < position; i++) {
+                this.ring[(int) (i & this.mask)] = null;
+            }
+            this.tail = position;
+            Frame state = this.feed.getState();
+            if (state.getVersion() > this.lastVersion) {
+                this.lastVersion = state.getVersion();
+                if (this.started) {
+                    this.coalesced++;
+                }
+                this.started = true;
+                return state;
+            }
+        }
+        while (this.tail != this.head) {
+            long position = this.tail;
+            int index = (int) (position & this.mask);
+            Frame frame = this.ring[index];
+            this.ring[index] = null;
+            this.tail = position + 1;
+            if (frame.getVersion() > this.lastVersion) {
+                this.lastVersion = frame.getVersion();
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    /***
+     * @return количество кадров, ожидающих чтения, не считая свернутых.
+     */
+    public int pending() {
+        return (int) (this.head - this.tail);
+    }
+
+    /***
+     * @return сколько раз отставание зрителя сворачивалось в кадр STATE.
+     */
+    public long getCoalesced() {
+        return this.coalesced;
+    }
+
+    /***
+     * Отписывает зрителя от партии.
+     */
+    @Override
+    public void close() {
+        this.feed.unsubscribe(this);
+    }
+
+}
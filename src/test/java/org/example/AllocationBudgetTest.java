@@ -0,0 +1,240 @@
+package org.example;
+
+import org.example.board.Board;
+import org.example.board.Cell;
+import org.example.component.Game;
+import org.example.component.GameConfig;
+import org.example.component.TokenReader;
+import org.example.exception.CoordinateIsInvalidException;
+import org.example.exception.InvalidCoordinatesCountException;
+import org.example.exception.ShipPlacementInvalidException;
+import org.example.ship.Ship;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/***
+ * Страж выделений памяти на горячих путях движка. Количество байт, выделенных
+ * текущим потоком, берется из счетчика com.sun.management.ThreadMXBean до и
+ * после серии операций; тест падает, если среднее на операцию превышает бюджет.
+ * Перед измерением операции прогреваются, чтобы JIT успел убрать выделения,
+ * которые он умеет убирать. Если JVM не поддерживает счетчик, тесты пропускаются.
+ * Бюджеты задаются константами ниже; их можно переопределить системными
+ * свойствами battleship.budget.attack и т. д., например при смене JVM.
+ */
+class AllocationBudgetTest {
+
+    /***
+     * Байт на удар по номеру клетки: удар не должен выделять память вовсе.
+     */
+    private static final long ATTACK_BUDGET = budget("attack", 0);
+    /***
+     * Байт на удар по строковой координате: разбор координаты тоже без выделений.
+     */
+    private static final long PARSED_ATTACK_BUDGET = budget("parsedAttack", 0);
+    /***
+     * Байт на проверку возможности поставить корабль.
+     */
+    private static final long PLACEMENT_BUDGET = budget("placement", 0);
+    /***
+     * Байт на полную партию через Game без вывода: игроки, доски, корабли, буфер
+     * чтения и строки координат из сценария.
+     */
+    private static final long GAME_BUDGET = budget("game", 64 * 1024);
+    /***
+     * Байт на всю серию сверх бюджета: постоянные выделения самого измерения,
+     * не зависящие от количества операций.
+     */
+    private static final long MEASUREMENT_ALLOWANCE = 1024;
+    /***
+     * Количество досок в серии ударов и партий в серии игр.
+     */
+    private static final int BOARDS = 2000;
+    private static final int GAMES = 200;
+    /***
+     * Количество серий прогрева перед измерением.
+     */
+    private static final int WARMUP = 5;
+    /***
+     * Расстановка стандартного флота в порядке GameConfig.STANDARD.
+     */
+    private static final String[][] FLEET = {
+            {"a0", "a1", "a2", "a3"},
+            {"c0", "c1", "c2"}, {"c4", "c5", "c6"},
+            {"e0", "e1"}, {"e3", "e4"}, {"e6", "e7"},
+            {"g0"}, {"g2"}, {"g4"}, {"g6"}
+    };
+    private static final int CELLS = Board.SIZE * Board.SIZE;
+    private static final String[] COORDINATES = new String[CELLS];
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            COORDINATES[i] = "" + (char) ('a' + i / Board.SIZE) + (i % Board.SIZE);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeAll
+    static void setUp() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "JVM не предоставляет com.sun.management.ThreadMXBean");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Счетчик выделений не поддерживается");
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void attackDoesNotAllocate() {
+        long bytes = measure(() -> {
+            Board[] boards = fullBoards();
+            long start = threads.getCurrentThreadAllocatedBytes();
+            for (Board board : boards) {
+                for (int cell = 0; cell < CELLS; cell++) {
+                    board.attack(cell);
+                }
+            }
+            return threads.getCurrentThreadAllocatedBytes() - start;
+        });
+        assertWithin("Board.attack(int)", bytes, (long) BOARDS * CELLS, ATTACK_BUDGET);
+    }
+
+    @Test
+    void parsedAttackDoesNotAllocate() {
+        long bytes = measure(() -> {
+            Board[] boards = fullBoards();
+            long start = threads.getCurrentThreadAllocatedBytes();
+            for (Board board : boards) {
+                for (String coordinate : COORDINATES) {
+                    try {
+                        board.attack(coordinate);
+                    } catch (CoordinateIsInvalidException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+            return threads.getCurrentThreadAllocatedBytes() - start;
+        });
+        assertWithin("Board.attack(String)", bytes, (long) BOARDS * CELLS, PARSED_ATTACK_BUDGET);
+    }
+
+    @Test
+    void placementCheckDoesNotAllocate() {
+        Board board = fullBoard();
+        int[] placeable = new int[1];
+        long bytes = measure(() -> {
+            long start = threads.getCurrentThreadAllocatedBytes();
+            for (int round = 0; round < BOARDS; round++) {
+                for (int cell = 0; cell < CELLS; cell++) {
+                    for (int length = 1; length <= 4; length++) {
+                        if (board.canPlace(length, cell, false)) {
+                            placeable[0]++;
+                        }
+                        if (board.canPlace(length, cell, true)) {
+                            placeable[0]++;
+                        }
+                    }
+                }
+            }
+            return threads.getCurrentThreadAllocatedBytes() - start;
+        });
+        assertTrue(placeable[0] > 0);
+        assertWithin("GameBoard.canPlace", bytes, (long) BOARDS * CELLS * 8, PLACEMENT_BUDGET);
+    }
+
+    @Test
+    void headlessGameStaysWithinBudget() {
+        String script = scriptedGame();
+        long bytes = measure(() -> {
+            long start = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < GAMES; i++) {
+                Game game = new Game(new TokenReader(script), GameConfig.STANDARD, null, null);
+                game.play();
+                if (game.getWinner() == null) {
+                    throw new IllegalStateException("Партия из сценария не закончилась");
+                }
+            }
+            return threads.getCurrentThreadAllocatedBytes() - start;
+        });
+        assertWithin("Game.play", bytes, GAMES, GAME_BUDGET);
+    }
+
+    /***
+     * Выполняет серию WARMUP раз для прогрева, затем еще раз для измерения.
+     * @return байт, выделенных в измеренной серии.
+     */
+    private static long measure(Series series) {
+        for (int i = 0; i < WARMUP; i++) {
+            series.run();
+        }
+        return series.run();
+    }
+
+    private static void assertWithin(String operation, long bytes, long operations, long budget) {
+        double perOperation = (double) bytes / operations;
+        assertTrue(bytes <= budget * operations + MEASUREMENT_ALLOWANCE, String.format(
+                "%s выделяет %.1f байт на операцию при бюджете %d", operation, perOperation, budget));
+    }
+
+    private static long budget(String name, long defaultBytes) {
+        return Long.getLong("battleship.budget." + name, defaultBytes);
+    }
+
+    private static Board[] fullBoards() {
+        Board[] boards = new Board[BOARDS];
+        for (int i = 0; i < BOARDS; i++) {
+            boards[i] = fullBoard();
+        }
+        return boards;
+    }
+
+    private static Board fullBoard() {
+        Board board = new Board();
+        try {
+            for (String[] coordinates : FLEET) {
+                board.addShip(Ship.ofLength(coordinates.length), coordinates);
+            }
+        } catch (InvalidCoordinatesCountException | CoordinateIsInvalidException
+                 | ShipPlacementInvalidException e) {
+            throw new IllegalStateException(e);
+        }
+        return board;
+    }
+
+    /***
+     * Сценарий полной партии: имена, расстановка флотов и выстрелы, которые игроки
+     * делают по очереди, обходя доску противника по строкам.
+     */
+    private static String scriptedGame() {
+        StringBuilder script = new StringBuilder("first\nsecond\n");
+        for (int player = 0; player < 2; player++) {
+            for (String[] coordinates : FLEET) {
+                script.append(String.join(" ", coordinates)).append('\n');
+            }
+        }
+        Board[] boards = {fullBoard(), fullBoard()};
+        int[] nextCell = new int[2];
+        int turn = 0;
+        while (boards[0].getLives() > 0 && boards[1].getLives() > 0) {
+            int cell = nextCell[turn]++;
+            script.append(COORDINATES[cell]).append('\n');
+            if (boards[1 - turn].attack(cell) == Cell.Status.MISS) {
+                turn = 1 - turn;
+            }
+        }
+        return script.toString();
+    }
+
+    /***
+     * Серия операций, возвращающая количество выделенных байт.
+     */
+    @FunctionalInterface
+    private interface Series {
+        long run();
+    }
+
+}
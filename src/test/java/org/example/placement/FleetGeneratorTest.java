@@ -0,0 +1,108 @@
+package org.example.placement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/***
+ * Сверка режима UNIFORM с точным распределением. Для флота из линкора и двух
+ * крейсеров все полтора миллиона расстановок перебираются за доли секунды, и
+ * вероятность занятости каждой клетки известна точно. Расстановки генератора
+ * независимы, поэтому частоты выборки отличаются от точных вероятностей только
+ * на погрешность выборки; режим FAST на том же флоте отличается заметно больше,
+ * что показывает чувствительность проверки.
+ */
+class FleetGeneratorTest {
+
+    private static final int[] FLEET = {4, 3, 3};
+    private static final int LAYOUTS = 200_000;
+    /***
+     * Допустимое расхождение частоты клетки: около пяти стандартных отклонений
+     * частоты при LAYOUTS расстановках.
+     */
+    private static final double TOLERANCE = 0.004;
+
+    @Test
+    void uniformModeMatchesExactCellProbabilities() {
+        double[] exact = exactProbabilities();
+        double[] sampled = sampledProbabilities(FleetGenerator.Mode.UNIFORM, 1);
+        for (int cell = 0; cell < PlacementTable.CELLS; cell++) {
+            assertEquals(exact[cell], sampled[cell], TOLERANCE, "Клетка " + cell);
+        }
+    }
+
+    @Test
+    void fastModeIsDetectablyBiased() {
+        double[] exact = exactProbabilities();
+        double[] sampled = sampledProbabilities(FleetGenerator.Mode.FAST, 1);
+        double difference = 0;
+        for (int cell = 0; cell < PlacementTable.CELLS; cell++) {
+            difference = Math.max(difference, Math.abs(exact[cell] - sampled[cell]));
+        }
+        assertTrue(difference > TOLERANCE, "Проверка не отличает FAST от равномерного выбора");
+    }
+
+    /***
+     * Перебирает все расстановки флота FLEET, считая корабли одной длины
+     * различимыми: каждой расстановке соответствует одинаковое число таких
+     * перестановок, поэтому вероятности клеток не меняются.
+     */
+    private static double[] exactProbabilities() {
+        PlacementTable battleship = PlacementTable.forLength(FLEET[0]);
+        PlacementTable cruiser = PlacementTable.forLength(FLEET[1]);
+        long[] occupied = new long[PlacementTable.CELLS];
+        long layouts = 0;
+        for (int a = 0; a < battleship.size(); a++) {
+            long zoneLo = battleship.maskLo(a) | battleship.haloLo(a);
+            long zoneHi = battleship.maskHi(a) | battleship.haloHi(a);
+            for (int b = 0; b < cruiser.size(); b++) {
+                if ((cruiser.maskLo(b) & zoneLo) != 0 || (cruiser.maskHi(b) & zoneHi) != 0) {
+                    continue;
+                }
+                long bothLo = zoneLo | cruiser.maskLo(b) | cruiser.haloLo(b);
+                long bothHi = zoneHi | cruiser.maskHi(b) | cruiser.haloHi(b);
+                for (int c = 0; c < cruiser.size(); c++) {
+                    if ((cruiser.maskLo(c) & bothLo) != 0 || (cruiser.maskHi(c) & bothHi) != 0) {
+                        continue;
+                    }
+                    layouts++;
+                    count(occupied, battleship, a);
+                    count(occupied, cruiser, b);
+                    count(occupied, cruiser, c);
+                }
+            }
+        }
+        double[] probabilities = new double[PlacementTable.CELLS];
+        for (int cell = 0; cell < PlacementTable.CELLS; cell++) {
+            probabilities[cell] = (double) occupied[cell] / layouts;
+        }
+        return probabilities;
+    }
+
+    private static double[] sampledProbabilities(FleetGenerator.Mode mode, long seed) {
+        FleetGenerator generator = new FleetGenerator(FLEET, mode);
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] occupied = new long[PlacementTable.CELLS];
+        for (int i = 0; i < LAYOUTS; i++) {
+            generator.generate(random);
+            for (int ship = 0; ship < generator.getShipCount(); ship++) {
+                count(occupied, PlacementTable.forLength(generator.getShipLength(ship)), generator.getPlacement(ship));
+            }
+        }
+        double[] probabilities = new double[PlacementTable.CELLS];
+        for (int cell = 0; cell < PlacementTable.CELLS; cell++) {
+            probabilities[cell] = (double) occupied[cell] / LAYOUTS;
+        }
+        return probabilities;
+    }
+
+    private static void count(long[] occupied, PlacementTable table, int placement) {
+        for (int k = 0; k < table.getLength(); k++) {
+            occupied[table.cell(placement, k)]++;
+        }
+    }
+
+}
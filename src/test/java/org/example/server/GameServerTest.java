@@ -0,0 +1,174 @@
+package org.example.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/***
+ * Проверка сервера клиентами на петлевом интерфейсе: сервер слушает порт 0
+ * адреса 127.0.0.1, клиенты - блокирующие SocketChannel, которые разговаривают
+ * по текстовому протоколу игры.
+ */
+class GameServerTest {
+
+    /***
+     * Флот обоих игроков в порядке FleetGenerator.STANDARD_FLEET, по кораблю в строке.
+     */
+    private static final String FLEET = "a0 a1 a2 a3\na5 a6 a7\nc0 c1 c2\nc4 c5\nc7 c8\ne0 e1\ne3\ne5\ne7\ng0\n";
+    /***
+     * Все клетки кораблей FLEET: первый игрок попадает каждым выстрелом, не
+     * отдает хода и побеждает.
+     */
+    private static final String SHOTS = "a0 a1 a2 a3 a5 a6 a7 c0 c1 c2 c4 c5 c7 c8 e0 e1 e3 e5 e7 g0\n";
+    private static final String ATTACK_PROMPT = "Введите координаты точки для атаки";
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    @Test
+    void scriptedGameEndsWithWinner() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (GameServer server = startServer();
+                 SocketChannel alice = connect(server);
+                 SocketChannel bob = connect(server)) {
+                playScriptedGame(alice, bob);
+            }
+        });
+    }
+
+    /***
+     * Клиент, который только пишет и не читает ответы, отключается сервером по
+     * переполнению буфера исходящих данных, а партия других клиентов тем временем
+     * доигрывается до конца.
+     */
+    @Test
+    void clientThatStopsReadingIsDisconnectedWithoutStallingOthers() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (GameServer server = startServer();
+                 SocketChannel slow = SocketChannel.open();
+                 SocketChannel partner = connect(server)) {
+                slow.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+                slow.connect(new InetSocketAddress("127.0.0.1", server.getPort()));
+                // slow подключился раньше и ждал соперника: пара составлена.
+                readUntil(partner, "Соперник найден");
+                CompletableFuture<Throwable> flood = CompletableFuture.supplyAsync(() -> flood(slow));
+
+                try (SocketChannel alice = connect(server);
+                     SocketChannel bob = connect(server)) {
+                    playScriptedGame(alice, bob);
+                }
+
+                Throwable failure = flood.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+                assertInstanceOf(IOException.class, failure, "Сервер не отключил клиента, который не читает");
+                String text = readAll(partner);
+                assertTrue(text.contains("Соперник отключился"), text);
+            }
+        });
+    }
+
+    private static GameServer startServer() throws IOException {
+        GameServer server = new GameServer(new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+        return server;
+    }
+
+    private static SocketChannel connect(GameServer server) throws IOException {
+        return SocketChannel.open(new InetSocketAddress("127.0.0.1", server.getPort()));
+    }
+
+    /***
+     * Оба игрока называют себя и расставляют FLEET, первый подключившийся
+     * стреляет по всем кораблям соперника.
+     */
+    private static void playScriptedGame(SocketChannel first, SocketChannel second) throws IOException {
+        write(first, "alice\n" + FLEET);
+        write(second, "bob\n" + FLEET);
+        // выстрелы до расстановки обоих флотов сервер отклоняет.
+        readUntil(first, ATTACK_PROMPT);
+        write(first, SHOTS);
+        String winner = "Победитель: !!! alice !!!";
+        String firstText = readAll(first);
+        String secondText = readAll(second);
+        assertTrue(firstText.contains(winner), firstText);
+        assertTrue(secondText.contains(winner), secondText);
+    }
+
+    /***
+     * Пишет ошибочные координаты, не читая ответов сервера, пока сервер не
+     * закроет соединение.
+     * @return исключение записи или null, если соединение так и не закрылось.
+     */
+    private static Throwable flood(SocketChannel channel) {
+        byte[] line = "zz zz zz zz\n".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer chunk = ByteBuffer.allocate(line.length * 1024);
+        while (chunk.remaining() >= line.length) {
+            chunk.put(line);
+        }
+        try {
+            write(channel, "slow\n");
+            // 24 МБ ввода - сотни мегабайт ответов: сервер, который их копит, не пройдет тест.
+            for (int i = 0; i < 2048; i++) {
+                chunk.rewind();
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            }
+        } catch (IOException e) {
+            return e;
+        }
+        return null;
+    }
+
+    private static void write(SocketChannel channel, String text) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    /***
+     * Читает, пока в полученном тексте не появится marker.
+     * @return полученный текст.
+     */
+    private static String readUntil(SocketChannel channel, String marker) throws IOException {
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        String text = "";
+        while (!text.contains(marker)) {
+            buffer.clear();
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Соединение закрыто до \"" + marker + "\": " + text);
+            }
+            received.write(buffer.array(), 0, buffer.position());
+            text = received.toString(StandardCharsets.UTF_8);
+        }
+        return text;
+    }
+
+    /***
+     * Читает до закрытия соединения сервером.
+     */
+    private static String readAll(SocketChannel channel) throws IOException {
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (true) {
+            buffer.clear();
+            if (channel.read(buffer) < 0) {
+                return received.toString(StandardCharsets.UTF_8);
+            }
+            received.write(buffer.array(), 0, buffer.position());
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package org.example.solver;
+
+import org.example.board.Board;
+import org.example.board.Cell;
+import org.example.exception.CoordinateIsInvalidException;
+import org.example.exception.InvalidCoordinatesCountException;
+import org.example.exception.ShipPlacementInvalidException;
+import org.example.placement.FleetGenerator;
+import org.example.ship.Ship;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/***
+ * Сверка выборочной оценки решателя с точным перебором. Позиции - стандартный
+ * флот после серии случайных ударов с хотя бы одним подбитым, но не потопленным
+ * кораблем: в них расстановок несколько тысяч, точный перебор занимает
+ * миллисекунды, а выборка ветвится по подбитым клеткам.
+ */
+class LayoutSolverTest {
+
+    /***
+     * Количество случайных ударов в позиции.
+     */
+    private static final int SHOTS = 45;
+    /***
+     * Наибольшее допустимое расхождение вероятности клетки.
+     */
+    private static final double TOLERANCE = 0.03;
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void sampledProbabilitiesMatchExactOnes() {
+        for (long seed : new long[]{13, 24}) {
+            Board board = position(seed);
+            Solution exact = new LayoutSolver(1, Long.MAX_VALUE, 60_000, 1).solve(board);
+            assertTrue(exact.isExact(), "Точный перебор не уложился в бюджет");
+            assertTrue(exact.getLayouts() > 0);
+            // нулевой бюджет перебора сразу переводит решатель на выборку.
+            Solution sampled = new LayoutSolver(1, 0, 0, SAMPLES)
+                    .solve(board, FleetGenerator.STANDARD_FLEET, seed);
+            assertFalse(sampled.isExact());
+            for (int cell = 0; cell < Board.SIZE * Board.SIZE; cell++) {
+                assertEquals(exact.getProbability(cell), sampled.getProbability(cell), TOLERANCE,
+                        "Позиция " + seed + ", клетка " + cell);
+            }
+        }
+    }
+
+    /***
+     * Два подбитых корабля: выборка накрывает первую подбитую клетку коротким
+     * кораблем раньше длинного, и оценка оставшихся клеток пути должна учитывать
+     * длины, которые действительно остались.
+     */
+    @Test
+    void samplerCoversHitsWithShortShipFirst()
+            throws CoordinateIsInvalidException, InvalidCoordinatesCountException, ShipPlacementInvalidException {
+        int[] fleet = {4, 2};
+        Board board = new Board();
+        board.addShip(Ship.ofLength(2), "c0", "c1");
+        board.addShip(Ship.ofLength(4), "e0", "e1", "e2", "e3");
+        for (String coordinate : new String[]{"c0", "e0", "e1", "e2"}) {
+            board.attack(coordinate);
+        }
+        Solution exact = new LayoutSolver(1, Long.MAX_VALUE, 60_000, 1).solve(board, fleet, 1);
+        assertTrue(exact.isExact());
+        assertEquals(2, exact.getLayouts());
+        Solution sampled = new LayoutSolver(1, 0, 0, SAMPLES).solve(board, fleet, 1);
+        assertFalse(sampled.isExact());
+        for (int cell = 0; cell < Board.SIZE * Board.SIZE; cell++) {
+            assertEquals(exact.getProbability(cell), sampled.getProbability(cell), TOLERANCE, "Клетка " + cell);
+        }
+    }
+
+    @Test
+    void inconsistentPositionIsRejected() {
+        Board board = new Board();
+        // все клетки доски - промахи: флоту негде стоять.
+        for (int cell = 0; cell < Board.SIZE * Board.SIZE; cell++) {
+            board.attack(cell);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new LayoutSolver(1, Long.MAX_VALUE, 60_000, 1).solve(board));
+    }
+
+    /***
+     * Стандартный флот, расставленный случайно, и SHOTS ударов по случайным
+     * нетронутым клеткам.
+     */
+    private static Board position(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Board board = new Board();
+        new FleetGenerator().place(board, random);
+        int shots = 0;
+        while (shots < SHOTS) {
+            int cell = random.nextInt(Board.SIZE * Board.SIZE);
+            if (board.getPublicStatus(cell) == Cell.Status.EMPTY) {
+                board.attack(cell);
+                shots++;
+            }
+        }
+        return board;
+    }
+
+}